@@ -0,0 +1,124 @@
+package nonogram;
+
+import java.util.Arrays;
+
+/**
+ * The cell states of a Nonogram grid packed into two on-heap bitplanes of long words.
+ * A cell is UNKNOWN when its "known" bit is clear, otherwise it is FULL or EMPTY
+ * according to its "full" bit, so each cell costs 2 bits. Every row starts on a
+ * fresh word, which lets whole rows be read, compared or copied word by word.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+class BitGrid implements Grid {
+	/**
+	 * Constructor, all cells are set to UNKNOWN
+	 *
+	 * @param numRows the number of rows
+	 * @param numCols the number of columns
+	 */
+	BitGrid(int numRows, int numCols) {
+		if (numRows < 1)
+			throw new IllegalArgumentException("numRows must be positive (" + numRows + ")");
+		if (numCols < 1)
+			throw new IllegalArgumentException("numCols must be positive (" + numCols + ")");
+		long numWords = (long) numRows * Grid.wordsFor(numCols);
+		if (numWords > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("grid too large (" + numRows + "x" + numCols + ")");
+		this.numRows     = numRows;
+		this.numCols     = numCols;
+		this.wordsPerRow = Grid.wordsFor(numCols);
+		this.known       = new long[(int) numWords];
+		this.full        = new long[(int) numWords];
+	}
+
+	@Override
+	public int getNumRows() {
+		return numRows;
+	}
+
+	@Override
+	public int getNumCols() {
+		return numCols;
+	}
+
+	@Override
+	public int getWordsPerRow() {
+		return wordsPerRow;
+	}
+
+	@Override
+	public int getState(int row, int col) {
+		int  idx = row*wordsPerRow + (col >>> 6);
+		long bit = 1L << col;
+		if ((known[idx] & bit) == 0)
+			return Nonogram.UNKNOWN;
+		return ((full[idx] & bit) != 0) ? Nonogram.FULL : Nonogram.EMPTY;
+	}
+
+	@Override
+	public void setState(int row, int col, int state) {
+		int  idx = row*wordsPerRow + (col >>> 6);
+		long bit = 1L << col;
+		if (state == Nonogram.UNKNOWN) {
+			known[idx] &= ~bit;
+			full[idx]  &= ~bit;
+		} else if (state == Nonogram.FULL) {
+			known[idx] |= bit;
+			full[idx]  |= bit;
+		} else {
+			known[idx] |= bit;
+			full[idx]  &= ~bit;
+		}
+	}
+
+	@Override
+	public void readRow(int row, byte[] dst) {
+		int base = row*wordsPerRow;
+		for (int w=0; w<wordsPerRow; w++) {
+			long k   = known[base + w];
+			long f   = full[base + w];
+			int  col = w << 6;
+			int  end = Math.min(numCols, col + 64);
+			for (int b=0; col<end; b++, col++)
+				dst[col] = (byte) Grid.decode(k, f, b);
+		}
+	}
+
+	@Override
+	public void readCol(int col, byte[] dst) {
+		int idx = col >>> 6;
+		int b   = col & 63;
+		for (int row=0; row<numRows; row++, idx+=wordsPerRow)
+			dst[row] = (byte) Grid.decode(known[idx], full[idx], b);
+	}
+
+	@Override
+	public void readRowWords(int row, long[] dst) {
+		System.arraycopy(known, row*wordsPerRow, dst, 0, wordsPerRow);
+		System.arraycopy(full, row*wordsPerRow, dst, wordsPerRow, wordsPerRow);
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(known, 0L);
+		Arrays.fill(full, 0L);
+	}
+
+	@Override
+	public long sizeInBytes() {
+		return 16L * known.length;
+	}
+
+	@Override
+	public void flush() {
+		// nothing to do, the grid is not backed by a file
+	}
+
+	private final int    numRows;
+	private final int    numCols;
+	private final int    wordsPerRow;
+	private final long[] known;        // bit set when the cell is FULL or EMPTY
+	private final long[] full;         // bit set when the cell is FULL
+}
@@ -0,0 +1,202 @@
+package nonogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The cell states of a Nonogram grid packed 2 bits per cell into off-heap memory,
+ * either a direct buffer or a memory-mapped file. Each row holds its words of
+ * "known" bits followed by its words of "full" bits (see BitGrid).
+ * <p>
+ * A mapped grid file starts with a small header (magic number, rows, columns and a
+ * fingerprint of the clues) so reopening it for the same puzzle finds the cell states
+ * exactly as they were left, and opening it for any other puzzle fails. The file is
+ * written little-endian whatever the machine, so it can be moved between machines.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+class BufferGrid implements Grid {
+	/**
+	 * Constructor for a grid in a direct (off-heap) buffer, all cells are set to UNKNOWN
+	 *
+	 * @param numRows the number of rows
+	 * @param numCols the number of columns
+	 */
+	BufferGrid(int numRows, int numCols) {
+		this(numRows, numCols, ByteBuffer.allocateDirect(checkedSize(numRows, numCols)).order(ByteOrder.nativeOrder()), null);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param numRows the number of rows
+	 * @param numCols the number of columns
+	 * @param data the buffer holding the cell states (in the byte order to read them in)
+	 * @param mapped the mapped buffer to force to disk on flush (or null)
+	 */
+	private BufferGrid(int numRows, int numCols, ByteBuffer data, MappedByteBuffer mapped) {
+		this.numRows     = numRows;
+		this.numCols     = numCols;
+		this.wordsPerRow = Grid.wordsFor(numCols);
+		this.words       = data.asLongBuffer();
+		this.mapped      = mapped;
+	}
+
+	/**
+	 * Open (or create) a grid backed by a memory-mapped file. An existing file for the same puzzle (the
+	 * same size and clues) keeps its cell states, a new or empty file starts with all cells UNKNOWN.
+	 *
+	 * @param numRows the number of rows
+	 * @param numCols the number of columns
+	 * @param clues a fingerprint of the puzzle's clues
+	 * @param file the grid file
+	 * @return the grid
+	 */
+	static BufferGrid mapped(int numRows, int numCols, long clues, File file) {
+		if (file == null)
+			throw new IllegalArgumentException("file cannot be null");
+		long size = HEADER_BYTES + checkedSize(numRows, numCols);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			boolean fresh = (raf.length() == 0);
+			if (fresh)
+				raf.setLength(size); // zero filled, so every cell is UNKNOWN
+			else if (raf.length() != size)
+				throw new NonogramException("grid file " + file + " is not for a " + numRows + "x" + numCols + " puzzle");
+			MappedByteBuffer buf = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size); // stays valid after close
+			buf.order(FILE_ORDER);
+			if (fresh) {
+				buf.putLong(0, MAGIC);
+				buf.putInt(8, numRows);
+				buf.putInt(12, numCols);
+				buf.putLong(16, clues);
+			} else if ((buf.getLong(0) != MAGIC) || (buf.getInt(8) != numRows) || (buf.getInt(12) != numCols)) {
+				throw new NonogramException("grid file " + file + " is not for a " + numRows + "x" + numCols + " puzzle");
+			} else if (buf.getLong(16) != clues) {
+				throw new NonogramException("grid file " + file + " is for a different puzzle of the same size");
+			}
+			ByteBuffer data = buf.duplicate().position(HEADER_BYTES).slice().order(FILE_ORDER);
+			return new BufferGrid(numRows, numCols, data, buf);
+		} catch (IOException e) {
+			throw new NonogramException("cannot map grid file " + file + " (" + e.getMessage() + ")");
+		}
+	}
+
+	@Override
+	public int getNumRows() {
+		return numRows;
+	}
+
+	@Override
+	public int getNumCols() {
+		return numCols;
+	}
+
+	@Override
+	public int getState(int row, int col) {
+		int idx = 2*row*wordsPerRow + (col >>> 6);
+		return Grid.decode(words.get(idx), words.get(idx + wordsPerRow), col & 63);
+	}
+
+	@Override
+	public void setState(int row, int col, int state) {
+		int  idx   = 2*row*wordsPerRow + (col >>> 6);
+		long bit   = 1L << col;
+		long known = words.get(idx);
+		long full  = words.get(idx + wordsPerRow);
+		if (state == Nonogram.UNKNOWN) {
+			known &= ~bit;
+			full  &= ~bit;
+		} else if (state == Nonogram.FULL) {
+			known |= bit;
+			full  |= bit;
+		} else {
+			known |= bit;
+			full  &= ~bit;
+		}
+		words.put(idx, known);
+		words.put(idx + wordsPerRow, full);
+	}
+
+	@Override
+	public void readRow(int row, byte[] dst) {
+		int base = 2*row*wordsPerRow;
+		for (int w=0; w<wordsPerRow; w++) {
+			long k   = words.get(base + w);
+			long f   = words.get(base + wordsPerRow + w);
+			int  col = w << 6;
+			int  end = Math.min(numCols, col + 64);
+			for (int b=0; col<end; b++, col++)
+				dst[col] = (byte) Grid.decode(k, f, b);
+		}
+	}
+
+	@Override
+	public void readCol(int col, byte[] dst) {
+		int idx = col >>> 6;
+		int b   = col & 63;
+		for (int row=0; row<numRows; row++, idx+=2*wordsPerRow)
+			dst[row] = (byte) Grid.decode(words.get(idx), words.get(idx + wordsPerRow), b);
+	}
+
+	@Override
+	public int getWordsPerRow() {
+		return wordsPerRow;
+	}
+
+	@Override
+	public void readRowWords(int row, long[] dst) {
+		words.get(2*row*wordsPerRow, dst, 0, 2*wordsPerRow);
+	}
+
+	@Override
+	public void clear() {
+		for (int i=0; i<words.capacity(); i++)
+			words.put(i, 0L);
+	}
+
+	@Override
+	public void flush() {
+		if (mapped != null)
+			mapped.force();
+	}
+
+	@Override
+	public long sizeInBytes() {
+		return 8L * words.capacity();
+	}
+
+	/**
+	 * Calculate the number of bytes needed for a grid, checking it fits in a single buffer
+	 *
+	 * @param numRows the number of rows
+	 * @param numCols the number of columns
+	 * @return the size in bytes
+	 */
+	private static int checkedSize(int numRows, int numCols) {
+		if (numRows < 1)
+			throw new IllegalArgumentException("numRows must be positive (" + numRows + ")");
+		if (numCols < 1)
+			throw new IllegalArgumentException("numCols must be positive (" + numCols + ")");
+		long size = 16L * numRows * Grid.wordsFor(numCols);
+		if (size > Integer.MAX_VALUE - HEADER_BYTES)
+			throw new IllegalArgumentException("grid too large (" + numRows + "x" + numCols + ")");
+		return (int) size;
+	}
+
+	private final int              numRows;
+	private final int              numCols;
+	private final int              wordsPerRow;
+	private final LongBuffer       words;
+	private final MappedByteBuffer mapped;       // null unless backed by a file
+
+	private static final long      MAGIC        = 0x4e4f4e4f47524944L; // "NONOGRID"
+	private static final int       HEADER_BYTES = 64;
+	private static final ByteOrder FILE_ORDER   = ByteOrder.LITTLE_ENDIAN; // of grid files, whatever the machine
+}
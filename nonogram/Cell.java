@@ -1,7 +1,8 @@
 package nonogram;
 
 /**
- * A cell in a Nonogram puzzle.
+ * A cell in a Nonogram puzzle. The grid itself is stored packed inside Nonogram,
+ * so a Cell is a small value object, e.g. describing an assignment to observers.
  * 
  * @author Dr Mark C. Sinclair
  * @version September 2022
@@ -1,7 +1,5 @@
 package nonogram;
 
-import java.util.Arrays;
-
 /**
  * A cell constraint (either row or column) in a Nonogram puzzle.
  * 
@@ -13,21 +11,28 @@ public class Constraint {
 	 * Constructor
 	 * 
 	 * @param pat the pattern of contiguous full cells that the cells should match
-	 * @param cells the cells to which the pattern applies
+	 * @param ng the nonogram puzzle whose cells the pattern applies to
+	 * @param index the row or column number of the cells in the grid
+	 * @param isRow a switch to indicate this is a row (true) or column (false)
 	 */
-	public Constraint(NGPattern pat, Cell[] cells) {
+	Constraint(NGPattern pat, Nonogram ng, int index, boolean isRow) {
 		if (pat == null)
 			throw new IllegalArgumentException("pat cannot be null");
-		if (cells == null)
-			throw new IllegalArgumentException("cells cannot be null");
-		if (cells.length < Nonogram.MIN_SIZE)
+		if (ng == null)
+			throw new IllegalArgumentException("ng cannot be null");
+		int len = isRow ? ng.getNumCols() : ng.getNumRows();
+		int max = isRow ? ng.getNumRows() : ng.getNumCols();
+		if ((index < 0) || (index >= max))
+			throw new IllegalArgumentException("index invalid, must be 0 <= index < " + max);
+		if (len < Nonogram.MIN_SIZE)
 			throw new IllegalArgumentException("cells cannot be shorter than " + Nonogram.MIN_SIZE);
-		if (!Cell.checkSameNonogram(cells))
-			throw new IllegalArgumentException("cells must all be from the same Nonogram");
-		if (pat.getMaxLen() != cells.length)
-			throw new IllegalArgumentException("pat maxLen ("+pat.getMaxLen()+") must match length of cells array ("+cells.length+")");
+		if (pat.getMaxLen() != len)
+			throw new IllegalArgumentException("pat maxLen ("+pat.getMaxLen()+") must match length of cells ("+len+")");
 		this.pat   = pat;
-		this.cells = Arrays.copyOf(cells, cells.length);
+		this.ng    = ng;
+		this.index = index;
+		this.isRow = isRow;
+		this.len   = len;
 	}
 	
 	/**
@@ -36,7 +41,8 @@ public class Constraint {
 	 * @return true if valid, otherwise false
 	 */
 	public boolean isValid() {
-		return pat.isValid(getSequence());
+		refresh();
+		return valid;
 	}
 	
 	/**
@@ -45,7 +51,51 @@ public class Constraint {
 	 * @return true if the cells solve the pattern, otherwise false
 	 */
 	public boolean isSolved() {
-		return pat.isSolved(getSequence());
+		refresh();
+		return solved;
+	}
+	
+	/**
+	 * Mark the cached validity and solution results as stale (called when one of the cells changes)
+	 */
+	void markDirty() {
+		dirty = true;
+	}
+	
+	/**
+	 * Are the cached validity and solution results stale?
+	 * 
+	 * @return true if a cell has changed since the results were last calculated, otherwise false
+	 */
+	boolean isDirty() {
+		return dirty;
+	}
+	
+	/**
+	 * Recalculate the cached validity and solution results if a cell has changed since they were last calculated.
+	 * If the grid keeps its lines as runs the pattern checks them run by run, otherwise the cells are copied into
+	 * the nonogram's shared line buffer, which the pattern checks directly.
+	 */
+	void refresh() {
+		if (!dirty)
+			return;
+		boolean wasValid  = valid;
+		boolean wasSolved = solved;
+		RunLine runs = ng.getLineRuns(index, isRow);
+		if (runs != null) {
+			valid  = pat.isValid(runs);
+			solved = valid && pat.isSolved(runs);
+		} else {
+			byte[] line = ng.getLineBuffer();
+			if (isRow)
+				ng.readRow(index, line);
+			else
+				ng.readCol(index, line);
+			valid  = pat.isValid(line);
+			solved = valid && pat.isSolved(line);
+		}
+		dirty  = false;
+		ng.lineChecked(wasValid, wasSolved, valid, solved);
 	}
 	
 	/**
@@ -66,6 +116,15 @@ public class Constraint {
 		return pat.getRegExSolved();
 	}
 	
+	/**
+	 * Retrieve the pattern the cells should match
+	 * 
+	 * @return the pattern
+	 */
+	public NGPattern getPattern() {
+		return pat;
+	}
+	
 	/**
 	 * Retrieve the pattern of contiguous full cells as an integer array 
 	 * 
@@ -90,14 +149,10 @@ public class Constraint {
 	 * @return the sequence of cell state values
 	 */
 	public String getSequence() {
-		// seq could be cached, but is this worthwhile?
-		StringBuffer sb = new StringBuffer();
-		for (Cell c : cells)
-			sb.append(c);
-		String seq = sb.toString();
-		if (pat.getMaxLen() != seq.length())
-			throw new NonogramException("cells sequence length ("+seq.length()+") must match pat maxLen ("+pat.getMaxLen()+")");
-		return seq;
+		StringBuffer sb = new StringBuffer(len);
+		for (int i=0; i<len; i++)
+			sb.append(getCellState(i));
+		return sb.toString();
 	}
 	
 	/**
@@ -110,9 +165,9 @@ public class Constraint {
 			throw new IllegalArgumentException("seq cannot be null");
 		if (seq.isEmpty())
 			throw new IllegalArgumentException("seq cannot be empty");
-		if (seq.length() != cells.length)
-			throw new IllegalArgumentException("seq length ("+seq.length()+") must match length of cells array ("+cells.length+")");
-		for (int i=0; i<cells.length; i++) {
+		if (seq.length() != len)
+			throw new IllegalArgumentException("seq length ("+seq.length()+") must match length of cells ("+len+")");
+		for (int i=0; i<len; i++) {
 			int state = Nonogram.UNKNOWN;
 			try {
 				state = Integer.parseInt(seq.substring(i, i+1));
@@ -121,10 +176,42 @@ public class Constraint {
 			}
 			if (!Cell.isValidState(state))
 				throw new IllegalArgumentException("invalid state (" + state + ") in s["+ i +"]");
-			cells[i].setState(state);
+			setCellState(i, state);
 		}
 	}
 	
+	/**
+	 * Retrieve the number of cells the constraint applies to
+	 * 
+	 * @return the number of cells
+	 */
+	public int getLength() {
+		return len;
+	}
+	
+	/**
+	 * Retrieve the state of the i'th cell of the constraint (i is not checked)
+	 * 
+	 * @param i the position of the cell in the row or column
+	 * @return the cell state
+	 */
+	int getCellState(int i) {
+		return isRow ? ng.getCellState(index, i) : ng.getCellState(i, index);
+	}
+	
+	/**
+	 * Set the state of the i'th cell of the constraint without notifying observers (i and state are not checked)
+	 * 
+	 * @param i the position of the cell in the row or column
+	 * @param state the new state
+	 */
+	private void setCellState(int i, int state) {
+		if (isRow)
+			ng.setCellState(index, i, state);
+		else
+			ng.setCellState(i, index, state);
+	}
+	
   /**
    * String representation of the constraint, consisting of just the sequence of cell states
    * 
@@ -149,6 +236,12 @@ public class Constraint {
 		return sb.toString();
 	}
 	
-	private NGPattern pat   = null;
-	private Cell[]    cells = null;
+	private NGPattern pat    = null;
+	private Nonogram  ng     = null;
+	private int       index  = -1;    // row or column number in the grid
+	private boolean   isRow  = false;
+	private int       len    = -1;    // number of cells
+	private boolean   dirty  = true;  // cells changed since valid/solved were calculated
+	private boolean   valid  = false; // cached result of the validity check
+	private boolean   solved = false; // cached result of the solution check
 }
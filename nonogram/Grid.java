@@ -0,0 +1,133 @@
+package nonogram;
+
+/**
+ * Storage for the cell states of a Nonogram grid. Rows are exchanged packed 2 bits
+ * per cell (a "known" bit and a "full" bit), with every row starting on a fresh
+ * long word. Arguments are not checked, that is the job of Nonogram.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+interface Grid {
+	/**
+	 * Retrieve the number of rows
+	 *
+	 * @return the number of rows
+	 */
+	int getNumRows();
+
+	/**
+	 * Retrieve the number of columns
+	 *
+	 * @return the number of columns
+	 */
+	int getNumCols();
+
+	/**
+	 * Retrieve the state of a cell
+	 *
+	 * @param row the cell row
+	 * @param col the cell column
+	 * @return the cell state (FULL, EMPTY or UNKNOWN)
+	 */
+	int getState(int row, int col);
+
+	/**
+	 * Set the state of a cell
+	 *
+	 * @param row the cell row
+	 * @param col the cell column
+	 * @param state the new state (FULL, EMPTY or UNKNOWN)
+	 */
+	void setState(int row, int col, int state);
+
+	/**
+	 * Copy the states of a row into a buffer
+	 *
+	 * @param row the row
+	 * @param dst the buffer, at least getNumCols() long
+	 */
+	void readRow(int row, byte[] dst);
+
+	/**
+	 * Copy the states of a column into a buffer
+	 *
+	 * @param col the column
+	 * @param dst the buffer, at least getNumRows() long
+	 */
+	void readCol(int col, byte[] dst);
+
+	/**
+	 * Retrieve the number of long words used by each row of each bitplane
+	 *
+	 * @return the words per row
+	 */
+	int getWordsPerRow();
+
+	/**
+	 * Copy the packed words of a row: getWordsPerRow() words of known bits, then the same number of full bits
+	 *
+	 * @param row the row
+	 * @param dst the buffer, at least 2*getWordsPerRow() long
+	 */
+	void readRowWords(int row, long[] dst);
+
+	/**
+	 * Retrieve the run list of a row, if the grid keeps one
+	 *
+	 * @param row the row
+	 * @return the runs of the row (live, must not be modified), or null
+	 */
+	default RunLine getRowRuns(int row) {
+		return null;
+	}
+
+	/**
+	 * Retrieve the run list of a column, if the grid keeps one
+	 *
+	 * @param col the column
+	 * @return the runs of the column (live, must not be modified), or null
+	 */
+	default RunLine getColRuns(int col) {
+		return null;
+	}
+
+	/**
+	 * Set every cell to UNKNOWN
+	 */
+	void clear();
+
+	/**
+	 * Write the cell states through to any backing file
+	 */
+	void flush();
+
+	/**
+	 * Retrieve the number of bytes used to hold the cell states
+	 *
+	 * @return the size of the storage in bytes
+	 */
+	long sizeInBytes();
+
+	/**
+	 * Calculate the number of long words needed to hold a given number of bits
+	 *
+	 * @param bits the number of bits
+	 * @return the number of words
+	 */
+	static int wordsFor(int bits) {
+		return (bits + 63) >>> 6;
+	}
+
+	/**
+	 * Decode a cell state from its known and full bits
+	 *
+	 * @param known the word holding the known bit
+	 * @param full the word holding the full bit
+	 * @param bit the bit position in the words
+	 * @return the cell state (UNKNOWN = 2, FULL = 1, EMPTY = 0; the full bit is clear when unknown)
+	 */
+	static int decode(long known, long full, int bit) {
+		return (((int) (~known >>> bit)) & 1) << 1 | (((int) (full >>> bit)) & 1);
+	}
+}
@@ -0,0 +1,93 @@
+package nonogram;
+
+import java.util.Scanner;
+
+/**
+ * Compares the old grid layout (one Cell object per cell) with the packed
+ * bitplane layout used by Nonogram, for heap use and full-grid read time.
+ * Run with e.g. "java nonogram.GridBenchmark 1000".
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class GridBenchmark {
+	public static void main(String[] args) {
+		int size = (args.length > 0) ? Integer.parseInt(args[0]) : 1000;
+		Nonogram ng = new Nonogram(new Scanner(PuzzleGenerator.randomNonFile(size, size, 0.5, 1L)));
+		System.out.println("grid " + size + "x" + size);
+
+		long before = usedMemory();
+		Cell[][] cells = new Cell[size][size];
+		for (int row=0; row<size; row++)
+			for (int col=0; col<size; col++)
+				cells[row][col] = new Cell(ng, row, col);
+		long cellBytes = usedMemory() - before;
+
+		before = usedMemory();
+		BitGrid grid = new BitGrid(size, size);
+		long gridBytes = usedMemory() - before;
+
+		before = usedMemory();
+		Nonogram offHeap = new Nonogram(new Scanner(PuzzleGenerator.randomNonFile(size, size, 0.5, 1L)), GridStorage.offHeap());
+		long offHeapBytes = usedMemory() - before;
+
+		report("Cell[][]", cellBytes, size);
+		report("BitGrid ", gridBytes, size);
+		report("Nonogram (off-heap grid, whole puzzle)", offHeapBytes, size);
+
+		long sum = 0;
+		for (int rep=0; rep<REPS; rep++) {
+			long start = System.nanoTime();
+			for (int row=0; row<size; row++)
+				for (int col=0; col<size; col++)
+					sum += cells[row][col].getState();
+			long cellNanos = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int row=0; row<size; row++)
+				for (int col=0; col<size; col++)
+					sum += grid.getState(row, col);
+			long gridNanos = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int col=0; col<size; col++)
+				for (int row=0; row<size; row++)
+					sum += cells[row][col].getState();
+			long cellColNanos = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int col=0; col<size; col++)
+				for (int row=0; row<size; row++)
+					sum += grid.getState(row, col);
+			long gridColNanos = System.nanoTime() - start;
+			if (rep == REPS-1) {
+				System.out.printf("row-major read: Cell[][] %8.2f ms, BitGrid %8.2f ms%n", cellNanos/1e6, gridNanos/1e6);
+				System.out.printf("col-major read: Cell[][] %8.2f ms, BitGrid %8.2f ms%n", cellColNanos/1e6, gridColNanos/1e6);
+			}
+		}
+		System.out.println("(checksum " + sum + ")");
+	}
+
+	/**
+	 * Output the heap use of a layout
+	 *
+	 * @param name the layout name
+	 * @param bytes the bytes used
+	 * @param size the grid size
+	 */
+	private static void report(String name, long bytes, int size) {
+		double cells = (double) size * size;
+		System.out.printf("%s %12d bytes, %8.2f bits per cell%n", name, bytes, 8.0 * bytes / cells);
+	}
+
+	/**
+	 * Retrieve the heap in use after a garbage collection
+	 *
+	 * @return the used heap in bytes
+	 */
+	private static long usedMemory() {
+		Runtime rt = Runtime.getRuntime();
+		for (int i=0; i<3; i++)
+			System.gc();
+		return rt.totalMemory() - rt.freeMemory();
+	}
+
+	private static final int REPS = 5;
+}
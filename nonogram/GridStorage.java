@@ -0,0 +1,116 @@
+package nonogram;
+
+import java.io.File;
+
+/**
+ * Where a Nonogram keeps its grid of cell states: on the heap (the default), in
+ * off-heap memory, in a memory-mapped file, or as run lists. Off-heap and mapped
+ * storage keep the heap use of a puzzle close to the size of its clues, whatever the
+ * grid size, and a mapped grid file lets a paused puzzle be reopened without
+ * replaying its moves. Sparse storage suits very wide, mostly empty puzzles.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public final class GridStorage {
+	/**
+	 * Constructor
+	 *
+	 * @param kind the kind of storage
+	 * @param file the grid file (MAPPED only)
+	 */
+	private GridStorage(int kind, File file) {
+		this.kind = kind;
+		this.file = file;
+	}
+
+	/**
+	 * Storage in on-heap long arrays
+	 *
+	 * @return the storage
+	 */
+	public static GridStorage heap() {
+		return HEAP_STORAGE;
+	}
+
+	/**
+	 * Storage in a direct (off-heap) buffer
+	 *
+	 * @return the storage
+	 */
+	public static GridStorage offHeap() {
+		return OFF_HEAP_STORAGE;
+	}
+
+	/**
+	 * Storage in a memory-mapped file. If the file already holds the grid of the same puzzle
+	 * (e.g. a paused one) its cell states are kept, if it is new or empty it is created, and a
+	 * grid file of any other puzzle is rejected.
+	 *
+	 * @param file the grid file
+	 * @return the storage
+	 */
+	public static GridStorage mapped(File file) {
+		if (file == null)
+			throw new IllegalArgumentException("file cannot be null");
+		return new GridStorage(MAPPED, file);
+	}
+
+	/**
+	 * Storage as sorted run lists per row and column. Memory use, and the time to check a line against
+	 * its clue, grow with the number of runs of FULL or EMPTY cells rather than the line length.
+	 *
+	 * @return the storage
+	 */
+	public static GridStorage sparse() {
+		return SPARSE_STORAGE;
+	}
+
+	/**
+	 * Create a grid using this storage
+	 *
+	 * @param numRows the number of rows
+	 * @param numCols the number of columns
+	 * @param clues a fingerprint of the puzzle's clues (only used by MAPPED, to check the file is for the puzzle)
+	 * @return the grid
+	 */
+	Grid create(int numRows, int numCols, long clues) {
+		if (kind == OFF_HEAP)
+			return new BufferGrid(numRows, numCols);
+		else if (kind == MAPPED)
+			return BufferGrid.mapped(numRows, numCols, clues, file);
+		else if (kind == SPARSE)
+			return new RunGrid(numRows, numCols);
+		else
+			return new BitGrid(numRows, numCols);
+	}
+
+	/**
+	 * String representation of the storage
+	 *
+	 * @return the string representation
+	 */
+	@Override
+	public String toString() {
+		if (kind == OFF_HEAP)
+			return "GridStorage(off-heap)";
+		else if (kind == MAPPED)
+			return "GridStorage(mapped," + file + ")";
+		else if (kind == SPARSE)
+			return "GridStorage(sparse)";
+		else
+			return "GridStorage(heap)";
+	}
+
+	private final int  kind;
+	private final File file;
+
+	private static final int HEAP     = 0;
+	private static final int OFF_HEAP = 1;
+	private static final int MAPPED   = 2;
+	private static final int SPARSE   = 3;
+
+	private static final GridStorage HEAP_STORAGE     = new GridStorage(HEAP, null);
+	private static final GridStorage OFF_HEAP_STORAGE = new GridStorage(OFF_HEAP, null);
+	private static final GridStorage SPARSE_STORAGE   = new GridStorage(SPARSE, null);
+}
@@ -1,6 +1,9 @@
 package nonogram;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 /**
@@ -26,6 +29,80 @@ public class NGPattern {
 		this.maxLen = maxLen;
 		if (minLen > maxLen)
 			throw new IllegalArgumentException("minimum length of nums (" + minLen + ") exceeds maxLen");
+		buildAutomaton();
+	}
+	
+	/**
+	 * Retrieve a shared pattern for the given nums and maxLen from the intern cache, creating it if necessary.
+	 * Patterns are immutable, so every constraint with the same clue and length (in any puzzle) can share one,
+	 * along with its automaton tables and compiled regular expressions. The cache keeps the most recently used
+	 * CACHE_SIZE patterns and is safe to use from several threads.
+	 * 
+	 * @param nums the pattern of contiguous full cells as an integer array
+	 * @param maxLen the maximum allowed length of the pattern
+	 * @return the shared pattern
+	 */
+	public static NGPattern intern(int[] nums, int maxLen) {
+		if (!checkNums(nums))
+			throw new IllegalArgumentException("nums invalid");
+		Key key = new Key(nums, maxLen);
+		synchronized (CACHE) {
+			NGPattern pat = CACHE.get(key);
+			if (pat != null) {
+				cacheHits++;
+				return pat;
+			}
+			cacheMisses++;
+		}
+		NGPattern pat = new NGPattern(nums, maxLen); // built outside the lock, a racing duplicate is harmless
+		synchronized (CACHE) {
+			NGPattern other = CACHE.putIfAbsent(new Key(pat.nums, maxLen), pat);
+			return (other != null) ? other : pat;
+		}
+	}
+	
+	/**
+	 * Retrieve the number of intern cache lookups that found an existing pattern
+	 * 
+	 * @return the number of cache hits
+	 */
+	public static long getCacheHits() {
+		synchronized (CACHE) {
+			return cacheHits;
+		}
+	}
+	
+	/**
+	 * Retrieve the number of intern cache lookups that had to create a pattern
+	 * 
+	 * @return the number of cache misses
+	 */
+	public static long getCacheMisses() {
+		synchronized (CACHE) {
+			return cacheMisses;
+		}
+	}
+	
+	/**
+	 * Retrieve the number of patterns currently held in the intern cache
+	 * 
+	 * @return the cache size
+	 */
+	public static int getCacheSize() {
+		synchronized (CACHE) {
+			return CACHE.size();
+		}
+	}
+	
+	/**
+	 * Empty the intern cache and reset its hit and miss counts
+	 */
+	public static void clearCache() {
+		synchronized (CACHE) {
+			CACHE.clear();
+			cacheHits   = 0;
+			cacheMisses = 0;
+		}
 	}
 	
 	/**
@@ -55,6 +132,37 @@ public class NGPattern {
 		return Arrays.copyOf(nums, nums.length);
 	}
 	
+	/**
+	 * Retrieve the identity of this pattern: a number unique to this NGPattern object, so patterns
+	 * shared through intern() share it (e.g. as a compact key for caches of line results)
+	 * 
+	 * @return the id (at least 1)
+	 */
+	public int getId() {
+		return id;
+	}
+	
+	/**
+	 * Retrieve the number of blocks of contiguous full cells
+	 * 
+	 * @return the number of blocks
+	 */
+	public int getNumBlocks() {
+		return nums.length;
+	}
+	
+	/**
+	 * Retrieve the length of a block of contiguous full cells, without copying the nums
+	 * 
+	 * @param b the block number
+	 * @return the number of full cells in the block
+	 */
+	public int getNum(int b) {
+		if ((b < 0) || (b >= nums.length))
+			throw new IllegalArgumentException("b invalid, must be 0 <= b < " + nums.length);
+		return nums[b];
+	}
+	
 	/**
 	 * Retrieve a regular expression that can be used to check a cell sequence for validity
 	 * 
@@ -107,6 +215,118 @@ public class NGPattern {
 		solved = Pattern.compile(sb.toString());
 	}
 	
+	/**
+	 * Build the automaton tables used to check cell state sequences. The pattern is expanded into minLen
+	 * tokens, one per FULL cell of each block and one per necessary gap between blocks. State i means the
+	 * first i tokens have been matched; extra EMPTY cells may only be consumed at the start, after a gap
+	 * token and at the end. The set of states reachable after each cell is held as a bitset, so a check
+	 * is one shift, two ANDs and an OR per cell (per 64 states) with no backtracking.
+	 */
+	private void buildAutomaton() {
+		words = (minLen >>> 6) + 1; // minLen+1 states
+		long[] fullNext = new long[words]; // states entered by matching a FULL token
+		long[] gapNext  = new long[words]; // states entered by matching a gap token
+		long[] loop     = new long[words]; // states that can consume any number of EMPTY cells
+		int    token    = 0;
+		setBit(loop, 0);
+		for (int b=0; b<nums.length; b++) {
+			if (b > 0) {
+				token++;
+				setBit(gapNext, token);
+				setBit(loop, token);
+			}
+			for (int i=0; i<nums[b]; i++) {
+				token++;
+				setBit(fullNext, token);
+			}
+		}
+		setBit(loop, minLen);
+		
+		// for run by run checks: the FULL tokens left in each state's block, and the next state that can loop
+		remFull  = new int[minLen+1];
+		nextLoop = new int[minLen+1];
+		int start = 0;
+		for (int b=0; b<nums.length; b++) {
+			for (int i=0; i<=nums[b]; i++)
+				remFull[start + i] = nums[b] - i;
+			start += nums[b] + 1;
+		}
+		nextLoop[minLen] = minLen;
+		for (int st=minLen-1; st>=0; st--)
+			nextLoop[st] = ((loop[st >>> 6] >>> st & 1L) != 0) ? st : nextLoop[st+1];
+		
+		validAdvance  = new long[3*words];
+		solvedAdvance = new long[3*words];
+		stay          = new long[3*words];
+		for (int s=0; s<3; s++) {
+			boolean canBeFull  = (s == Nonogram.FULL)  || (s == Nonogram.UNKNOWN);
+			boolean canBeEmpty = (s == Nonogram.EMPTY) || (s == Nonogram.UNKNOWN);
+			for (int w=0; w<words; w++) {
+				long gap = canBeEmpty ? gapNext[w] : 0L;
+				validAdvance[s*words + w]  = (canBeFull ? fullNext[w] : 0L) | gap;
+				solvedAdvance[s*words + w] = ((s == Nonogram.FULL) ? fullNext[w] : 0L) | gap; // UNKNOWN counts as EMPTY
+				stay[s*words + w]          = canBeEmpty ? loop[w] : 0L;
+			}
+		}
+	}
+	
+	/**
+	 * Run the automaton over the first maxLen cell states of a line
+	 * 
+	 * @param advance the advance table for the check (validity or solution)
+	 * @param line the cell states
+	 * @return true if the automaton accepts the line, otherwise false
+	 */
+	private boolean accepts(long[] advance, byte[] line) {
+		if (words == 1) {
+			long cur = 1L;
+			for (int i=0; i<maxLen; i++) {
+				int s = line[i];
+				cur = ((cur << 1) & advance[s]) | (cur & stay[s]);
+				if (cur == 0)
+					return false;
+			}
+			return (cur >>> minLen & 1L) != 0;
+		}
+		long[] cur = SCRATCH.get();
+		if (cur.length < words) {
+			cur = new long[words];
+			SCRATCH.set(cur);
+		}
+		Arrays.fill(cur, 0, words, 0L);
+		cur[0] = 1L;
+		int lo = 0; // states are only ever entered upwards, so only words lo..hi+1 can change
+		int hi = 0;
+		for (int i=0; i<maxLen; i++) {
+			int base  = line[i]*words;
+			int top   = Math.min(hi + 1, words - 1);
+			int newLo = -1;
+			int newHi = -1;
+			for (int w=top; w>=lo; w--) { // high to low, so cur[w-1] is still the previous state
+				long shifted = (cur[w] << 1) | ((w > lo) ? (cur[w-1] >>> 63) : 0L);
+				cur[w] = (shifted & advance[base + w]) | (cur[w] & stay[base + w]);
+				if (cur[w] != 0) {
+					if (newHi < 0)
+						newHi = w;
+					newLo = w;
+				}
+			}
+			if (newHi < 0)
+				return false;
+			// states too far from the end of the pattern to be completed in the cells left are dead
+			int live = (minLen - (maxLen - i - 1)) >>> 6;
+			if ((minLen - (maxLen - i - 1) > 0) && (live > newLo)) {
+				if (live > newHi)
+					return false;
+				Arrays.fill(cur, newLo, live, 0L);
+				newLo = live;
+			}
+			lo = newLo;
+			hi = newHi;
+		}
+		return (cur[minLen >>> 6] >>> minLen & 1L) != 0;
+	}
+	
 	/**
 	 * Check if a cell state sequence (of maxLen) is valid for the pattern
 	 * 
@@ -118,9 +338,8 @@ public class NGPattern {
 			throw new IllegalArgumentException("seq cannot be null");
 		if (seq.length() != maxLen)
 			throw new IllegalArgumentException("seq is incorrect length for pattern (" + seq.length() + "!=" + maxLen+")");
-		if (valid == null)
-			compileRegExValid(); // causes valid Pattern to be compiled and assigned
-		return valid.matcher(seq).matches();
+		byte[] line = toLine(seq);
+		return (line != null) && accepts(validAdvance, line);
 	}
 	
 	/**
@@ -134,9 +353,371 @@ public class NGPattern {
 			throw new IllegalArgumentException("seq cannot be null");
 		if (seq.length() != maxLen)
 			throw new IllegalArgumentException("seq is incorrect length for pattern (" + seq.length() + "!=" + maxLen+")");
-		if (solved == null)
-			compileRegExSolved(); // causes solved Pattern to be compiled and assigned
-		return solved.matcher(seq).matches();
+		byte[] line = toLine(seq);
+		return (line != null) && accepts(solvedAdvance, line);
+	}
+	
+	/**
+	 * Check if the first maxLen cell states in an array are valid for the pattern (the states are not checked)
+	 * 
+	 * @param line an array of at least maxLen cell states
+	 * @return true if the cell states are valid, otherwise false
+	 */
+	public boolean isValid(byte[] line) {
+		if (line == null)
+			throw new IllegalArgumentException("line cannot be null");
+		if (line.length < maxLen)
+			throw new IllegalArgumentException("line is too short for pattern (" + line.length + "<" + maxLen+")");
+		return accepts(validAdvance, line);
+	}
+	
+	/**
+	 * Check if the first maxLen cell states in an array solve the pattern (the states are not checked)
+	 * 
+	 * @param line an array of at least maxLen cell states
+	 * @return true if the cell states are a solution, otherwise false
+	 */
+	public boolean isSolved(byte[] line) {
+		if (line == null)
+			throw new IllegalArgumentException("line cannot be null");
+		if (line.length < maxLen)
+			throw new IllegalArgumentException("line is too short for pattern (" + line.length + "<" + maxLen+")");
+		return accepts(solvedAdvance, line);
+	}
+	
+	/**
+	 * Check if the cell states held as runs are valid for the pattern. The automaton steps over a whole run
+	 * at once, so the check costs time in proportion to the number of runs (times the size of the pattern),
+	 * not the line length.
+	 * 
+	 * @param runs the cell states as runs (of maxLen cells)
+	 * @return true if the cell states are valid, otherwise false
+	 */
+	public boolean isValid(RunLine runs) {
+		checkRuns(runs);
+		long[] bits = SCRATCH.get();
+		if (bits.length < 2*words) {
+			bits = new long[2*words];
+			SCRATCH.set(bits);
+		}
+		Arrays.fill(bits, 0, 2*words, 0L);
+		bits[0] = 1L;
+		int cur  = 0;     // offset in bits of the current state set
+		int next = words; // offset in bits of the next state set
+		int pos  = 0;
+		int numRuns = runs.getNumRuns();
+		for (int run=0; run<=numRuns; run++) {
+			int start = (run < numRuns) ? runs.getRunStart(run) : maxLen;
+			if (start > pos) {
+				if (!stepRun(bits, cur, next, Nonogram.UNKNOWN, start - pos))
+					return false;
+				int t = cur; cur = next; next = t;
+			}
+			if (run == numRuns)
+				break;
+			pos = runs.getRunEnd(run);
+			if (!stepRun(bits, cur, next, runs.getRunState(run), pos - start))
+				return false;
+			int t = cur; cur = next; next = t;
+		}
+		return (bits[cur + (minLen >>> 6)] >>> minLen & 1L) != 0;
+	}
+	
+	/**
+	 * Check if the cell states held as runs solve the pattern (UNKNOWN cells count as EMPTY), which is when
+	 * the lengths of the FULL runs are the pattern's nums
+	 * 
+	 * @param runs the cell states as runs (of maxLen cells)
+	 * @return true if the cell states are a solution, otherwise false
+	 */
+	public boolean isSolved(RunLine runs) {
+		checkRuns(runs);
+		int b = 0;
+		for (int run=0; run<runs.getNumRuns(); run++) {
+			if (runs.getRunState(run) != Nonogram.FULL)
+				continue;
+			if ((b == nums.length) || (runs.getRunEnd(run) - runs.getRunStart(run) != nums[b]))
+				return false;
+			b++;
+		}
+		return b == nums.length;
+	}
+	
+	/**
+	 * Find the leftmost placement of the blocks against a partially known line: the placement (consistent
+	 * with the known cells) in which every block starts as early as it can. Blocks only ever move right
+	 * while it is built, so with k blocks it costs O(maxLen * k) in the worst case. They jump rather than
+	 * step, straight past an EMPTY cell in their way or onto the last FULL cell they must cover, so most
+	 * lines (including long lines of many small blocks) take close to O(maxLen + k). Together with
+	 * placeRight() this gives the range of cells each block can occupy.
+	 * 
+	 * @param line an array of at least maxLen cell states
+	 * @param starts receives the first cell of each block (at least getNums().length long)
+	 * @return true if there is a placement, false if the line is a contradiction
+	 */
+	public boolean placeLeft(byte[] line, int[] starts) {
+		checkPlacement(line, starts);
+		return place(line, false, placeScratch(0), starts, 0);
+	}
+	
+	/**
+	 * Find the rightmost placement of the blocks against a partially known line: the placement (consistent
+	 * with the known cells) in which every block starts as late as it can. See placeLeft().
+	 * 
+	 * @param line an array of at least maxLen cell states
+	 * @param starts receives the first cell of each block (at least getNums().length long)
+	 * @return true if there is a placement, false if the line is a contradiction
+	 */
+	public boolean placeRight(byte[] line, int[] starts) {
+		checkPlacement(line, starts);
+		return place(line, true, placeScratch(0), starts, 0);
+	}
+	
+	/**
+	 * Set the UNKNOWN cells of a line that the leftmost and rightmost placements force: cells covered by a
+	 * block in both placements are FULL (the overlap), and cells outside the range of every block are EMPTY.
+	 * This is the cheapest line deduction, but it may miss cells that a complete line solver would set.
+	 * 
+	 * @param line an array of at least maxLen cell states (updated in place)
+	 * @return true if there is a placement, false if the line is a contradiction
+	 */
+	public boolean overlap(byte[] line) {
+		if (line == null)
+			throw new IllegalArgumentException("line cannot be null");
+		if (line.length < maxLen)
+			throw new IllegalArgumentException("line is too short for pattern (" + line.length + "<" + maxLen+")");
+		int   k     = nums.length;
+		int   left  = 3*maxLen + 1; // offsets of the placements in tmp
+		int   right = left + k;
+		int[] tmp   = placeScratch(2*k);
+		if (!place(line, false, tmp, tmp, left) || !place(line, true, tmp, tmp, right))
+			return false;
+		int covered = 0; // cells before this are in the range of an earlier block
+		for (int b=0; b<k; b++) {
+			for (int i=covered; i<tmp[left + b]; i++)
+				if (line[i] == Nonogram.UNKNOWN)
+					line[i] = Nonogram.EMPTY;
+			for (int i=tmp[right + b]; i<tmp[left + b] + nums[b]; i++)
+				if (line[i] == Nonogram.UNKNOWN)
+					line[i] = Nonogram.FULL;
+			covered = Math.max(covered, tmp[right + b] + nums[b]);
+		}
+		for (int i=covered; i<maxLen; i++)
+			if (line[i] == Nonogram.UNKNOWN)
+				line[i] = Nonogram.EMPTY;
+		return true;
+	}
+	
+	/**
+	 * Check the arguments of a placement
+	 * 
+	 * @param line the line
+	 * @param starts the block starts
+	 */
+	private void checkPlacement(byte[] line, int[] starts) {
+		if (line == null)
+			throw new IllegalArgumentException("line cannot be null");
+		if (line.length < maxLen)
+			throw new IllegalArgumentException("line is too short for pattern (" + line.length + "<" + maxLen+")");
+		if ((starts == null) || (starts.length < nums.length))
+			throw new IllegalArgumentException("starts must be at least " + nums.length + " long");
+	}
+	
+	/**
+	 * Retrieve this thread's placement scratch array, with room for the three cell tables and extra ints
+	 * 
+	 * @param extra the number of ints needed after the cell tables
+	 * @return the scratch array
+	 */
+	private int[] placeScratch(int extra) {
+		int[] tmp = PLACE_SCRATCH.get();
+		if (tmp.length < 3*maxLen + 1 + extra) {
+			tmp = new int[3*maxLen + 1 + extra];
+			PLACE_SCRATCH.set(tmp);
+		}
+		return tmp;
+	}
+	
+	/**
+	 * Find the leftmost placement of the blocks, reading the line (and the blocks) forwards, or backwards to
+	 * find the rightmost placement. Block b is first fitted at the earliest start at or after its current one
+	 * with no EMPTY cell under it and no FULL cell just after it. If that leaves FULL cells uncovered before
+	 * it, earlier blocks must cover them, so block b-1 must end at or after the last of them: it moves right
+	 * to end on that cell and is fitted again. Likewise the last block moves to end on the last FULL cell
+	 * of the line if any FULL cell is left after it.
+	 * 
+	 * @param line the cell states
+	 * @param reverse true to read the line backwards (for the rightmost placement)
+	 * @param tmp scratch for the cell tables (at least 3*maxLen+1 long)
+	 * @param starts receives the first cell of each block
+	 * @param off the offset of the block starts in starts
+	 * @return true if there is a placement, otherwise false
+	 */
+	private boolean place(byte[] line, boolean reverse, int[] tmp, int[] starts, int off) {
+		int n = maxLen;
+		int k = nums.length;
+		// tmp[i] is the last EMPTY cell at or before i (or -1), tmp[n+i] the first FULL cell at or after i (or n),
+		// and tmp[2n+1+i] the last FULL cell at or before i (or -1)
+		int last = -1, lastFull = -1;
+		for (int i=0; i<n; i++) {
+			int state = line[reverse ? n-1-i : i];
+			if (state == Nonogram.EMPTY)
+				last = i;
+			else if (state == Nonogram.FULL)
+				lastFull = i;
+			tmp[i]           = last;
+			tmp[2*n + 1 + i] = lastFull;
+		}
+		int next = n;
+		tmp[2*n] = n;
+		for (int i=n-1; i>=0; i--) {
+			if (line[reverse ? n-1-i : i] == Nonogram.FULL)
+				next = i;
+			tmp[n + i] = next;
+		}
+		Arrays.fill(starts, off, off + k, 0);
+		int b = 0;
+		while (b < k) {
+			int len = nums[reverse ? k-1-b : b];
+			int end = (b == 0) ? 0 : starts[off + b-1] + nums[reverse ? k-b : b-1]; // end of the previous block
+			int s   = Math.max(starts[off + b], (b == 0) ? 0 : end + 1);
+			while (true) {
+				if (s + len > n)
+					return false;
+				int e = tmp[s + len - 1];
+				if (e >= s)
+					s = e + 1;
+				else if ((s + len < n) && (line[reverse ? n-1-(s+len) : s+len] == Nonogram.FULL))
+					s++;
+				else
+					break;
+			}
+			if (tmp[n + end] < s) { // a FULL cell between the previous block and this one
+				if (b == 0)
+					return false;
+				b--;
+				starts[off + b] = tmp[2*n + s] - nums[reverse ? k-1-b : b] + 1; // end on the last of them
+				continue;
+			}
+			starts[off + b] = s;
+			if ((b == k-1) && (tmp[n + s + len] < n)) {
+				starts[off + b] = tmp[3*n] - len + 1; // end on the last FULL cell of the line
+				continue;
+			}
+			b++;
+		}
+		if (reverse) {
+			for (int i=0, j=k-1; i<=j; i++, j--) {
+				int si = n - starts[off + j] - nums[i];
+				int sj = n - starts[off + i] - nums[j];
+				starts[off + i] = si;
+				starts[off + j] = sj;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Check a run list is suitable for the run by run checks
+	 * 
+	 * @param runs the run list
+	 */
+	private void checkRuns(RunLine runs) {
+		if (runs == null)
+			throw new IllegalArgumentException("runs cannot be null");
+		if (runs.length() != maxLen)
+			throw new IllegalArgumentException("runs is incorrect length for pattern (" + runs.length() + "!=" + maxLen+")");
+	}
+	
+	/**
+	 * Advance the automaton over a run of cells that all have the same state. The run costs one pass over
+	 * the current states: an EMPTY run acts like a single EMPTY cell (after one, only looping states are
+	 * left, and they keep looping), a FULL run of r cells moves a state r tokens on if its block has r FULL
+	 * tokens left, and an UNKNOWN run of r cells moves a state i to i+r, or to anywhere from the first
+	 * looping state at or after i up to i+r (the spare cells being EMPTY ones consumed by the loop).
+	 * 
+	 * @param bits the state sets
+	 * @param cur the offset of the current state set in bits
+	 * @param next the offset of the next state set in bits (overwritten)
+	 * @param state the state of the cells in the run
+	 * @param r the number of cells in the run
+	 * @return true if any state is still reachable, otherwise false
+	 */
+	private boolean stepRun(long[] bits, int cur, int next, int state, int r) {
+		Arrays.fill(bits, next, next + words, 0L);
+		boolean live    = false;
+		int     covered = -1; // for UNKNOWN runs, the ranges set so far end here (they only move upwards)
+		for (int w=0; w<words; w++) {
+			for (long b=bits[cur + w]; b != 0; b &= b - 1) {
+				int st = (w << 6) + Long.numberOfTrailingZeros(b);
+				if (state == Nonogram.FULL) {
+					if (remFull[st] >= r) {
+						setBit(bits, next, st + r);
+						live = true;
+					}
+				} else if (state == Nonogram.EMPTY) {
+					if (nextLoop[st] == st) {
+						setBit(bits, next, st);
+						live = true;
+					} else if (remFull[st] == 0) { // end of a block, the gap token follows
+						setBit(bits, next, st + 1);
+						live = true;
+					}
+				} else {
+					int end = Math.min(st + r, minLen);
+					if (st + r <= minLen) {
+						setBit(bits, next, st + r);
+						live = true;
+					}
+					int from = Math.max(nextLoop[st], covered + 1);
+					if (from <= end) {
+						for (int i=from; i<=end; i++)
+							setBit(bits, next, i);
+						covered = end;
+						live    = true;
+					}
+				}
+			}
+		}
+		return live;
+	}
+	
+	/**
+	 * Convert a cell state sequence string into an array of cell states
+	 * 
+	 * @param seq the cell state sequence
+	 * @return the cell states, or null if seq contains a character that is not a cell state
+	 */
+	private static byte[] toLine(String seq) {
+		byte[] line = new byte[seq.length()];
+		for (int i=0; i<line.length; i++) {
+			int state = seq.charAt(i) - '0';
+			if (!Cell.isValidState(state))
+				return null;
+			line[i] = (byte) state;
+		}
+		return line;
+	}
+	
+	/**
+	 * Set a bit in a bitset
+	 * 
+	 * @param bits the bitset
+	 * @param i the bit to set
+	 */
+	private static void setBit(long[] bits, int i) {
+		bits[i >>> 6] |= 1L << i;
+	}
+	
+	/**
+	 * Set a bit in a bitset held at an offset in an array
+	 * 
+	 * @param bits the array
+	 * @param off the offset of the bitset
+	 * @param i the bit to set
+	 */
+	private static void setBit(long[] bits, int off, int i) {
+		bits[off + (i >>> 6)] |= 1L << i;
 	}
 	
   /**
@@ -216,9 +797,60 @@ public class NGPattern {
 	private static final String REGEX_EMPTY = "[" + Nonogram.EMPTY + Nonogram.UNKNOWN + "]";
 	private static final String REGEX_FULL  = "[" + Nonogram.FULL  + Nonogram.UNKNOWN + "]";
 	
+	private final int id = NEXT_ID.getAndIncrement();
 	private int[]   nums   = null;
 	private int     minLen = -1;   // minimum length of the pattern
 	private int     maxLen = -1;   // maximum length of the pattern (supplied)
-	private Pattern valid  = null; // regex to test sequence is valid
-	private Pattern solved = null; // regex to test sequence is solved
+	private volatile Pattern valid  = null; // regex to test sequence is valid (compiled lazily, may be shared)
+	private volatile Pattern solved = null; // regex to test sequence is solved (compiled lazily, may be shared)
+	private int     words  = 0;    // words per bitset of automaton states
+	private long[]  validAdvance  = null; // per cell state, the states entered by matching a token (validity)
+	private long[]  solvedAdvance = null; // per cell state, the states entered by matching a token (solution)
+	private long[]  stay          = null; // per cell state, the states kept by consuming an extra EMPTY cell
+	private int[]   remFull       = null; // per state, the FULL tokens left in its block (run by run checks)
+	private int[]   nextLoop      = null; // per state, the first state at or after it that can loop (run by run checks)
+	
+	public static final int CACHE_SIZE = 16384; // maximum number of interned patterns
+	
+	@SuppressWarnings("serial")
+	private static final Map<Key, NGPattern> CACHE = new LinkedHashMap<Key, NGPattern>(256, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, NGPattern> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+	private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+	private static long cacheHits   = 0; // guarded by CACHE
+	private static long cacheMisses = 0; // guarded by CACHE
+	
+	private static final ThreadLocal<int[]>  PLACE_SCRATCH = ThreadLocal.withInitial(() -> new int[0]); // for block placements
+	private static final ThreadLocal<long[]> SCRATCH = ThreadLocal.withInitial(() -> new long[2]); // for patterns over 63 cells and run by run checks
+	
+	/**
+	 * The intern cache key: a pattern's nums and maxLen
+	 */
+	private static final class Key {
+		Key(int[] nums, int maxLen) {
+			this.nums   = nums;
+			this.maxLen = maxLen;
+			this.hash   = 31*Arrays.hashCode(nums) + maxLen;
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key))
+				return false;
+			Key k = (Key) o;
+			return (maxLen == k.maxLen) && Arrays.equals(nums, k.nums);
+		}
+		
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+		
+		private final int[] nums;
+		private final int   maxLen;
+		private final int   hash;
+	}
 }
@@ -0,0 +1,137 @@
+package nonogram;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the NGPattern automaton with the regular expression checks across
+ * line lengths and numbers of blocks. Run with "java nonogram.NGPatternBenchmark".
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class NGPatternBenchmark {
+	public static void main(String[] args) {
+		Random rnd = new Random(1L);
+		System.out.println("  len blocks   regex valid   auto valid   regex solved  auto solved   (us per check)");
+		for (int len : LENGTHS) {
+			for (int blocks : BLOCKS) {
+				if (2*blocks - 1 > len)
+					continue;
+				int[]     goal   = goalWithBlocks(len, blocks, rnd);
+				NGPattern pat    = new NGPattern(PuzzleGenerator.clueFor(goal), len);
+				Pattern   valid  = Pattern.compile(pat.getRegExValid());
+				Pattern   solved = Pattern.compile(pat.getRegExSolved());
+				String[]  seqs   = new String[LINES];
+				byte[][]  lines  = new byte[LINES][];
+				for (int i=0; i<LINES; i++) {
+					lines[i] = partialLine(goal, rnd);
+					StringBuffer sb = new StringBuffer(len);
+					for (byte b : lines[i])
+						sb.append(b);
+					seqs[i] = sb.toString();
+				}
+				int reps = Math.max(1, 2000000 / (len * LINES));
+				double rv = 0, av = 0, rs = 0, as = 0;
+				int    sum = 0;
+				for (int pass=0; pass<PASSES; pass++) { // only the last pass is reported
+					long t0 = System.nanoTime();
+					for (int r=0; r<reps; r++)
+						for (String seq : seqs)
+							sum += valid.matcher(seq).matches() ? 1 : 0;
+					long t1 = System.nanoTime();
+					for (int r=0; r<reps; r++)
+						for (byte[] line : lines)
+							sum += pat.isValid(line) ? 1 : 0;
+					long t2 = System.nanoTime();
+					for (int r=0; r<reps; r++)
+						for (String seq : seqs)
+							sum += solved.matcher(seq).matches() ? 1 : 0;
+					long t3 = System.nanoTime();
+					for (int r=0; r<reps; r++)
+						for (byte[] line : lines)
+							sum += pat.isSolved(line) ? 1 : 0;
+					long t4 = System.nanoTime();
+					double checks = 1000.0 * reps * LINES;
+					rv = (t1-t0)/checks;
+					av = (t2-t1)/checks;
+					rs = (t3-t2)/checks;
+					as = (t4-t3)/checks;
+				}
+				System.out.printf("%5d %6d %13.3f %12.3f %14.3f %12.3f   (%d)%n", len, blocks, rv, av, rs, as, sum);
+			}
+		}
+		
+		// worst case for the regex: blocks of 1 and an unknown line ending in a block of 2 (invalid), so
+		// the regex backtracks through every placement of the blocks before failing
+		System.out.println();
+		System.out.println("  len blocks   regex valid   auto valid   (ms per check, worst case)");
+		for (int len : WORST_LENGTHS) {
+			int[] nums = new int[len/6];
+			Arrays.fill(nums, 1);
+			NGPattern pat  = new NGPattern(nums, len);
+			byte[]    line = new byte[len];
+			Arrays.fill(line, (byte) Nonogram.UNKNOWN);
+			line[len-2] = Nonogram.FULL;
+			line[len-1] = Nonogram.FULL;
+			StringBuffer sb = new StringBuffer(len);
+			for (byte b : line)
+				sb.append(b);
+			Pattern valid = Pattern.compile(pat.getRegExValid());
+			long t0 = System.nanoTime();
+			boolean rm = valid.matcher(sb.toString()).matches();
+			long t1 = System.nanoTime();
+			boolean am = pat.isValid(line);
+			long t2 = System.nanoTime();
+			System.out.printf("%5d %6d %13.3f %12.3f   (%b %b)%n", len, nums.length, (t1-t0)/1e6, (t2-t1)/1e6, rm, am);
+		}
+	}
+
+	/**
+	 * Generate a line with a given number of blocks of random length
+	 *
+	 * @param len the line length
+	 * @param blocks the number of blocks
+	 * @param rnd the random number generator
+	 * @return the line of FULL and EMPTY cells
+	 */
+	private static int[] goalWithBlocks(int len, int blocks, Random rnd) {
+		int[] goal  = new int[len];
+		int   spare = len - (2*blocks - 1);
+		int   pos   = rnd.nextInt(spare/blocks + 1);
+		for (int b=0; b<blocks; b++) {
+			int size = 1 + rnd.nextInt(spare/blocks + 1);
+			for (int i=0; (i<size) && (pos<len); i++)
+				goal[pos++] = Nonogram.FULL;
+			pos++; // gap
+			if (pos >= len)
+				break;
+		}
+		return goal;
+	}
+
+	/**
+	 * Generate a partially known version of a line, with one cell flipped half of the time
+	 *
+	 * @param goal the line
+	 * @param rnd the random number generator
+	 * @return the cell states
+	 */
+	private static byte[] partialLine(int[] goal, Random rnd) {
+		byte[] line = new byte[goal.length];
+		for (int i=0; i<goal.length; i++)
+			line[i] = (byte) ((rnd.nextInt(100) < 40) ? Nonogram.UNKNOWN : goal[i]);
+		if (rnd.nextBoolean()) {
+			int i = rnd.nextInt(goal.length);
+			line[i] = (byte) (1 - goal[i]);
+		}
+		return line;
+	}
+
+	private static final int[] LENGTHS = { 25, 100, 1000 };
+	private static final int[] BLOCKS  = { 1, 5, 20, 100 };
+	private static final int   LINES   = 64;
+	private static final int   PASSES  = 5;
+	private static final int[] WORST_LENGTHS = { 20, 30, 40, 45 };
+}
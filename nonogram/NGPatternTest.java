@@ -0,0 +1,239 @@
+package nonogram;
+
+import static org.junit.Assert.*;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The test class NGPatternTest.
+ *
+ * @author  Daniel Dimuna
+ * @version October 2026
+ */
+public class NGPatternTest
+{
+    /**
+     * Default constructor for test class NGPatternTest
+     */
+    public NGPatternTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+        rnd = new Random(42);
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+    }
+
+    @Test
+    public void simpleSequences() {
+        NGPattern pat = new NGPattern(new int[] {1, 2}, 5);
+        assertTrue(pat.isValid("22222"));
+        assertTrue(pat.isValid("10110"));
+        assertTrue(pat.isSolved("10110"));
+        assertTrue(pat.isSolved("12211")); // unknown cells count as empty when solved
+        assertFalse(pat.isSolved("12212"));
+        assertFalse(pat.isValid("11011"));
+        assertFalse(pat.isValid("22202"));
+        assertFalse(pat.isValid("1x110"));
+    }
+
+    @Test
+    public void automatonMatchesRegExShort() {
+        checkAgainstRegEx(5, 20, 2000);
+    }
+
+    @Test
+    public void automatonMatchesRegExLong() {
+        checkAgainstRegEx(70, 200, 300); // more than 64 automaton states
+    }
+
+    @Test
+    public void internSharesPatterns() {
+        NGPattern.clearCache();
+        NGPattern a = NGPattern.intern(new int[] {2, 2}, 10);
+        NGPattern b = NGPattern.intern(new int[] {2, 2}, 10);
+        NGPattern c = NGPattern.intern(new int[] {2, 2}, 11);
+        assertSame(a, b);
+        assertNotSame(a, c);
+        assertEquals(1, NGPattern.getCacheHits());
+        assertEquals(2, NGPattern.getCacheMisses());
+        assertEquals(2, NGPattern.getCacheSize());
+
+        new Nonogram(new java.util.Scanner(NonogramTest.TINY));
+        new Nonogram(new java.util.Scanner(NonogramTest.TINY));
+        assertEquals(8, NGPattern.getCacheSize()); // 6 different (nums, maxLen) pairs in tiny
+        assertEquals(8, NGPattern.getCacheMisses());
+        assertEquals(1 + 20 - 6, NGPattern.getCacheHits());
+    }
+
+    @Test
+    public void placementsMatchEnumeration() {
+        for (int t=0; t<3000; t++) {
+            int len = 5 + rnd.nextInt(10);
+            int[] goal = new int[len];
+            for (int i=0; i<len; i++)
+                goal[i] = (rnd.nextInt(2) > 0) ? Nonogram.FULL : Nonogram.EMPTY;
+            goal[rnd.nextInt(len)] = Nonogram.FULL;
+            int[] nums = PuzzleGenerator.clueFor(goal);
+            NGPattern pat = new NGPattern(nums, len);
+            byte[] line = new byte[len];
+            for (int i=0; i<len; i++) {
+                int r = rnd.nextInt(10);
+                line[i] = (byte) ((r < 6) ? Nonogram.UNKNOWN : (r < 9) ? goal[i] : 1 - goal[i]);
+            }
+            int[] first = new int[nums.length];
+            int[] last  = new int[nums.length];
+            boolean any = enumerate(nums, line, 0, 0, new int[nums.length], first, last, new boolean[1]);
+            int[] left  = new int[nums.length];
+            int[] right = new int[nums.length];
+            String seq = Arrays.toString(line) + " " + pat;
+            assertEquals(seq, any, pat.placeLeft(line, left));
+            assertEquals(seq, any, pat.placeRight(line, right));
+            if (!any)
+                continue;
+            assertArrayEquals(seq, first, left);
+            assertArrayEquals(seq, last, right);
+            byte[] forced = line.clone();
+            assertTrue(pat.overlap(forced));
+            for (int i=0; i<len; i++) {
+                if (forced[i] == line[i])
+                    continue;
+                assertEquals(seq, Nonogram.UNKNOWN, line[i]);
+                line[i] = (byte) (1 - forced[i]);
+                assertFalse(seq, pat.isValid(line)); // the other state must be impossible
+                line[i] = Nonogram.UNKNOWN;
+            }
+        }
+    }
+
+    @Test
+    public void placementScalesOnLongLines() {
+        // n/4 single blocks, all forced onto FULL cells at every other cell of the last n/2 cells:
+        // each block that is fitted leaves FULL cells behind it that the blocks before must move onto
+        int n = 64000, k = n / 4;
+        int[] nums = new int[k];
+        Arrays.fill(nums, 1);
+        NGPattern pat = new NGPattern(nums, n);
+        byte[] line = new byte[n];
+        Arrays.fill(line, (byte) Nonogram.UNKNOWN);
+        for (int i=n-2*k; i<n; i+=2)
+            line[i] = Nonogram.FULL;
+        int[] starts = new int[k];
+        long best = Long.MAX_VALUE;
+        for (int t=0; t<5; t++) {
+            long t0 = System.nanoTime();
+            assertTrue(pat.placeLeft(line, starts));
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        for (int b=0; b<k; b++)
+            assertEquals(n - 2*k + 2*b, starts[b]);
+        assertTrue("placeLeft took " + best/1000000 + " ms", best/1000000 < 100); // quadratic placement takes seconds
+        assertTrue(pat.placeRight(line, starts));
+        assertEquals(n - 2*k, starts[0]);
+    }
+
+    /**
+     * Enumerate the placements of the blocks consistent with a line in lexicographic order of their starts,
+     * recording the first and last found
+     *
+     * @param nums the blocks
+     * @param line the cell states
+     * @param b the next block to place
+     * @param from the first cell it may start at
+     * @param starts the starts of the blocks placed so far
+     * @param first receives the first placement
+     * @param last receives the last placement
+     * @param found whether a placement has been found yet
+     * @return true if a placement has been found
+     */
+    private boolean enumerate(int[] nums, byte[] line, int b, int from, int[] starts, int[] first, int[] last, boolean[] found) {
+        if (b == nums.length) {
+            for (int i=from; i<line.length; i++)
+                if (line[i] == Nonogram.FULL)
+                    return found[0];
+            if (!found[0])
+                System.arraycopy(starts, 0, first, 0, nums.length);
+            System.arraycopy(starts, 0, last, 0, nums.length);
+            found[0] = true;
+            return true;
+        }
+        for (int s=from; s+nums[b]<=line.length; s++) {
+            boolean ok = (s+nums[b] == line.length) || (line[s+nums[b]] != Nonogram.FULL);
+            for (int i=s; ok && i<s+nums[b]; i++)
+                ok = (line[i] != Nonogram.EMPTY);
+            if (ok) {
+                starts[b] = s;
+                enumerate(nums, line, b+1, s+nums[b]+1, starts, first, last, found);
+            }
+            if (line[s] == Nonogram.FULL)
+                break; // the block cannot skip a FULL cell
+        }
+        return found[0];
+    }
+
+    /**
+     * Compare the automaton with the regular expressions on random patterns and sequences
+     *
+     * @param minLen the shortest line
+     * @param maxLen the longest line
+     * @param trials the number of random patterns
+     */
+    private void checkAgainstRegEx(int minLen, int maxLen, int trials) {
+        for (int t=0; t<trials; t++) {
+            int len = minLen + rnd.nextInt(maxLen - minLen + 1);
+            int[] goal = new int[len];
+            for (int i=0; i<len; i++)
+                goal[i] = (rnd.nextInt(3) > 0) ? Nonogram.FULL : Nonogram.EMPTY;
+            goal[rnd.nextInt(len)] = Nonogram.FULL;
+            NGPattern pat = new NGPattern(PuzzleGenerator.clueFor(goal), len);
+            Pattern valid  = Pattern.compile(pat.getRegExValid());
+            Pattern solved = Pattern.compile(pat.getRegExSolved());
+            for (int k=0; k<5; k++) {
+                StringBuffer sb = new StringBuffer();
+                for (int i=0; i<len; i++) {
+                    int r = rnd.nextInt(10);
+                    if (k == 0)
+                        sb.append(goal[i]);
+                    else if (r < 2)
+                        sb.append(Nonogram.UNKNOWN);
+                    else if (r < 2 + k)
+                        sb.append(1 - goal[i]);
+                    else
+                        sb.append(goal[i]);
+                }
+                String seq = sb.toString();
+                assertEquals(seq, valid.matcher(seq).matches(), pat.isValid(seq));
+                assertEquals(seq, solved.matcher(seq).matches(), pat.isSolved(seq));
+                byte[] line = new byte[len];
+                for (int i=0; i<len; i++)
+                    line[i] = (byte) (seq.charAt(i) - '0');
+                RunLine runs = new RunLine(line, len);
+                assertEquals(seq, runs.toString());
+                assertEquals(seq, pat.isValid(seq), pat.isValid(runs));
+                assertEquals(seq, pat.isSolved(seq), pat.isSolved(runs));
+            }
+        }
+    }
+
+    private Random rnd = null;
+}
@@ -17,6 +17,19 @@ public class Nonogram extends Observable {
 	 * @param scnr the scanner
 	 */
 	public Nonogram(Scanner scnr) {
+		this(scnr, GridStorage.heap());
+	}
+	
+	/**
+	 * Constructor from a scanner (.non file format), keeping the grid of cell states in the given storage.
+	 * A mapped grid file that already holds a grid for this puzzle keeps its cell states.
+	 * 
+	 * @param scnr the scanner
+	 * @param storage where to keep the grid (e.g. GridStorage.offHeap() for very large puzzles)
+	 */
+	public Nonogram(Scanner scnr, GridStorage storage) {
+		if (storage == null)
+			throw new IllegalArgumentException("storage cannot be null");
 		ArrayList<NGPattern> rowNGPatterns = new ArrayList<>();
 		ArrayList<NGPattern> colNGPatterns = new ArrayList<>();
 		boolean onRows = false;
@@ -59,7 +72,7 @@ public class Nonogram extends Observable {
 				}		
 				if (!NGPattern.checkNums(nums))
 					throw new NonogramException("nums invalid");
-				NGPattern pat = new NGPattern(nums, numCols);
+				NGPattern pat = NGPattern.intern(nums, numCols);
 				rowNGPatterns.add(pat);
 			} else if (onCols && (colNGPatterns.size() < numCols)) {
 				String[]  fields = line.split(",");
@@ -73,7 +86,7 @@ public class Nonogram extends Observable {
 				}
 				if (!NGPattern.checkNums(nums))
 					throw new NonogramException("nums invalid");
-				NGPattern pat = new NGPattern(nums, numRows);
+				NGPattern pat = NGPattern.intern(nums, numRows);
 				colNGPatterns.add(pat);
 			}
 		}
@@ -83,29 +96,71 @@ public class Nonogram extends Observable {
 		if (colNGPatterns.size() != numCols)
 			throw new NonogramException("incorrect number of cols ("+colNGPatterns.size()+")");
 		
-		// create grid of cells
-		cells = new Cell[numRows][numCols];
-		for (int row=0; row<numRows; row++)
-			for (int col=0; col<numCols; col++)
-				cells[row][col] = new Cell(this, row, col);
-		
-		// create row constraints
-		rows            = new Constraint[numRows];
-		Cell[] rowCells = new Cell[numCols];
+		init(rowNGPatterns, colNGPatterns, storage);
+	}
+	
+	/**
+	 * Copy constructor. The copy shares the (immutable) row and column patterns of the original, so no
+	 * parsing is repeated, and starts with the same cell states in its own heap grid. It has no observers.
+	 * 
+	 * @param other the puzzle to copy
+	 */
+	public Nonogram(Nonogram other) {
+		if (other == null)
+			throw new IllegalArgumentException("other cannot be null");
+		ArrayList<NGPattern> rowNGPatterns = new ArrayList<>();
+		ArrayList<NGPattern> colNGPatterns = new ArrayList<>();
+		for (int row=0; row<other.numRows; row++)
+			rowNGPatterns.add(other.rows[row].getPattern());
+		for (int col=0; col<other.numCols; col++)
+			colNGPatterns.add(other.cols[col].getPattern());
+		numRows = other.numRows;
+		numCols = other.numCols;
+		init(rowNGPatterns, colNGPatterns, GridStorage.heap());
 		for (int row=0; row<numRows; row++) {
-			for (int col=0; col<numCols; col++)
-				rowCells[col] = cells[row][col];
-			rows[row] = new Constraint(rowNGPatterns.get(row), rowCells);
+			other.readRow(row, lineBuffer);
+			writeRow(row, lineBuffer);
 		}
+	}
+	
+	/**
+	 * Create the grid, constraints and line bookkeeping once numRows, numCols and the patterns are known
+	 * 
+	 * @param rowNGPatterns the row patterns
+	 * @param colNGPatterns the column patterns
+	 * @param storage where to keep the grid
+	 */
+	private void init(ArrayList<NGPattern> rowNGPatterns, ArrayList<NGPattern> colNGPatterns, GridStorage storage) {
+		// create grid of cells, packed two bits per cell
+		grid       = storage.create(numRows, numCols, clueHash(rowNGPatterns, colNGPatterns));
+		lineBuffer = new byte[Math.max(numRows, numCols)];
+		
+		// create row constraints
+		rows = new Constraint[numRows];
+		for (int row=0; row<numRows; row++)
+			rows[row] = new Constraint(rowNGPatterns.get(row), this, row, true);
 		
 		// create column constraints
-		cols            = new Constraint[numCols];
-		Cell[] colCells = new Cell[numRows];
-		for (int col=0; col<numCols; col++) {
-			for (int row=0; row<numRows; row++)
-				colCells[row] = cells[row][col];
-			cols[col] = new Constraint(colNGPatterns.get(col), colCells);
-		}
+		cols = new Constraint[numCols];
+		for (int col=0; col<numCols; col++)
+			cols[col] = new Constraint(colNGPatterns.get(col), this, col, false);
+		
+		// hash of the initial cell states (all UNKNOWN unless the grid storage kept earlier states)
+		stateHash = computeStateHash();
+		
+		// no snapshot yet, so every row counts as changed
+		changedRows = new int[numRows];
+		rowChanged  = new boolean[numRows];
+		for (int row=0; row<numRows; row++)
+			markRowChanged(row);
+		
+		// every line starts unchecked (so counted as invalid and unsolved) and queued for checking
+		dirtyLines   = new int[numRows + numCols];
+		queued       = new boolean[numRows + numCols];
+		solvedLines  = 0;
+		invalidLines = numRows + numCols;
+		for (int line=0; line<numRows+numCols; line++)
+			queueLine(line);
 	}
 	
 	/**
@@ -138,7 +193,7 @@ public class Nonogram extends Observable {
 			throw new IllegalArgumentException("row invalid, must be 0 <= row < " + numRows);
 		if ((col < 0)  || (col >= numCols))
 			throw new IllegalArgumentException("col invalid, must be 0 <= col < " + numCols);
-		return cells[row][col].getState();
+		return grid.getState(row, col);
 	}
 	
 	/**
@@ -155,10 +210,8 @@ public class Nonogram extends Observable {
 			throw new IllegalArgumentException("col invalid, must be 0 <= col < " + numCols);
 		if (!Cell.isValidState(state))
 			throw new IllegalArgumentException("invalid state (" + state + ")");
-		cells[row][col].setState(state);
-		trace("notifyObservers: row: "+row+"; col : "+col+"; state: "+state);
-		setChanged();
-		notifyObservers(cells[row][col]);
+		setCellState(row, col, state);
+		notifyCell(row, col, state);
 	}
 	
 	/**
@@ -181,6 +234,156 @@ public class Nonogram extends Observable {
 				setState(row, col, UNKNOWN);
 	}
 	
+	/**
+	 * Retrieve a 64-bit Zobrist-style hash of the cell states, kept up to date by every cell change in O(1).
+	 * Equal grids of the same size always have equal hashes; different grids collide with probability about 2^-64.
+	 * 
+	 * @return the state hash
+	 */
+	public long getStateHash() {
+		return stateHash;
+	}
+	
+	/**
+	 * Calculate the state hash from scratch. UNKNOWN cells contribute nothing, so only the known cells are visited.
+	 * 
+	 * @return the state hash
+	 */
+	private long computeStateHash() {
+		int    wordsPerRow = grid.getWordsPerRow();
+		long[] words       = new long[2*wordsPerRow];
+		long   hash        = 0L;
+		for (int row=0; row<numRows; row++) {
+			grid.readRowWords(row, words);
+			for (int w=0; w<wordsPerRow; w++) {
+				long known = words[w];
+				while (known != 0) {
+					int bit = Long.numberOfTrailingZeros(known);
+					int col = (w << 6) + bit;
+					hash ^= cellKey(row, col, Grid.decode(words[w], words[wordsPerRow + w], bit));
+					known &= known - 1;
+				}
+			}
+		}
+		return hash;
+	}
+	
+	/**
+	 * The Zobrist key of a cell state, derived by mixing the cell position and state (SplitMix64) rather than
+	 * looked up in a table, so it costs no memory however large the grid
+	 * 
+	 * @param row the cell row
+	 * @param col the cell column
+	 * @param state the cell state
+	 * @return the key (0 for UNKNOWN)
+	 */
+	private long cellKey(int row, int col, int state) {
+		if (state == UNKNOWN)
+			return 0L;
+		long z = (2L*((long) row*numCols + col) + state + 1) * 0x9e3779b97f4a7c15L;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+	
+	/**
+	 * A 64-bit fingerprint of the clues, so that a kept grid (e.g. a mapped grid file) is only reopened for
+	 * the same puzzle: every block of every line is mixed in (SplitMix64), each line led by its block count
+	 * 
+	 * @param rowNGPatterns the row patterns
+	 * @param colNGPatterns the column patterns
+	 * @return the fingerprint
+	 */
+	private static long clueHash(List<NGPattern> rowNGPatterns, List<NGPattern> colNGPatterns) {
+		long hash = mix(rowNGPatterns.size()) ^ mix(~(long) colNGPatterns.size());
+		for (List<NGPattern> pats : Arrays.asList(rowNGPatterns, colNGPatterns)) {
+			for (NGPattern pat : pats) {
+				hash = mix(hash ^ pat.getNumBlocks());
+				for (int b=0; b<pat.getNumBlocks(); b++)
+					hash = mix(hash + pat.getNum(b));
+			}
+		}
+		return hash;
+	}
+	
+	/**
+	 * The SplitMix64 mixing function
+	 * 
+	 * @param z the value to mix
+	 * @return the mixed value
+	 */
+	private static long mix(long z) {
+		z = (z + 0x9e3779b97f4a7c15L);
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+	
+	/**
+	 * Take an immutable snapshot of the cell states. The snapshot shares the packed words of every row that
+	 * has not changed since the previous snapshot, so taking one copies only the changed rows.
+	 * 
+	 * @return the snapshot
+	 */
+	public NonogramSnapshot snapshot() {
+		if ((lastSnapshot != null) && (numChanged == 0))
+			return lastSnapshot;
+		int      wordsPerRow = grid.getWordsPerRow();
+		long[][] chunks      = (lastSnapshot == null) ? new long[numRows][] : lastSnapshot.getRows().clone();
+		while (numChanged > 0) {
+			int row = changedRows[--numChanged];
+			rowChanged[row] = false;
+			chunks[row] = new long[2*wordsPerRow];
+			grid.readRowWords(row, chunks[row]);
+		}
+		lastSnapshot = new NonogramSnapshot(numRows, numCols, wordsPerRow, chunks, stateHash);
+		return lastSnapshot;
+	}
+	
+	/**
+	 * Restore the cell states from a snapshot (of this or another copy of the same puzzle), notifying
+	 * observers of each cell that changes. Only rows that differ from the snapshot are compared cell by cell.
+	 * 
+	 * @param snap the snapshot
+	 */
+	public void restore(NonogramSnapshot snap) {
+		if (snap == null)
+			throw new IllegalArgumentException("snap cannot be null");
+		if ((snap.getNumRows() != numRows) || (snap.getNumCols() != numCols))
+			throw new IllegalArgumentException("snap must be " + numRows + "x" + numCols);
+		int    wordsPerRow = grid.getWordsPerRow();
+		long[] current     = new long[2*wordsPerRow];
+		for (int row=0; row<numRows; row++) {
+			long[] target = snap.getRowWords(row);
+			// a row can only differ if it changed since the last snapshot, or the last snapshot differs from snap
+			if (!rowChanged[row] && (lastSnapshot != null) && (lastSnapshot.getRowWords(row) == target))
+				continue;
+			grid.readRowWords(row, current);
+			for (int w=0; w<wordsPerRow; w++) {
+				long diff = (current[w] ^ target[w]) | (current[wordsPerRow + w] ^ target[wordsPerRow + w]);
+				while (diff != 0) {
+					int bit   = Long.numberOfTrailingZeros(diff);
+					int col   = (w << 6) + bit;
+					int state = Grid.decode(target[w], target[wordsPerRow + w], bit);
+					setCellState(row, col, state);
+					notifyCell(row, col, state);
+					diff &= diff - 1;
+				}
+			}
+		}
+		// the grid now matches snap, so it can serve as the base for the next snapshot
+		while (numChanged > 0)
+			rowChanged[changedRows[--numChanged]] = false;
+		lastSnapshot = snap;
+	}
+	
+	/**
+	 * Write the cell states through to the grid file, if the grid is memory-mapped
+	 */
+	public void flush() {
+		grid.flush();
+	}
+	
 	/**
 	 * Retrieve the pattern of contiguous full cells for a given row as an integer array
 	 * 
@@ -205,6 +408,108 @@ public class Nonogram extends Observable {
 		return cols[col].getNums();
 	}
 	
+	/**
+	 * Retrieve the (shared, immutable) pattern of a given row, e.g. for line solving
+	 * 
+	 * @param row the desired row
+	 * @return the pattern of the row constraint
+	 */
+	public NGPattern getRowPattern(int row) {
+		if ((row < 0)  || (row >= numRows))
+			throw new IllegalArgumentException("row invalid, must be 0 <= row < " + numRows);
+		return rows[row].getPattern();
+	}
+	
+	/**
+	 * Retrieve the (shared, immutable) pattern of a given column, e.g. for line solving
+	 * 
+	 * @param col the desired column
+	 * @return the pattern of the column constraint
+	 */
+	public NGPattern getColPattern(int col) {
+		if ((col < 0)  || (col >= numCols))
+			throw new IllegalArgumentException("col invalid, must be 0 <= col < " + numCols);
+		return cols[col].getPattern();
+	}
+	
+	/**
+	 * Copy the cell states of a row into a buffer
+	 * 
+	 * @param row the desired row
+	 * @param dst the buffer, at least getNumCols() long, to receive the cell states
+	 */
+	public void readRow(int row, byte[] dst) {
+		if ((row < 0)  || (row >= numRows))
+			throw new IllegalArgumentException("row invalid, must be 0 <= row < " + numRows);
+		if ((dst == null) || (dst.length < numCols))
+			throw new IllegalArgumentException("dst must be at least " + numCols + " long");
+		grid.readRow(row, dst);
+	}
+	
+	/**
+	 * Copy the cell states of a column into a buffer
+	 * 
+	 * @param col the desired column
+	 * @param dst the buffer, at least getNumRows() long, to receive the cell states
+	 */
+	public void readCol(int col, byte[] dst) {
+		if ((col < 0)  || (col >= numCols))
+			throw new IllegalArgumentException("col invalid, must be 0 <= col < " + numCols);
+		if ((dst == null) || (dst.length < numRows))
+			throw new IllegalArgumentException("dst must be at least " + numRows + " long");
+		grid.readCol(col, dst);
+	}
+	
+	/**
+	 * Set the cell states of a row from a buffer, notifying observers of each cell that changes
+	 * 
+	 * @param row the desired row
+	 * @param src the buffer of at least getNumCols() cell states
+	 */
+	public void writeRow(int row, byte[] src) {
+		if ((row < 0)  || (row >= numRows))
+			throw new IllegalArgumentException("row invalid, must be 0 <= row < " + numRows);
+		checkStates(src, numCols);
+		for (int col=0; col<numCols; col++) {
+			if (grid.getState(row, col) != src[col]) {
+				setCellState(row, col, src[col]);
+				notifyCell(row, col, src[col]);
+			}
+		}
+	}
+	
+	/**
+	 * Set the cell states of a column from a buffer, notifying observers of each cell that changes
+	 * 
+	 * @param col the desired column
+	 * @param src the buffer of at least getNumRows() cell states
+	 */
+	public void writeCol(int col, byte[] src) {
+		if ((col < 0)  || (col >= numCols))
+			throw new IllegalArgumentException("col invalid, must be 0 <= col < " + numCols);
+		checkStates(src, numRows);
+		for (int row=0; row<numRows; row++) {
+			if (grid.getState(row, col) != src[row]) {
+				setCellState(row, col, src[row]);
+				notifyCell(row, col, src[row]);
+			}
+		}
+	}
+	
+	/**
+	 * Check that a buffer holds at least len valid cell states
+	 * 
+	 * @param src the buffer
+	 * @param len the number of cell states required
+	 */
+	private static void checkStates(byte[] src, int len) {
+		if ((src == null) || (src.length < len))
+			throw new IllegalArgumentException("src must be at least " + len + " long");
+		for (int i=0; i<len; i++)
+			if (!Cell.isValidState(src[i]))
+				throw new IllegalArgumentException("invalid state (" + src[i] + ") in src["+ i +"]");
+	}
+	
 	/**
 	 * Retrieve the cell states for a given row as a sequence string
 	 * 
@@ -252,7 +557,7 @@ public class Nonogram extends Observable {
 				}
 				if (!Cell.isValidState(state))
 					throw new IllegalArgumentException("invalid state (" + state + ") in s["+ idx +"]");
-				cells[row][col].setState(state);
+				setCellState(row, col, state);
 			}
 		}
 	}
@@ -307,17 +612,33 @@ public class Nonogram extends Observable {
 	
 	/**
 	 * Are all rows and columns, and therefore the whole puzzle, solved?
+	 * Only the lines changed since the last check are re-checked, so this is O(1) after a check.
 	 * 
 	 * @return true if all rows and coplumns are solved, otherwise false
 	 */
 	public boolean isSolved() {
-		for (int row=0; row<numRows; row++)
-			if (!rows[row].isSolved())
-				return false;
-		for (int col=0; col<numCols; col++)
-			if (!cols[col].isSolved())
-				return false;
-		return true;
+		checkDirtyLines();
+		return solvedLines == numRows + numCols;
+	}
+	
+	/**
+	 * Retrieve the number of rows and columns that are solved
+	 * 
+	 * @return the number of solved lines
+	 */
+	public int getSolvedLineCount() {
+		checkDirtyLines();
+		return solvedLines;
+	}
+	
+	/**
+	 * Retrieve the number of rows and columns that are invalid against their constraints
+	 * 
+	 * @return the number of invalid lines
+	 */
+	public int getInvalidLineCount() {
+		checkDirtyLines();
+		return invalidLines;
 	}
 	
   /**
@@ -341,6 +662,126 @@ public class Nonogram extends Observable {
 		return sb.toString();
 	}
 	
+	/**
+	 * Retrieve the state of an individual cell without checking row and col (for use by Constraint)
+	 * 
+	 * @param row the cell row
+	 * @param col the cell column
+	 * @return the cell state
+	 */
+	int getCellState(int row, int col) {
+		return grid.getState(row, col);
+	}
+	
+	/**
+	 * Set the state of an individual cell without checks or notifying observers
+	 * 
+	 * @param row the cell row
+	 * @param col the cell column
+	 * @param state the new state
+	 */
+	void setCellState(int row, int col, int state) {
+		int old = grid.getState(row, col);
+		if (old == state)
+			return;
+		grid.setState(row, col, state);
+		stateHash ^= cellKey(row, col, old) ^ cellKey(row, col, state);
+		markRowChanged(row);
+		rows[row].markDirty();
+		cols[col].markDirty();
+		queueLine(row);
+		queueLine(numRows + col);
+	}
+	
+	/**
+	 * Notify observers that a cell has been assigned (only creating the Cell when someone is observing)
+	 * 
+	 * @param row the cell row
+	 * @param col the cell column
+	 * @param state the new state
+	 */
+	private void notifyCell(int row, int col, int state) {
+		if (traceOn) // so the message is only built when tracing, as this runs for every cell set
+			trace("notifyObservers: row: "+row+"; col : "+col+"; state: "+state);
+		if (countObservers() == 0)
+			return;
+		setChanged();
+		notifyObservers(new Cell(this, row, col, state));
+	}
+	
+	/**
+	 * Record that a row has changed since the last snapshot
+	 * 
+	 * @param row the row
+	 */
+	private void markRowChanged(int row) {
+		if (rowChanged[row])
+			return;
+		rowChanged[row] = true;
+		changedRows[numChanged++] = row;
+	}
+	
+	/**
+	 * Queue a line (rows first, then columns) to be re-checked before the line counts are next used
+	 * 
+	 * @param line the line number
+	 */
+	private void queueLine(int line) {
+		if (queued[line])
+			return;
+		queued[line] = true;
+		dirtyLines[numDirty++] = line;
+	}
+	
+	/**
+	 * Re-check the queued lines, bringing the solved and invalid line counts up to date
+	 */
+	private void checkDirtyLines() {
+		while (numDirty > 0) {
+			int line = dirtyLines[--numDirty];
+			queued[line] = false;
+			if (line < numRows)
+				rows[line].refresh();
+			else
+				cols[line - numRows].refresh();
+		}
+	}
+	
+	/**
+	 * Update the solved and invalid line counts after a constraint has re-checked its cells
+	 * 
+	 * @param wasValid the previous validity of the line
+	 * @param wasSolved the previous solution state of the line
+	 * @param valid the new validity of the line
+	 * @param solved the new solution state of the line
+	 */
+	void lineChecked(boolean wasValid, boolean wasSolved, boolean valid, boolean solved) {
+		if (wasValid != valid)
+			invalidLines += valid ? -1 : 1;
+		if (wasSolved != solved)
+			solvedLines += solved ? 1 : -1;
+	}
+	
+	/**
+	 * Retrieve the run list of a row or column, if the grid keeps its lines as runs (see GridStorage.sparse())
+	 * 
+	 * @param index the row or column number (not checked)
+	 * @param isRow true for a row, false for a column
+	 * @return the runs of the line (live, must not be modified), or null
+	 */
+	RunLine getLineRuns(int index, boolean isRow) {
+		return isRow ? grid.getRowRuns(index) : grid.getColRuns(index);
+	}
+	
+	/**
+	 * Retrieve the line buffer shared by the constraints when checking their cells
+	 * 
+	 * @return the line buffer
+	 */
+	byte[] getLineBuffer() {
+		return lineBuffer;
+	}
+	
 	/**
 	 * A trace method for debugging (active when traceOn is true)
 	 * 
@@ -357,11 +798,22 @@ public class Nonogram extends Observable {
 	public static final int FULL    = 1;
 	public static final int UNKNOWN = 2;
 	
-	private Cell[][]     cells   = null;
-	private Constraint[] rows    = null;
-	private Constraint[] cols    = null;
-	private int          numRows = -1;
-	private int          numCols = -1;
+	private Grid             grid         = null;
+	private Constraint[]     rows         = null;
+	private Constraint[]     cols         = null;
+	private int              numRows      = -1;
+	private int              numCols      = -1;
+	private byte[]           lineBuffer   = null;  // scratch for constraint checks
+	private int[]            dirtyLines   = null;  // queue of lines (rows, then columns) to re-check
+	private boolean[]        queued       = null;  // is the line in dirtyLines?
+	private int              numDirty     = 0;
+	private int              solvedLines  = 0;
+	private int              invalidLines = 0;
+	private long             stateHash    = 0L;
+	private NonogramSnapshot lastSnapshot = null;  // base that the next snapshot shares unchanged rows with
+	private int[]            changedRows  = null;  // rows changed since lastSnapshot
+	private boolean[]        rowChanged   = null;  // is the row in changedRows?
+	private int              numChanged   = 0;
 	
 	private static boolean traceOn = false; // for debugging
 }
@@ -15,6 +15,10 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import nonogram.solver.AnytimeSolver;
+import nonogram.solver.ConsistencyChecker;
+import nonogram.solver.HintEngine;
 
 /**
  * A GUI user interface to a Nonogram puzzle.
@@ -38,6 +42,22 @@ public class NonogramPanel extends JPanel implements Observer {
         }
         game = new Nonogram(fs);
         Moves = new Stack<Assign>();
+        history = new Stack<NonogramSnapshot>();
+        // hints are worked out on a background thread and handed back on the EDT
+        hints = new HintEngine(game, SwingUtilities::invokeLater, h -> {
+            if (hintWanted)
+                showHint();
+        });
+        // and whether the grid can still be solved, which valid lines alone do not show
+        checker = new ConsistencyChecker(game, SwingUtilities::invokeLater, v -> {
+            if (v == ConsistencyChecker.Verdict.UNSOLVABLE) {
+                setStatus("A move so far is wrong: the puzzle can no longer be solved");
+                deadEnd = true;
+            } else if ((v == ConsistencyChecker.Verdict.SOLVABLE) && deadEnd) {
+                setStatus(" ");
+                deadEnd = false;
+            }
+        });
 
         // Nonogram nonogram = new Nonogram(fs);
         int row, col;
@@ -107,6 +127,15 @@ public class NonogramPanel extends JPanel implements Observer {
                 load();
             }
         });
+
+        hint = new JButton("Hint");
+        hint.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent ae) {
+                hintWanted = true;
+                showHint();
+            }
+        });
         // Add grid, rightNums, and topNums to container panel
         JPanel container = new JPanel(new BorderLayout());
         container.add(grid, BorderLayout.CENTER);
@@ -116,11 +145,12 @@ public class NonogramPanel extends JPanel implements Observer {
         setLayout(new BorderLayout());
         add(container, BorderLayout.CENTER);
 
-        JPanel center = new JPanel(new GridLayout(1, 4));
+        JPanel center = new JPanel(new GridLayout(1, 5));
         center.add(clear);
         center.add(undo);
         center.add(save);
         center.add(load);
+        center.add(hint);
         center.setPreferredSize(new Dimension(30, 30));
 
         add(center, BorderLayout.NORTH);
@@ -129,6 +159,7 @@ public class NonogramPanel extends JPanel implements Observer {
         add(new JScrollPane(status), BorderLayout.SOUTH);
         // game = new Nonogram(fs);
         game.addObserver(this);
+        gridChanged();
     }
 
     void makeMove(int row, int col, int state) {
@@ -140,7 +171,9 @@ public class NonogramPanel extends JPanel implements Observer {
             throw new NonogramException("invalid state (" + state + ")");
         Assign userMove = new Assign(row, col, state);
         Moves.add(userMove);
+        history.push(game.snapshot()); // only the rows changed since the last move are copied
         game.setState(row, col, state);
+        gridChanged();
     }
 
     public void checkWin() {
@@ -172,11 +205,8 @@ public class NonogramPanel extends JPanel implements Observer {
         }
         // System.out.println(Moves.peek());
         Moves.pop(); // remove the last item in the stack
-        game.clear();
-        for (Assign moves : Moves) { // loop over the stack and pass the new stack into the game.
-            game.setState(moves);
-        }
-
+        game.restore(history.pop()); // put back the game as it was before the move
+        gridChanged();
     }
 
     public void clear() {
@@ -184,6 +214,7 @@ public class NonogramPanel extends JPanel implements Observer {
         // create a new game instance
         game.clear();
         game.addObserver(this);
+        gridChanged();
             setStatus(" ");
 
     }
@@ -210,11 +241,13 @@ public class NonogramPanel extends JPanel implements Observer {
                 String[] values = fscnr.nextLine().split(" ");
                 Assign moves = new Assign(Integer.parseInt(values[0]), Integer.parseInt(values[1]),
                         Integer.parseInt(values[2]));
+                history.push(game.snapshot());
                 game.setState(moves);
                 Moves.push(moves);
 
             }
             fscnr.close();
+            gridChanged();
 
             setStatus("game loaded from file");
         } catch (IOException e) {
@@ -222,6 +255,38 @@ public class NonogramPanel extends JPanel implements Observer {
         }
     }
 
+    /**
+     * Starts working out the hints for the grid, and checking it can still be solved, after it has changed
+     */
+    private void gridChanged() {
+        hints.update(game);
+        checker.update(game);
+    }
+
+    /**
+     * Shows the next cell that can be deduced from the grid, setting it as a move. If the hints
+     * for the grid are still being worked out, they are shown when they arrive.
+     */
+    void showHint() {
+        HintEngine.Hints h = hints.getLatest();
+        if (h == null) {
+            setStatus("Working out a hint...");
+            return;
+        }
+        hintWanted = false;
+        Assign next = h.getNext();
+        if (h.getStatus() == AnytimeSolver.Status.CONTRADICTION)
+            setStatus("No hint: a cell set so far is wrong");
+        else if (next == null)
+            setStatus("No hint: nothing more can be deduced from the grid");
+        else {
+            makeMove(next.getRow(), next.getCol(), next.getState());
+            setStatus("Hint: row " + next.getRow() + ", col " + next.getCol() + " is "
+                    + ((next.getState() == Nonogram.FULL) ? "full" : "empty"));
+            checkWin();
+        }
+    }
+
     /**
      * Sets the status bar to a given string
      * 
@@ -271,9 +336,15 @@ public class NonogramPanel extends JPanel implements Observer {
     private JButton undo = null;
     private JButton save = null;
     private JButton load = null;
+    private JButton hint = null;
     private JTextArea status = null;
     private Nonogram game = null;
     private Stack<Assign> Moves = null;
+    private Stack<NonogramSnapshot> history = null; // the game before each move, for undo
+    private HintEngine hints = null; // works out hints off the EDT after every move
+    private boolean hintWanted = false; // Hint pressed before the hints were ready
+    private ConsistencyChecker checker = null; // checks off the EDT after every move that the grid can be solved
+    private boolean deadEnd = false; // the status shows the grid cannot be solved
     private static final String FILENAME = "nons/save.non";
     private static final String NGFILE = "nons/tiny.non";
 
@@ -0,0 +1,120 @@
+package nonogram;
+
+/**
+ * An immutable snapshot of the cell states of a Nonogram puzzle, taken with
+ * Nonogram.snapshot() and put back with Nonogram.restore(). The grid is held as
+ * one packed chunk of words per row, and a snapshot shares the chunks of every row
+ * that has not changed since the previous snapshot of the same puzzle.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public final class NonogramSnapshot {
+	/**
+	 * Constructor
+	 *
+	 * @param numRows the number of rows
+	 * @param numCols the number of columns
+	 * @param wordsPerRow the words per row of each bitplane
+	 * @param rows the packed words of each row (known bits, then full bits), not copied
+	 * @param stateHash the state hash of the grid
+	 */
+	NonogramSnapshot(int numRows, int numCols, int wordsPerRow, long[][] rows, long stateHash) {
+		this.numRows     = numRows;
+		this.numCols     = numCols;
+		this.wordsPerRow = wordsPerRow;
+		this.rows        = rows;
+		this.stateHash   = stateHash;
+	}
+
+	/**
+	 * Retrieve the number of rows
+	 *
+	 * @return the number of rows
+	 */
+	public int getNumRows() {
+		return numRows;
+	}
+
+	/**
+	 * Retrieve the number of columns
+	 *
+	 * @return the number of columns
+	 */
+	public int getNumCols() {
+		return numCols;
+	}
+
+	/**
+	 * Retrieve the state hash of the grid when the snapshot was taken (see Nonogram.getStateHash())
+	 *
+	 * @return the state hash
+	 */
+	public long getStateHash() {
+		return stateHash;
+	}
+
+	/**
+	 * Retrieve the state of an individual cell
+	 *
+	 * @param row the cell row
+	 * @param col the cell column
+	 * @return the cell state
+	 */
+	public int getState(int row, int col) {
+		if ((row < 0)  || (row >= numRows))
+			throw new IllegalArgumentException("row invalid, must be 0 <= row < " + numRows);
+		if ((col < 0)  || (col >= numCols))
+			throw new IllegalArgumentException("col invalid, must be 0 <= col < " + numCols);
+		long[] words = rows[row];
+		return Grid.decode(words[col >>> 6], words[wordsPerRow + (col >>> 6)], col & 63);
+	}
+
+	/**
+	 * Retrieve the packed words of a row (shared, must not be modified)
+	 *
+	 * @param row the row (not checked)
+	 * @return the known words followed by the full words
+	 */
+	long[] getRowWords(int row) {
+		return rows[row];
+	}
+
+	/**
+	 * Retrieve the words per row of each bitplane
+	 *
+	 * @return the words per row
+	 */
+	int getWordsPerRow() {
+		return wordsPerRow;
+	}
+
+	/**
+	 * Retrieve the row chunk array (shared, must not be modified)
+	 *
+	 * @return the row chunks
+	 */
+	long[][] getRows() {
+		return rows;
+	}
+
+	/**
+	 * String representation of the snapshot (the cell states in row order, as a .non file goal)
+	 *
+	 * @return the string representation
+	 */
+	@Override
+	public String toString() {
+		StringBuffer sb = new StringBuffer(numRows*numCols);
+		for (int row=0; row<numRows; row++)
+			for (int col=0; col<numCols; col++)
+				sb.append(getState(row, col));
+		return sb.toString();
+	}
+
+	private final int      numRows;
+	private final int      numCols;
+	private final int      wordsPerRow;
+	private final long[][] rows;        // one chunk per row, shared between snapshots
+	private final long     stateHash;
+}
@@ -0,0 +1,318 @@
+package nonogram;
+
+import static org.junit.Assert.*;
+import java.util.Scanner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The test class NonogramTest.
+ *
+ * @author  Daniel Dimuna
+ * @version October 2026
+ */
+public class NonogramTest
+{
+    /**
+     * Default constructor for test class NonogramTest
+     */
+    public NonogramTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+        ng = new Nonogram(new Scanner(TINY));
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+    }
+
+    @Test
+    public void lineCountsStartUnsolved() {
+        assertEquals(0, ng.getSolvedLineCount());
+        assertEquals(0, ng.getInvalidLineCount());
+        assertFalse(ng.isSolved());
+    }
+
+    @Test
+    public void lineCountsFollowGoal() {
+        ng.setStatesByString(GOAL);
+        assertTrue(ng.isSolved());
+        assertEquals(10, ng.getSolvedLineCount());
+        assertEquals(0, ng.getInvalidLineCount());
+
+        ng.setState(0, 0, Nonogram.EMPTY); // breaks row 0 and column 0
+        assertFalse(ng.isSolved());
+        assertEquals(8, ng.getSolvedLineCount());
+        assertEquals(2, ng.getInvalidLineCount());
+
+        ng.setState(0, 0, Nonogram.FULL);
+        assertTrue(ng.isSolved());
+        assertEquals(0, ng.getInvalidLineCount());
+    }
+
+    @Test
+    public void lineCountsMatchLineChecks() {
+        ng.setState(0, 1, Nonogram.FULL);
+        ng.setState(0, 2, Nonogram.FULL);
+        ng.setState(0, 3, Nonogram.FULL);
+        int invalid = 0;
+        for (int i=0; i<5; i++) {
+            if (!ng.isRowValid(i))
+                invalid++;
+            if (!ng.isColValid(i))
+                invalid++;
+        }
+        assertEquals(invalid, ng.getInvalidLineCount());
+        ng.clear();
+        assertEquals(0, ng.getInvalidLineCount());
+    }
+
+    @Test
+    public void bulkReadWrite() {
+        ng.setStatesByString(GOAL);
+        byte[] buf = new byte[8];
+        ng.readRow(1, buf);
+        assertEquals("11011", ng.getRowSequence(1));
+        for (int col=0; col<5; col++)
+            assertEquals(ng.getState(1, col), buf[col]);
+        ng.readCol(4, buf);
+        for (int row=0; row<5; row++)
+            assertEquals(ng.getState(row, 4), buf[row]);
+
+        byte[] line = { 2, 0, 1, 1, 2 };
+        ng.writeRow(2, line);
+        assertEquals("20112", ng.getRowSequence(2));
+        ng.writeCol(0, line);
+        assertEquals("20112", ng.getColSequence(0));
+        assertFalse(ng.isRowValid(2));
+        assertFalse(ng.isSolved());
+    }
+
+    @Test
+    public void bulkWriteChecksStates() {
+        final byte[] bad = { 2, 0, 3, 1, 2 };
+        try {
+            ng.writeRow(0, bad);
+            fail("invalid state accepted");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            ng.readCol(0, new byte[4]);
+            fail("short buffer accepted");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void bulkWriteNotifiesChangedCells() {
+        final int[] count = { 0 };
+        ng.addObserver(new java.util.Observer() {
+            @Override
+            public void update(java.util.Observable o, Object arg) {
+                count[0]++;
+            }
+        });
+        ng.setState(3, 1, Nonogram.FULL);
+        count[0] = 0;
+        ng.writeRow(3, new byte[] { 2, 1, 0, 0, 2 });
+        assertEquals(2, count[0]);
+    }
+
+    @Test
+    public void offHeapGridMatchesHeapGrid() {
+        Nonogram off = new Nonogram(new Scanner(TINY), GridStorage.offHeap());
+        off.setStatesByString(GOAL);
+        assertTrue(off.isSolved());
+        off.setState(4, 4, Nonogram.UNKNOWN);
+        ng.setStatesByString(GOAL);
+        ng.setState(4, 4, Nonogram.UNKNOWN);
+        for (int i=0; i<5; i++) {
+            assertEquals(ng.getRowSequence(i), off.getRowSequence(i));
+            assertEquals(ng.getColSequence(i), off.getColSequence(i));
+        }
+        assertEquals(ng.getSolvedLineCount(), off.getSolvedLineCount());
+    }
+
+    @Test
+    public void sparseGridMatchesHeapGrid() {
+        String non = PuzzleGenerator.randomNonFile(20, 300, 0.05, 7L);
+        Nonogram heap   = new Nonogram(new Scanner(non));
+        Nonogram sparse = new Nonogram(new Scanner(non), GridStorage.sparse());
+        java.util.Random rnd = new java.util.Random(3L);
+        for (int move=0; move<20000; move++) {
+            int row   = rnd.nextInt(20);
+            int col   = rnd.nextInt(300);
+            int state = (rnd.nextInt(10) == 0) ? Nonogram.FULL : rnd.nextInt(3);
+            heap.setState(row, col, state);
+            sparse.setState(row, col, state);
+            if (move % 1000 == 0) {
+                assertEquals(heap.getInvalidLineCount(), sparse.getInvalidLineCount());
+                assertEquals(heap.getSolvedLineCount(), sparse.getSolvedLineCount());
+            }
+        }
+        for (int row=0; row<20; row++)
+            assertEquals(heap.getRowSequence(row), sparse.getRowSequence(row));
+        for (int col=0; col<300; col++)
+            assertEquals(heap.getColSequence(col), sparse.getColSequence(col));
+        assertEquals(heap.getStateHash(), sparse.getStateHash());
+        assertEquals(heap.snapshot().toString(), sparse.snapshot().toString());
+    }
+
+    @Test
+    public void mappedGridReopens() throws java.io.IOException {
+        java.io.File file = java.io.File.createTempFile("tiny", ".grid");
+        file.delete();
+        try {
+            Nonogram first = new Nonogram(new Scanner(TINY), GridStorage.mapped(file));
+            first.setStatesByString(GOAL);
+            first.setState(2, 1, Nonogram.UNKNOWN);
+            first.flush();
+            Nonogram again = new Nonogram(new Scanner(TINY), GridStorage.mapped(file));
+            assertEquals(first.getRowSequence(2), again.getRowSequence(2));
+            assertEquals(8, again.getSolvedLineCount());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void mappedGridKeepsToItsPuzzle() throws java.io.IOException {
+        java.io.File file = java.io.File.createTempFile("tiny", ".grid");
+        file.delete();
+        try {
+            Nonogram first = new Nonogram(new Scanner(TINY), GridStorage.mapped(file));
+            first.setStatesByString(GOAL);
+            first.flush();
+            try {
+                new Nonogram(new Scanner(TINY_TRANSPOSED), GridStorage.mapped(file)); // also 5x5
+                fail("a grid file was opened for a different puzzle of the same size");
+            } catch (NonogramException e) {
+                // expected
+            }
+            byte[] header = new byte[16];
+            try (java.io.RandomAccessFile raf = new java.io.RandomAccessFile(file, "r")) {
+                raf.readFully(header);
+            }
+            assertEquals('D', header[0]); // "NONOGRID" little-endian, whatever the machine
+            assertEquals(5, header[8]);
+            assertEquals(0, header[11]);
+            Nonogram again = new Nonogram(new Scanner(TINY), GridStorage.mapped(file));
+            assertTrue(again.isSolved());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void snapshotRestore() {
+        ng.setStatesByString(GOAL);
+        NonogramSnapshot solved = ng.snapshot();
+        assertEquals(GOAL, solved.toString());
+        ng.setState(0, 0, Nonogram.EMPTY);
+        ng.setState(3, 4, Nonogram.UNKNOWN);
+        NonogramSnapshot changed = ng.snapshot();
+        assertSame(solved.getRowWords(1), changed.getRowWords(1)); // unchanged rows are shared
+        assertNotSame(solved.getRowWords(0), changed.getRowWords(0));
+        assertSame(changed, ng.snapshot());
+        assertEquals(Nonogram.FULL, solved.getState(0, 0));
+
+        ng.restore(solved);
+        assertTrue(ng.isSolved());
+        assertEquals(Nonogram.FULL, ng.getState(3, 4));
+        ng.restore(changed);
+        assertEquals("0001111011110001010200001", ng.snapshot().toString());
+
+        Nonogram copy = new Nonogram(new Scanner(TINY));
+        copy.restore(solved);
+        assertTrue(copy.isSolved());
+    }
+
+    @Test
+    public void stateHashIsPathIndependent() {
+        assertEquals(0L, ng.getStateHash());
+        ng.setStatesByString(GOAL);
+        long solved = ng.getStateHash();
+        assertNotEquals(0L, solved);
+        ng.setState(2, 2, Nonogram.FULL);
+        assertNotEquals(solved, ng.getStateHash());
+        ng.setState(2, 2, Nonogram.EMPTY);
+        assertEquals(solved, ng.getStateHash());
+        assertEquals(solved, ng.snapshot().getStateHash());
+
+        Nonogram other = new Nonogram(new Scanner(TINY));
+        for (int i=GOAL.length()-1; i>=0; i--) // opposite order
+            other.setState(i/5, i%5, GOAL.charAt(i) - '0');
+        assertEquals(solved, other.getStateHash());
+        ng.clear();
+        assertEquals(0L, ng.getStateHash());
+    }
+
+    @Test
+    public void stateHashCollisionRate() {
+        java.util.Random rnd = new java.util.Random(7);
+        Nonogram big = new Nonogram(new Scanner(PuzzleGenerator.randomNonFile(12, 12, 0.5, 7L)));
+        java.util.HashMap<Long, String> seen = new java.util.HashMap<>();
+        byte[] line = new byte[12];
+        int collisions = 0;
+        int[] bitCounts = new int[64];
+        final int BOARDS = 50000;
+        for (int b=0; b<BOARDS; b++) {
+            StringBuffer sb = new StringBuffer();
+            for (int row=0; row<12; row++) {
+                for (int col=0; col<12; col++) {
+                    line[col] = (byte) rnd.nextInt(3);
+                    sb.append(line[col]);
+                }
+                big.writeRow(row, line);
+            }
+            long hash = big.getStateHash();
+            for (int i=0; i<64; i++)
+                bitCounts[i] += (int) ((hash >>> i) & 1);
+            String prev = seen.put(hash, sb.toString());
+            if ((prev != null) && !prev.equals(sb.toString()))
+                collisions++;
+        }
+        assertEquals(0, collisions);
+        for (int i=0; i<64; i++) // each hash bit should be set about half the time
+            assertTrue("bit " + i, Math.abs(bitCounts[i] - BOARDS/2) < BOARDS/20);
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        ng.setState(0, 0, Nonogram.FULL);
+        ng.setState(2, 3, Nonogram.EMPTY);
+        Nonogram copy = new Nonogram(ng);
+        assertEquals(ng.getStateHash(), copy.getStateHash());
+        assertSame(ng.getRowPattern(1), copy.getRowPattern(1));
+        assertEquals(Nonogram.EMPTY, copy.getState(2, 3));
+        copy.setStatesByString(GOAL);
+        assertTrue(copy.isSolved());
+        assertFalse(ng.isSolved());
+        assertEquals(Nonogram.UNKNOWN, ng.getState(4, 4));
+    }
+
+    private Nonogram ng = null;
+
+    static final String TINY =
+        "width 5\nheight 5\n\nrows\n1,2\n2,2\n2\n1,1,1\n1\n\ncolumns\n4\n2\n1\n2\n2,2\n";
+    static final String GOAL = "1001111011110001010100001";
+    static final String TINY_TRANSPOSED =
+        "width 5\nheight 5\n\nrows\n4\n2\n1\n2\n2,2\n\ncolumns\n1,2\n2,2\n2\n1,1,1\n1\n";
+}
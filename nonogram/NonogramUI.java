@@ -14,6 +14,7 @@ import java.util.regex.*;
 public class NonogramUI {
 
     private Stack<Assign> Moves;
+    private Stack<NonogramSnapshot> history; // the puzzle before each move, for undo
     // private static final String SAVED = "Nonogram.txt";
 
     /**
@@ -29,6 +30,7 @@ public class NonogramUI {
         }
         puzzle = new Nonogram(fs); //create the new game instance
         Moves = new Stack<Assign>(); //create a stack to track the moves we would make
+        history = new Stack<NonogramSnapshot>();
 
     }
 
@@ -245,6 +247,7 @@ public class NonogramUI {
             System.out.println("invalid user move");
             return;
         }
+        history.push(puzzle.snapshot()); // only the rows changed since the last move are copied
         puzzle.setState(userMove);
 
         Moves.push(userMove); // track the moves
@@ -360,16 +363,7 @@ public class NonogramUI {
         // System.out.println(Moves.peek());
         Moves.pop(); // remove the last item in the stack
         // System.out.println(Moves);
-        Scanner fs = null;
-        try {
-            fs = new Scanner(new File(NGFILE));
-        } catch (FileNotFoundException e) {
-            System.out.println(NGFILE + "not found");
-        }
-        puzzle = new Nonogram(fs);
-        for (Assign moves : Moves) { // loop over the stack and pass the new stack into the game.
-            puzzle.setState(moves);
-        }
+        puzzle.restore(history.pop()); // put back the puzzle as it was before the move
 
     }
 
@@ -408,6 +402,7 @@ public class NonogramUI {
                 String[] values = fscnr.nextLine().split(" ");
                 Assign moves = new Assign(Integer.parseInt(values[0]), Integer.parseInt(values[1]),
                         Integer.parseInt(values[2]));
+                history.push(puzzle.snapshot());
                 puzzle.setState(moves);
                 Moves.push(moves);
 
@@ -0,0 +1,137 @@
+package nonogram;
+
+import java.util.Random;
+
+/**
+ * Generates random Nonogram puzzles (as .non file text) from random goal grids,
+ * e.g. for benchmarks and tests.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class PuzzleGenerator {
+	/**
+	 * Generate a random goal grid of FULL and EMPTY cells. Every row and column is
+	 * given at least one FULL cell, as the .non format used here needs a non-empty
+	 * pattern for each line.
+	 *
+	 * @param numRows the number of rows
+	 * @param numCols the number of columns
+	 * @param density the probability of a cell being FULL
+	 * @param rnd the random number generator
+	 * @return the goal grid
+	 */
+	public static int[][] randomGoal(int numRows, int numCols, double density, Random rnd) {
+		if ((numRows < Nonogram.MIN_SIZE) || (numCols < Nonogram.MIN_SIZE))
+			throw new IllegalArgumentException("grid cannot be smaller than " + Nonogram.MIN_SIZE + "x" + Nonogram.MIN_SIZE);
+		if ((density < 0.0) || (density > 1.0))
+			throw new IllegalArgumentException("density must be 0 <= density <= 1 (" + density + ")");
+		if (rnd == null)
+			throw new IllegalArgumentException("rnd cannot be null");
+		int[][] goal = new int[numRows][numCols];
+		for (int row=0; row<numRows; row++)
+			for (int col=0; col<numCols; col++)
+				goal[row][col] = (rnd.nextDouble() < density) ? Nonogram.FULL : Nonogram.EMPTY;
+		for (int row=0; row<numRows; row++)
+			if (clueFor(goal[row]).length == 0)
+				goal[row][rnd.nextInt(numCols)] = Nonogram.FULL;
+		int[] line = new int[numRows];
+		for (int col=0; col<numCols; col++) {
+			for (int row=0; row<numRows; row++)
+				line[row] = goal[row][col];
+			if (clueFor(line).length == 0)
+				goal[rnd.nextInt(numRows)][col] = Nonogram.FULL;
+		}
+		return goal;
+	}
+
+	/**
+	 * Generate a random puzzle in .non file form
+	 *
+	 * @param numRows the number of rows
+	 * @param numCols the number of columns
+	 * @param density the probability of a cell being FULL
+	 * @param seed the random seed
+	 * @return the puzzle as .non file text
+	 */
+	public static String randomNonFile(int numRows, int numCols, double density, long seed) {
+		return toNonFile(randomGoal(numRows, numCols, density, new Random(seed)));
+	}
+
+	/**
+	 * Convert a goal grid into .non file text, including the goal itself
+	 *
+	 * @param goal the goal grid of FULL and EMPTY cells (every line must contain a FULL cell)
+	 * @return the puzzle as .non file text
+	 */
+	public static String toNonFile(int[][] goal) {
+		if (goal == null)
+			throw new IllegalArgumentException("goal cannot be null");
+		int numRows = goal.length;
+		int numCols = goal[0].length;
+		StringBuffer sb = new StringBuffer();
+		sb.append("width "  + numCols + "\n");
+		sb.append("height " + numRows + "\n");
+		sb.append("\n");
+		sb.append("rows\n");
+		for (int row=0; row<numRows; row++)
+			sb.append(clueForNon(goal[row]) + "\n");
+		sb.append("\n");
+		sb.append("columns\n");
+		int[] line = new int[numRows];
+		for (int col=0; col<numCols; col++) {
+			for (int row=0; row<numRows; row++)
+				line[row] = goal[row][col];
+			sb.append(clueForNon(line) + "\n");
+		}
+		sb.append("\n");
+		sb.append("goal \"");
+		for (int row=0; row<numRows; row++)
+			for (int col=0; col<numCols; col++)
+				sb.append(goal[row][col]);
+		sb.append("\"\n");
+		return sb.toString();
+	}
+
+	/**
+	 * Calculate the pattern of contiguous full cells in a line of cell states
+	 *
+	 * @param line the cell states
+	 * @return the lengths of the blocks of FULL cells (empty if there are none)
+	 */
+	public static int[] clueFor(int[] line) {
+		if (line == null)
+			throw new IllegalArgumentException("line cannot be null");
+		int[] blocks = new int[(line.length + 1) / 2];
+		int   num    = 0;
+		int   run    = 0;
+		for (int i=0; i<=line.length; i++) {
+			if ((i < line.length) && (line[i] == Nonogram.FULL)) {
+				run++;
+			} else if (run > 0) {
+				blocks[num++] = run;
+				run = 0;
+			}
+		}
+		int[] nums = new int[num];
+		System.arraycopy(blocks, 0, nums, 0, num);
+		return nums;
+	}
+
+	/**
+	 * The pattern of contiguous full cells in a line in the form used by a .non file
+	 *
+	 * @param line the cell states
+	 * @return the pattern as a string
+	 */
+	private static String clueForNon(int[] line) {
+		int[] nums = clueFor(line);
+		StringBuffer sb = new StringBuffer();
+		for (int i=0; i<nums.length; i++) {
+			if (i > 0)
+				sb.append(",");
+			sb.append(nums[i]);
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,143 @@
+package nonogram;
+
+import java.util.Arrays;
+
+/**
+ * The cell states of a Nonogram grid held as run lists, one RunLine per row and one
+ * per column, so unknown cells cost nothing and long stretches of EMPTY (or FULL)
+ * cells cost one run each. Suited to very wide, mostly empty puzzles, where the
+ * constraints can also check their lines run by run (see NGPattern).
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+class RunGrid implements Grid {
+	/**
+	 * Constructor, all cells are set to UNKNOWN
+	 *
+	 * @param numRows the number of rows
+	 * @param numCols the number of columns
+	 */
+	RunGrid(int numRows, int numCols) {
+		if (numRows < 1)
+			throw new IllegalArgumentException("numRows must be positive (" + numRows + ")");
+		if (numCols < 1)
+			throw new IllegalArgumentException("numCols must be positive (" + numCols + ")");
+		this.numRows     = numRows;
+		this.numCols     = numCols;
+		this.wordsPerRow = Grid.wordsFor(numCols);
+		this.rows        = new RunLine[numRows];
+		this.cols        = new RunLine[numCols];
+		for (int row=0; row<numRows; row++)
+			rows[row] = new RunLine(numCols);
+		for (int col=0; col<numCols; col++)
+			cols[col] = new RunLine(numRows);
+	}
+
+	@Override
+	public int getNumRows() {
+		return numRows;
+	}
+
+	@Override
+	public int getNumCols() {
+		return numCols;
+	}
+
+	@Override
+	public int getWordsPerRow() {
+		return wordsPerRow;
+	}
+
+	@Override
+	public int getState(int row, int col) {
+		return rows[row].getState(col);
+	}
+
+	@Override
+	public void setState(int row, int col, int state) {
+		rows[row].setState(col, state);
+		cols[col].setState(row, state);
+	}
+
+	@Override
+	public void readRow(int row, byte[] dst) {
+		rows[row].readInto(dst);
+	}
+
+	@Override
+	public void readCol(int col, byte[] dst) {
+		cols[col].readInto(dst);
+	}
+
+	@Override
+	public void readRowWords(int row, long[] dst) {
+		Arrays.fill(dst, 0, 2*wordsPerRow, 0L);
+		RunLine line = rows[row];
+		for (int run=0; run<line.getNumRuns(); run++) {
+			setBits(dst, 0, line.getRunStart(run), line.getRunEnd(run));
+			if (line.getRunState(run) == Nonogram.FULL)
+				setBits(dst, wordsPerRow, line.getRunStart(run), line.getRunEnd(run));
+		}
+	}
+
+	@Override
+	public RunLine getRowRuns(int row) {
+		return rows[row];
+	}
+
+	@Override
+	public RunLine getColRuns(int col) {
+		return cols[col];
+	}
+
+	@Override
+	public void clear() {
+		for (RunLine line : rows)
+			line.clear();
+		for (RunLine line : cols)
+			line.clear();
+	}
+
+	@Override
+	public long sizeInBytes() {
+		long size = 0;
+		for (RunLine line : rows)
+			size += line.sizeInBytes();
+		for (RunLine line : cols)
+			size += line.sizeInBytes();
+		return size;
+	}
+
+	@Override
+	public void flush() {
+		// nothing to do, the grid is not backed by a file
+	}
+
+	/**
+	 * Set a range of bits in a bitplane
+	 *
+	 * @param words the words
+	 * @param base the index of the first word of the row
+	 * @param from the first bit to set
+	 * @param to the bit after the last one to set
+	 */
+	private static void setBits(long[] words, int base, int from, int to) {
+		int first = from >>> 6;
+		int last  = (to - 1) >>> 6;
+		for (int w=first; w<=last; w++) {
+			long mask = -1L;
+			if (w == first)
+				mask &= -1L << from;
+			if (w == last)
+				mask &= -1L >>> (63 - ((to - 1) & 63));
+			words[base + w] |= mask;
+		}
+	}
+
+	private final int       numRows;
+	private final int       numCols;
+	private final int       wordsPerRow;
+	private final RunLine[] rows;
+	private final RunLine[] cols;
+}
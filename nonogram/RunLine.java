@@ -0,0 +1,259 @@
+package nonogram;
+
+import java.util.Arrays;
+
+/**
+ * The cell states of a row or column held as a sorted list of runs, each a maximal
+ * stretch of FULL or EMPTY cells; cells outside every run are UNKNOWN. Memory use
+ * and the cost of NGPattern checks scale with the number of runs rather than the
+ * line length, which suits wide, mostly empty puzzles.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class RunLine {
+	/**
+	 * Constructor, all cells are UNKNOWN
+	 *
+	 * @param length the number of cells in the line
+	 */
+	public RunLine(int length) {
+		if (length < 1)
+			throw new IllegalArgumentException("length must be positive (" + length + ")");
+		this.length = length;
+		this.starts = new int[INITIAL_RUNS];
+		this.ends   = new int[INITIAL_RUNS];
+		this.states = new byte[INITIAL_RUNS];
+	}
+
+	/**
+	 * Constructor from an array of cell states
+	 *
+	 * @param line the cell states
+	 * @param length the number of cells to take from line
+	 */
+	public RunLine(byte[] line, int length) {
+		this(length);
+		if ((line == null) || (line.length < length))
+			throw new IllegalArgumentException("line must be at least " + length + " long");
+		for (int i=0; i<length; i++) {
+			if (!Cell.isValidState(line[i]))
+				throw new IllegalArgumentException("invalid state (" + line[i] + ") in line["+ i +"]");
+			if (line[i] == Nonogram.UNKNOWN)
+				continue;
+			if ((numRuns > 0) && (ends[numRuns-1] == i) && (states[numRuns-1] == line[i]))
+				ends[numRuns-1]++;
+			else
+				insertAt(numRuns, i, i+1, line[i]);
+		}
+	}
+
+	/**
+	 * Retrieve the number of cells in the line
+	 *
+	 * @return the line length
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Retrieve the number of runs of known cells
+	 *
+	 * @return the number of runs
+	 */
+	public int getNumRuns() {
+		return numRuns;
+	}
+
+	/**
+	 * Retrieve the first cell of a run
+	 *
+	 * @param run the run number (not checked)
+	 * @return the position of the first cell
+	 */
+	public int getRunStart(int run) {
+		return starts[run];
+	}
+
+	/**
+	 * Retrieve the position after the last cell of a run
+	 *
+	 * @param run the run number (not checked)
+	 * @return the position after the last cell
+	 */
+	public int getRunEnd(int run) {
+		return ends[run];
+	}
+
+	/**
+	 * Retrieve the state of the cells in a run
+	 *
+	 * @param run the run number (not checked)
+	 * @return the state (FULL or EMPTY)
+	 */
+	public int getRunState(int run) {
+		return states[run];
+	}
+
+	/**
+	 * Retrieve the state of a cell
+	 *
+	 * @param pos the cell position
+	 * @return the cell state
+	 */
+	public int getState(int pos) {
+		if ((pos < 0) || (pos >= length))
+			throw new IllegalArgumentException("pos invalid, must be 0 <= pos < " + length);
+		int run = runsStartingBy(pos) - 1;
+		if ((run >= 0) && (ends[run] > pos))
+			return states[run];
+		return Nonogram.UNKNOWN;
+	}
+
+	/**
+	 * Set the state of a cell, splitting and merging runs as needed
+	 *
+	 * @param pos the cell position
+	 * @param state the new state
+	 */
+	public void setState(int pos, int state) {
+		if ((pos < 0) || (pos >= length))
+			throw new IllegalArgumentException("pos invalid, must be 0 <= pos < " + length);
+		if (!Cell.isValidState(state))
+			throw new IllegalArgumentException("invalid state (" + state + ")");
+		int idx = runsStartingBy(pos);
+		int run = idx - 1;
+		if ((run >= 0) && (ends[run] > pos)) {
+			if (states[run] == state)
+				return;
+			// take pos out of the run that covers it
+			int  start = starts[run];
+			int  end   = ends[run];
+			byte old   = states[run];
+			removeAt(run);
+			idx = run;
+			if (start < pos)
+				insertAt(idx++, start, pos, old);
+			if (pos+1 < end)
+				insertAt(idx, pos+1, end, old);
+		}
+		if (state == Nonogram.UNKNOWN)
+			return;
+		insertAt(idx, pos, pos+1, (byte) state);
+		if ((idx+1 < numRuns) && (starts[idx+1] == pos+1) && (states[idx+1] == state)) {
+			ends[idx] = ends[idx+1];
+			removeAt(idx+1);
+		}
+		if ((idx > 0) && (ends[idx-1] == pos) && (states[idx-1] == state)) {
+			ends[idx-1] = ends[idx];
+			removeAt(idx);
+		}
+	}
+
+	/**
+	 * Set every cell to UNKNOWN
+	 */
+	public void clear() {
+		numRuns = 0;
+	}
+
+	/**
+	 * Copy the cell states into a buffer
+	 *
+	 * @param dst the buffer, at least length() long
+	 */
+	public void readInto(byte[] dst) {
+		if ((dst == null) || (dst.length < length))
+			throw new IllegalArgumentException("dst must be at least " + length + " long");
+		Arrays.fill(dst, 0, length, (byte) Nonogram.UNKNOWN);
+		for (int run=0; run<numRuns; run++)
+			Arrays.fill(dst, starts[run], ends[run], states[run]);
+	}
+
+	/**
+	 * Retrieve the approximate number of bytes used by the runs
+	 *
+	 * @return the size in bytes
+	 */
+	public long sizeInBytes() {
+		return 9L * starts.length;
+	}
+
+	/**
+	 * String representation of the line (the cell state sequence)
+	 *
+	 * @return the string representation
+	 */
+	@Override
+	public String toString() {
+		byte[] line = new byte[length];
+		readInto(line);
+		StringBuffer sb = new StringBuffer(length);
+		for (byte b : line)
+			sb.append(b);
+		return sb.toString();
+	}
+
+	/**
+	 * Count the runs that start at or before a position (binary search)
+	 *
+	 * @param pos the position
+	 * @return the number of runs
+	 */
+	private int runsStartingBy(int pos) {
+		int lo = 0;
+		int hi = numRuns;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (starts[mid] <= pos)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
+	/**
+	 * Insert a run, growing the arrays if necessary
+	 *
+	 * @param idx the run number of the new run
+	 * @param start the first cell
+	 * @param end the position after the last cell
+	 * @param state the state of the cells
+	 */
+	private void insertAt(int idx, int start, int end, byte state) {
+		if (numRuns == starts.length) {
+			starts = Arrays.copyOf(starts, 2*numRuns);
+			ends   = Arrays.copyOf(ends, 2*numRuns);
+			states = Arrays.copyOf(states, 2*numRuns);
+		}
+		System.arraycopy(starts, idx, starts, idx+1, numRuns-idx);
+		System.arraycopy(ends, idx, ends, idx+1, numRuns-idx);
+		System.arraycopy(states, idx, states, idx+1, numRuns-idx);
+		starts[idx] = start;
+		ends[idx]   = end;
+		states[idx] = state;
+		numRuns++;
+	}
+
+	/**
+	 * Remove a run
+	 *
+	 * @param idx the run number
+	 */
+	private void removeAt(int idx) {
+		System.arraycopy(starts, idx+1, starts, idx, numRuns-idx-1);
+		System.arraycopy(ends, idx+1, ends, idx, numRuns-idx-1);
+		System.arraycopy(states, idx+1, states, idx, numRuns-idx-1);
+		numRuns--;
+	}
+
+	private final int length;
+	private int[]     starts  = null;  // first cell of each run
+	private int[]     ends    = null;  // position after the last cell of each run
+	private byte[]    states  = null;  // FULL or EMPTY
+	private int       numRuns = 0;
+
+	private static final int INITIAL_RUNS = 2;
+}
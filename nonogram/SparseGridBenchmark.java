@@ -0,0 +1,63 @@
+package nonogram;
+
+import java.util.Random;
+import java.util.Scanner;
+
+/**
+ * Compares heap (bitplane) and sparse (run list) storage on a wide, mostly empty
+ * puzzle, for grid size and the time to re-check every line once the goal is filled
+ * in. A run costs about 9 bytes against 2 bits per cell for the bitplanes, so the
+ * run lists win once the average run is longer than about 36 cells.
+ * Run with e.g. "java nonogram.SparseGridBenchmark 1000 50000 0.001".
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class SparseGridBenchmark {
+	public static void main(String[] args) {
+		int    rows    = (args.length > 0) ? Integer.parseInt(args[0]) : 1000;
+		int    cols    = (args.length > 1) ? Integer.parseInt(args[1]) : 50000;
+		double density = (args.length > 2) ? Double.parseDouble(args[2]) : 0.001;
+		int[][] cells  = PuzzleGenerator.randomGoal(rows, cols, density, new Random(1L));
+		String  non    = PuzzleGenerator.toNonFile(cells);
+		StringBuffer sb = new StringBuffer(rows*cols);
+		for (int[] row : cells)
+			for (int cell : row)
+				sb.append(cell);
+		String goal = sb.toString();
+		System.out.println("grid " + rows + "x" + cols + ", density " + density);
+
+		for (int rep=0; rep<REPS; rep++) {
+			long heapNanos   = check(new Nonogram(new Scanner(non)), goal);
+			long sparseNanos = check(new Nonogram(new Scanner(non), GridStorage.sparse()), goal);
+			if (rep == REPS-1)
+				System.out.printf("check all lines: heap %8.2f ms, sparse %8.2f ms%n", heapNanos/1e6, sparseNanos/1e6);
+		}
+		Grid heap   = GridStorage.heap().create(rows, cols, 0L);
+		Grid sparse = GridStorage.sparse().create(rows, cols, 0L);
+		for (int row=0; row<rows; row++) {
+			for (int col=0; col<cols; col++) {
+				heap.setState(row, col, cells[row][col]);
+				sparse.setState(row, col, cells[row][col]);
+			}
+		}
+		System.out.printf("grid size:       heap %10d bytes, sparse %10d bytes%n", heap.sizeInBytes(), sparse.sizeInBytes());
+	}
+
+	/**
+	 * Set every cell of the goal, then time checking the puzzle is solved (which re-checks every line)
+	 *
+	 * @param ng the puzzle
+	 * @param goal the goal cell states in row order
+	 * @return the time taken by the check in nanoseconds
+	 */
+	private static long check(Nonogram ng, String goal) {
+		ng.setStatesByString(goal);
+		long start = System.nanoTime();
+		if (!ng.isSolved())
+			throw new IllegalStateException("goal does not solve the puzzle");
+		return System.nanoTime() - start;
+	}
+
+	private static final int REPS = 3;
+}
@@ -0,0 +1,162 @@
+package nonogram.solver;
+
+import nonogram.Nonogram;
+
+/**
+ * Solves within a Budget, for callers that cannot wait for an unbounded solve.
+ * The puzzle is copied (sharing its parsed patterns) and line propagation runs
+ * on the copy until it finishes or the budget runs out; if propagation alone
+ * does not solve it and search is enabled, a SearchSolver carries on with what
+ * is left of the same budget. Every line solve takes one step. The result holds
+ * the status and the cells deduced so far: only sound deductions (a guess made
+ * by an unfinished search is never reported), or the whole solution if one was
+ * found.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class AnytimeSolver {
+	/**
+	 * How a solve ended
+	 */
+	public enum Status {
+		/** every cell is known and the puzzle is solved */
+		SOLVED,
+		/** propagation finished without solving the puzzle (and search was not enabled) */
+		STALLED,
+		/** the step or time limit ran out first */
+		BUDGET_EXHAUSTED,
+		/** the budget's cancellation token was cancelled first */
+		CANCELLED,
+		/** the puzzle has no solution from the starting cell states */
+		CONTRADICTION
+	}
+
+	/**
+	 * The outcome of a solve
+	 */
+	public static class Result {
+		/**
+		 * Constructor
+		 *
+		 * @param status how the solve ended
+		 * @param cells the cell states deduced, by row and column
+		 * @param steps the steps used
+		 */
+		Result(Status status, int[][] cells, long steps) {
+			this.status = status;
+			this.cells  = cells;
+			this.steps  = steps;
+		}
+
+		/**
+		 * Retrieve how the solve ended
+		 *
+		 * @return the status
+		 */
+		public Status getStatus() {
+			return status;
+		}
+
+		/**
+		 * Retrieve the cell states deduced (UNKNOWN where nothing was deduced). After a
+		 * contradiction these are the cells set before it was found, and not reliable.
+		 *
+		 * @return the cell states by row and column
+		 */
+		public int[][] getCells() {
+			return cells;
+		}
+
+		/**
+		 * Retrieve the number of steps (line solves) used
+		 *
+		 * @return the number of steps
+		 */
+		public long getSteps() {
+			return steps;
+		}
+
+		private final Status  status;
+		private final int[][] cells;
+		private final long    steps;
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param ng the puzzle (only read; solving starts from its current cell states)
+	 */
+	public AnytimeSolver(Nonogram ng) {
+		if (ng == null)
+			throw new IllegalArgumentException("ng cannot be null");
+		this.ng = ng;
+	}
+
+	/**
+	 * Carry on with search if propagation alone does not solve the puzzle (off by default)
+	 *
+	 * @param search true to search, false to stop when propagation stalls
+	 */
+	public void setSearch(boolean search) {
+		this.search = search;
+	}
+
+	/**
+	 * Solve within a budget
+	 *
+	 * @param budget the budget (used up by this solve, so not to be reused)
+	 * @return the result
+	 */
+	public Result solve(Budget budget) {
+		if (budget == null)
+			throw new IllegalArgumentException("budget cannot be null");
+		Nonogram   copy = new Nonogram(ng);
+		Propagator prop = new Propagator(copy);
+		prop.setBudget(budget);
+		if (!prop.propagate())
+			return result(Status.CONTRADICTION, copy, budget);
+		if (prop.hasQueued())
+			return result(stopStatus(budget), copy, budget);
+		if (copy.isSolved())
+			return result(Status.SOLVED, copy, budget);
+		if (!search)
+			return result(Status.STALLED, copy, budget);
+
+		SearchSolver searcher = new SearchSolver(prop);
+		if (searcher.solve() != null)
+			return result(Status.SOLVED, copy, budget);
+		if (searcher.isBudgetExhausted())
+			return result(stopStatus(budget), copy, budget); // the search has undone its guesses
+		return result(Status.CONTRADICTION, copy, budget);
+	}
+
+	/**
+	 * The status for a budget that has run out
+	 *
+	 * @param budget the budget
+	 * @return CANCELLED or BUDGET_EXHAUSTED
+	 */
+	private static Status stopStatus(Budget budget) {
+		return budget.isCancelled() ? Status.CANCELLED : Status.BUDGET_EXHAUSTED;
+	}
+
+	/**
+	 * Build a result from the cell states of the working copy
+	 *
+	 * @param status how the solve ended
+	 * @param copy the working copy
+	 * @param budget the budget
+	 * @return the result
+	 */
+	private static Result result(Status status, Nonogram copy, Budget budget) {
+		int[][] cells = new int[copy.getNumRows()][copy.getNumCols()];
+		for (int row=0; row<cells.length; row++)
+			for (int col=0; col<cells[row].length; col++)
+				cells[row][col] = copy.getState(row, col);
+		return new Result(status, cells, budget.getSteps());
+	}
+
+	private final Nonogram ng;
+	private boolean        search = false;
+}
@@ -0,0 +1,146 @@
+package nonogram.solver;
+
+import static org.junit.Assert.*;
+import java.util.Random;
+import java.util.Scanner;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The test class AnytimeSolverTest.
+ *
+ * @author  Daniel Dimuna
+ * @version October 2026
+ */
+public class AnytimeSolverTest
+{
+    /**
+     * Default constructor for test class AnytimeSolverTest
+     */
+    public AnytimeSolverTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+    }
+
+    @Test
+    public void solvesTiny() {
+        Nonogram ng = new Nonogram(new Scanner(PropagatorTest.TINY));
+        AnytimeSolver.Result r = new AnytimeSolver(ng).solve(new Budget(0, 0, null));
+        assertEquals(AnytimeSolver.Status.SOLVED, r.getStatus());
+        assertTrue(r.getSteps() > 0);
+        assertEquals(PropagatorTest.GOAL, cells(r.getCells()));
+        assertEquals(Nonogram.UNKNOWN, ng.getState(0, 0)); // the puzzle passed in is only read
+    }
+
+    @Test
+    public void stepBudgetKeepsSoundDeductions() {
+        Random rnd = new Random(7L);
+        for (int t=0; t<10; t++) {
+            int[][] goal = PuzzleGenerator.randomGoal(20, 20, 0.6, rnd);
+            Nonogram ng = new Nonogram(new Scanner(PuzzleGenerator.toNonFile(goal)));
+            AnytimeSolver.Result full = new AnytimeSolver(ng).solve(new Budget(0, 0, null));
+            if (full.getStatus() != AnytimeSolver.Status.SOLVED)
+                continue; // only puzzles propagation solves, so deductions must match the goal
+            for (long steps=1; steps<full.getSteps(); steps+=7) {
+                AnytimeSolver.Result r = new AnytimeSolver(ng).solve(new Budget(steps, 0, null));
+                assertEquals(AnytimeSolver.Status.BUDGET_EXHAUSTED, r.getStatus());
+                assertEquals(steps, r.getSteps());
+                for (int row=0; row<20; row++)
+                    for (int col=0; col<20; col++)
+                        if (r.getCells()[row][col] != Nonogram.UNKNOWN)
+                            assertEquals(goal[row][col], r.getCells()[row][col]);
+            }
+        }
+    }
+
+    @Test
+    public void stallsWithoutSearch() {
+        Nonogram ng = new Nonogram(new Scanner(ParallelSearchSolverTest.PERMUTATIONS));
+        AnytimeSolver solver = new AnytimeSolver(ng);
+        assertEquals(AnytimeSolver.Status.STALLED, solver.solve(new Budget(0, 0, null)).getStatus());
+        solver.setSearch(true);
+        AnytimeSolver.Result r = solver.solve(new Budget(0, 0, null));
+        assertEquals(AnytimeSolver.Status.SOLVED, r.getStatus());
+        assertFalse(cells(r.getCells()).contains("" + Nonogram.UNKNOWN));
+    }
+
+    @Test
+    public void reportsContradiction() {
+        Nonogram ng = new Nonogram(new Scanner(PropagatorTest.TINY));
+        ng.setState(0, 0, Nonogram.EMPTY); // goal has FULL here, and tiny has a unique solution
+        AnytimeSolver solver = new AnytimeSolver(ng);
+        solver.setSearch(true);
+        assertEquals(AnytimeSolver.Status.CONTRADICTION, solver.solve(new Budget(0, 0, null)).getStatus());
+    }
+
+    @Test
+    public void stopsOnCancelledToken() {
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        Nonogram ng = new Nonogram(new Scanner(PropagatorTest.TINY));
+        AnytimeSolver.Result r = new AnytimeSolver(ng).solve(new Budget(token));
+        assertEquals(AnytimeSolver.Status.CANCELLED, r.getStatus());
+        assertEquals(0, r.getSteps());
+    }
+
+    @Test
+    public void timeLimitStopsSearch() {
+        Nonogram ng = new Nonogram(new Scanner(PuzzleGenerator.randomNonFile(30, 30, 0.5, 1L))); // needs a long search
+        AnytimeSolver solver = new AnytimeSolver(ng);
+        solver.setSearch(true);
+        long t0 = System.nanoTime();
+        AnytimeSolver.Result r = solver.solve(new Budget(0, 20, null));
+        assertTrue((System.nanoTime() - t0) / 1000000 < 1000);
+        assertEquals(AnytimeSolver.Status.BUDGET_EXHAUSTED, r.getStatus());
+    }
+
+    @Test
+    public void budgetCountsSteps() {
+        Budget budget = new Budget(100, 0, null);
+        int taken = 0;
+        while (budget.step())
+            taken++;
+        assertEquals(100, taken);
+        assertEquals(100, budget.getSteps());
+        assertFalse(budget.step());
+        assertEquals(100, budget.getSteps());
+        assertTrue(budget.isExhausted());
+        assertFalse(budget.isCancelled());
+    }
+
+    /**
+     * Flatten cell states into a string, rows first
+     *
+     * @param cells the cell states by row and column
+     * @return the states as digits
+     */
+    private static String cells(int[][] cells) {
+        StringBuilder sb = new StringBuilder();
+        for (int[] row : cells)
+            for (int state : row)
+                sb.append(state);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,215 @@
+package nonogram.solver;
+
+import nonogram.NGPattern;
+import nonogram.Nonogram;
+
+/**
+ * A complete line solver for lines of at most 64 cells, working on the whole line
+ * at once as long bit masks (bit i is cell i). It runs the same prefix/suffix
+ * feasibility recurrence as DPLineSolver, but each table row is a single mask:
+ * a block is placed at every feasible start with one AND against a "no EMPTY
+ * cell under the block" mask, and the gaps after the blocks are filled with a
+ * carry-propagation add across the runs of non-FULL cells. The suffix tables are
+ * the prefix tables of the reversed line and pattern. A line costs
+ * O(k*log(maxBlock)) word operations instead of O(n*k) cell steps. The tables are
+ * kept between calls, so an instance should not be shared between threads.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class BitLineSolver implements LineSolver {
+	@Override
+	public boolean isComplete() {
+		return true;
+	}
+
+	@Override
+	public boolean solve(NGPattern pat, byte[] line) {
+		int n = pat.getMaxLen();
+		if (n > MAX_LEN)
+			throw new IllegalArgumentException("pattern too long for BitLineSolver, maxLen must be <= " + MAX_LEN);
+		int k = pat.getNumBlocks();
+		ensureCapacity(k);
+		long all  = (n == 64) ? -1L : (1L << n) - 1;
+		long full = 0, empty = 0;
+		for (int i=0; i<n; i++) {
+			if (line[i] == Nonogram.FULL)
+				full  |= 1L << i;
+			else if (line[i] == Nonogram.EMPTY)
+				empty |= 1L << i;
+		}
+		for (int j=0; j<k; j++) {
+			nums[j]        = pat.getNum(j);
+			revNums[k-1-j] = nums[j];
+		}
+
+		// fwd[j] bit i: blocks 0..j-1 fit in cells 0..i (bwd is the same for the reversed line)
+		long notFull  = all & ~full;
+		long notEmpty = all & ~empty;
+		if (!prefix(fwd, nums, k, notFull, notEmpty, all))
+			return false;
+		prefix(bwd, revNums, k, reverse(notFull, n), reverse(notEmpty, n), all);
+
+		// cells that can be EMPTY: some j has blocks 0..j-1 before the cell and j..k-1 after it
+		long canEmpty = 0;
+		for (int j=0; j<=k; j++)
+			canEmpty |= before(fwd, j) & reverse(before(bwd, k-j), n);
+		canEmpty &= notFull;
+
+		// cells that can be FULL: covered by a feasible placement of some block
+		long canFull = 0;
+		for (int j=0; j<k; j++) {
+			int  len    = nums[j];
+			long starts = starts(fwd, j, notFull) & runsOf(notEmpty, len);
+			// after the block: an EMPTY-able cell with blocks j+1..k-1 beyond it, or the end of the line
+			long after  = reverse(before(bwd, k-1-j) & reverse(notFull, n), n) >>> len;
+			if (j == k-1)
+				after |= 1L << (n - len);
+			canFull |= spread(starts & after, len);
+		}
+
+		long unknown = all & ~full & ~empty;
+		long toFull  = unknown & ~canEmpty;
+		long toEmpty = unknown & ~canFull;
+		while (toFull != 0) {
+			line[Long.numberOfTrailingZeros(toFull)] = Nonogram.FULL;
+			toFull &= toFull - 1;
+		}
+		while (toEmpty != 0) {
+			line[Long.numberOfTrailingZeros(toEmpty)] = Nonogram.EMPTY;
+			toEmpty &= toEmpty - 1;
+		}
+		return true;
+	}
+
+	/**
+	 * Fill a prefix feasibility table: tab[j] bit i is set if blocks 0..j-1 fit in cells 0..i
+	 *
+	 * @param tab the table to fill (k+1 entries)
+	 * @param nums the block lengths
+	 * @param k the number of blocks
+	 * @param notFull the cells that are not FULL
+	 * @param notEmpty the cells that are not EMPTY
+	 * @param all the cells of the line
+	 * @return true if all the blocks fit in the line
+	 */
+	private static boolean prefix(long[] tab, int[] nums, int k, long notFull, long notEmpty, long all) {
+		long full = all & ~notFull;
+		tab[0] = (full == 0) ? all : Long.lowestOneBit(full) - 1; // the cells before the first FULL cell
+		for (int j=0; j<k; j++) {
+			int  len  = nums[j];
+			long ends = (starts(tab, j, notFull) & runsOf(notEmpty, len)) << (len - 1);
+			tab[j+1]  = ends | fill(ends, notFull);
+		}
+		return (tab[k] & Long.highestOneBit(all)) != 0;
+	}
+
+	/**
+	 * The cells where block j can start, given the prefix table for the blocks before it
+	 *
+	 * @param tab the prefix table
+	 * @param j the block
+	 * @param notFull the cells that are not FULL
+	 * @return the possible start cells of block j (ignoring the cells it covers)
+	 */
+	private static long starts(long[] tab, int j, long notFull) {
+		return (before(tab, j) & notFull) << 1 | ((j == 0) ? 1L : 0L);
+	}
+
+	/**
+	 * The cells that can have exactly blocks 0..j-1 entirely before them
+	 *
+	 * @param tab the prefix table
+	 * @param j the number of blocks
+	 * @return bit i set if blocks 0..j-1 fit in cells 0..i-1
+	 */
+	private static long before(long[] tab, int j) {
+		return tab[j] << 1 | ((j == 0) ? 1L : 0L);
+	}
+
+	/**
+	 * The cells reachable after the seed cells, stepping one cell at a time over cells that are
+	 * not FULL. Adding the first cell of each run of non-FULL cells to the run with its reached
+	 * cells cleared carries up to the first reached cell, which marks the unreachable part.
+	 *
+	 * @param seeds the seed cells
+	 * @param notFull the cells that are not FULL
+	 * @return the cells reachable after the seeds
+	 */
+	private static long fill(long seeds, long notFull) {
+		long first     = (seeds << 1) & notFull;
+		long rest      = notFull & ~first;
+		long runStarts = notFull & ~(notFull << 1);
+		long unreached = ((rest + runStarts) ^ rest) & rest;
+		return notFull & ~unreached;
+	}
+
+	/**
+	 * The cells starting a run of len cells that are all in a mask
+	 *
+	 * @param mask the cells
+	 * @param len the run length
+	 * @return bit i set if cells i..i+len-1 are all in mask
+	 */
+	private static long runsOf(long mask, int len) {
+		long runs = mask;
+		for (int have=1; have<len; ) {
+			int step = Math.min(have, len - have);
+			runs &= runs >>> step;
+			have += step;
+		}
+		return runs;
+	}
+
+	/**
+	 * The cells covered by blocks of len cells starting at each set bit
+	 *
+	 * @param starts the block starts
+	 * @param len the block length
+	 * @return the covered cells
+	 */
+	private static long spread(long starts, int len) {
+		long cover = starts;
+		for (int have=1; have<len; ) {
+			int step = Math.min(have, len - have);
+			cover |= cover << step;
+			have += step;
+		}
+		return cover;
+	}
+
+	/**
+	 * Reverse the first n bits of a mask
+	 *
+	 * @param mask the mask
+	 * @param n the number of bits
+	 * @return the mask with bit i moved to bit n-1-i
+	 */
+	private static long reverse(long mask, int n) {
+		return Long.reverse(mask) >>> (64 - n);
+	}
+
+	/**
+	 * Grow the tables if needed for a pattern
+	 *
+	 * @param k the number of blocks
+	 */
+	private void ensureCapacity(int k) {
+		if (fwd.length < k + 1) {
+			fwd     = new long[k + 1];
+			bwd     = new long[k + 1];
+			nums    = new int[k];
+			revNums = new int[k];
+		}
+	}
+
+	/**
+	 * The longest line this solver handles
+	 */
+	public static final int MAX_LEN = 64;
+
+	private long[] fwd     = new long[0]; // fwd[j] bit i: blocks 0..j-1 fit in cells 0..i
+	private long[] bwd     = new long[0]; // as fwd, for the reversed line and pattern
+	private int[]  nums    = new int[0];  // the block lengths of the pattern
+	private int[]  revNums = new int[0];  // the block lengths in reverse order
+}
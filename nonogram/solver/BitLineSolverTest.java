@@ -0,0 +1,71 @@
+package nonogram.solver;
+
+import static org.junit.Assert.*;
+import nonogram.NGPattern;
+import nonogram.Nonogram;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The test class BitLineSolverTest.
+ *
+ * @author  Daniel Dimuna
+ * @version October 2026
+ */
+public class BitLineSolverTest
+{
+    /**
+     * Default constructor for test class BitLineSolverTest
+     */
+    public BitLineSolverTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+    }
+
+    @Test
+    public void matchesDPLineSolver() {
+        DPLineSolverTest.checkAgainst(new DPLineSolver(), new BitLineSolver(), 5, 64, 5000);
+    }
+
+    @Test
+    public void fullWidthLines() {
+        DPLineSolverTest.checkAgainst(new DPLineSolver(), new BitLineSolver(), 60, 64, 2000);
+    }
+
+    @Test
+    public void hybridMatchesDPLineSolver() {
+        DPLineSolverTest.checkAgainst(new DPLineSolver(), new HybridLineSolver(), 5, 130, 1000);
+    }
+
+    @Test
+    public void reportsContradiction() {
+        NGPattern pat = new NGPattern(new int[] {2, 1}, 5);
+        byte[] line = {Nonogram.FULL, Nonogram.EMPTY, Nonogram.UNKNOWN, Nonogram.UNKNOWN, Nonogram.UNKNOWN};
+        assertFalse(new BitLineSolver().solve(pat, line));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsLongLines() {
+        new BitLineSolver().solve(new NGPattern(new int[] {1}, 65), new byte[65]);
+    }
+}
@@ -0,0 +1,108 @@
+package nonogram.solver;
+
+/**
+ * A limit on the work a solver may do: a number of steps (line solves), a time
+ * limit, a cancellation token, or any combination. step() is called once per
+ * step in the solver's inner loop, so it only compares a counter; the step
+ * limit, the token and the clock are checked every CHECK_INTERVAL steps, which
+ * keeps the volatile read and System.nanoTime() off the common path. A budget
+ * is used by one solver at a time, and once it has run out it stays run out.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class Budget {
+	/**
+	 * Constructor. The time limit starts now.
+	 *
+	 * @param maxSteps the number of steps allowed (0 for no limit)
+	 * @param maxMillis the time allowed in milliseconds (0 for no limit)
+	 * @param token the token to stop on (null for none)
+	 */
+	public Budget(long maxSteps, long maxMillis, CancellationToken token) {
+		if (maxSteps < 0)
+			throw new IllegalArgumentException("maxSteps cannot be negative");
+		if (maxMillis < 0)
+			throw new IllegalArgumentException("maxMillis cannot be negative");
+		this.maxSteps = (maxSteps == 0) ? Long.MAX_VALUE : maxSteps;
+		this.deadline = (maxMillis == 0) ? 0 : System.nanoTime() + maxMillis * 1000000L;
+		this.token    = token;
+		this.check    = 1; // check the limits on the first step
+	}
+
+	/**
+	 * Constructor for a budget that only stops on a cancellation token
+	 *
+	 * @param token the token to stop on
+	 */
+	public Budget(CancellationToken token) {
+		this(0, 0, token);
+	}
+
+	/**
+	 * Count a step, and check whether the budget allows it
+	 *
+	 * @return true if the step may be taken, false if the budget has run out
+	 */
+	public boolean step() {
+		if (++steps < check)
+			return true;
+		return checkLimits();
+	}
+
+	/**
+	 * Has the budget run out (steps, time, or cancellation)?
+	 *
+	 * @return true if it has run out, otherwise false
+	 */
+	public boolean isExhausted() {
+		return exhausted;
+	}
+
+	/**
+	 * Did the budget run out because its token was cancelled?
+	 *
+	 * @return true if it was cancelled, otherwise false
+	 */
+	public boolean isCancelled() {
+		return exhausted && (token != null) && token.isCancelled();
+	}
+
+	/**
+	 * Retrieve the number of steps counted so far
+	 *
+	 * @return the number of steps taken (steps refused once the budget ran out are not counted)
+	 */
+	public long getSteps() {
+		return steps;
+	}
+
+	/**
+	 * Check the step limit, the token and the clock, and set when to check next
+	 *
+	 * @return true if the budget allows the step, otherwise false
+	 */
+	private boolean checkLimits() {
+		if (exhausted || (steps > maxSteps) || ((token != null) && token.isCancelled())
+				|| ((deadline != 0) && (System.nanoTime() - deadline > 0))) {
+			exhausted = true;
+			steps--;
+			check     = 0; // check (and refuse) every step from now on
+			return false;
+		}
+		check = (maxSteps - steps > CHECK_INTERVAL) ? steps + CHECK_INTERVAL : maxSteps + 1;
+		return true;
+	}
+
+	/**
+	 * The number of steps between checks of the token and the clock
+	 */
+	public static final int CHECK_INTERVAL = 64;
+
+	private final long              maxSteps;
+	private final long              deadline;   // System.nanoTime() to stop at (0 for none)
+	private final CancellationToken token;
+	private long                    steps     = 0;
+	private long                    check;      // the step count at which to check the limits next
+	private boolean                 exhausted = false;
+}
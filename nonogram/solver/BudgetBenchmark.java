@@ -0,0 +1,58 @@
+package nonogram.solver;
+
+import java.util.Random;
+import java.util.Scanner;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+
+/**
+ * Measures the cost of checking a Budget in the propagation loop: the same
+ * random puzzles (dense enough that propagation does most of the work) are
+ * solved by SearchSolver with no budget and with a budget that never runs out
+ * (a time limit and a token, both checked), alternating between the two so
+ * drift in the machine affects both alike.
+ * Run with "java nonogram.solver.BudgetBenchmark".
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class BudgetBenchmark {
+	public static void main(String[] args) {
+		Random   rnd   = new Random(3L);
+		String[] files = new String[PUZZLES];
+		for (int i=0; i<PUZZLES; i++)
+			files[i] = PuzzleGenerator.toNonFile(PuzzleGenerator.randomGoal(SIZE, SIZE, 0.6, rnd));
+		double plain = 0, budgeted = 0;
+		long   steps = 0;
+		for (int pass=0; pass<PASSES; pass++) { // the first pass is warm-up
+			double p = 0, b = 0;
+			steps = 0;
+			for (String file : files) {
+				Nonogram ng = new Nonogram(new Scanner(file));
+				long t0 = System.nanoTime();
+				new SearchSolver(ng).solve();
+				p += (System.nanoTime() - t0) / 1e6;
+
+				ng = new Nonogram(new Scanner(file));
+				Propagator prop   = new Propagator(ng);
+				Budget     budget = new Budget(0, 3600000, new CancellationToken());
+				prop.setBudget(budget);
+				t0 = System.nanoTime();
+				new SearchSolver(prop).solve();
+				b += (System.nanoTime() - t0) / 1e6;
+				steps += budget.getSteps();
+			}
+			if (pass > 0) {
+				plain    += p;
+				budgeted += b;
+			}
+		}
+		System.out.printf("%d puzzles %dx%d, %d line solves each pass%n", PUZZLES, SIZE, SIZE, steps);
+		System.out.printf("no budget  %8.1f ms%n", plain / (PASSES - 1));
+		System.out.printf("budget     %8.1f ms  (%+.1f%%)%n", budgeted / (PASSES - 1), 100 * (budgeted - plain) / plain);
+	}
+
+	private static final int SIZE    = 30;
+	private static final int PUZZLES = 200;
+	private static final int PASSES  = 6;
+}
@@ -0,0 +1,105 @@
+package nonogram.solver;
+
+import nonogram.NGPattern;
+import nonogram.Nonogram;
+
+/**
+ * A line solver that looks each line of up to 64 cells up in a LineCache before
+ * solving it with another line solver, and stores what that solver deduces. The
+ * cache can be shared between threads, but the solver itself (and the solver it
+ * wraps) keeps scratch space, so each thread needs its own CachingLineSolver.
+ * Longer lines go straight to the wrapped solver. The cache does not record which
+ * solver made a result, so only complete solvers may use the shared cache, and a
+ * cache of an incomplete solver must not be shared with other solvers.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class CachingLineSolver implements LineSolver {
+	/**
+	 * Constructor using the shared cache and the default line solver
+	 */
+	public CachingLineSolver() {
+		this(LineCache.shared(), new HybridLineSolver());
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param cache the cache
+	 * @param solver the line solver to use on a miss (complete if the cache is the shared one)
+	 */
+	public CachingLineSolver(LineCache cache, LineSolver solver) {
+		if (cache == null)
+			throw new IllegalArgumentException("cache cannot be null");
+		if (solver == null)
+			throw new IllegalArgumentException("solver cannot be null");
+		if (cache.isShared() && !solver.isComplete())
+			throw new IllegalArgumentException("solver must be complete to use the shared cache");
+		this.cache  = cache;
+		this.solver = solver;
+	}
+
+	@Override
+	public boolean solve(NGPattern pat, byte[] line) {
+		int n = pat.getMaxLen();
+		if (n > MAX_LEN)
+			return solver.solve(pat, line);
+		long known = 0, full = 0;
+		for (int i=0; i<n; i++) {
+			if (line[i] != Nonogram.UNKNOWN)
+				known |= 1L << i;
+			if (line[i] == Nonogram.FULL)
+				full  |= 1L << i;
+		}
+		if (!cache.get(pat.getId(), known, full, result)) {
+			boolean ok = solver.solve(pat, line);
+			long outKnown = 0, outFull = CONTRADICTION_FULL;
+			if (ok) {
+				outFull = 0;
+				for (int i=0; i<n; i++) {
+					if (line[i] != Nonogram.UNKNOWN)
+						outKnown |= 1L << i;
+					if (line[i] == Nonogram.FULL)
+						outFull  |= 1L << i;
+				}
+			}
+			cache.put(pat.getId(), known, full, outKnown, outFull);
+			return ok;
+		}
+		if ((result[1] & ~result[0]) != 0) // FULL cells that are not known mark a contradiction
+			return false;
+		long set = result[0] & ~known;
+		while (set != 0) {
+			int i = Long.numberOfTrailingZeros(set);
+			line[i] = (byte) (((result[1] >>> i) & 1) != 0 ? Nonogram.FULL : Nonogram.EMPTY);
+			set &= set - 1;
+		}
+		return true;
+	}
+
+	@Override
+	public boolean isComplete() {
+		return solver.isComplete();
+	}
+
+	/**
+	 * Retrieve the cache
+	 *
+	 * @return the cache
+	 */
+	public LineCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * The longest line that is cached
+	 */
+	public static final int MAX_LEN = 64;
+
+	private static final long CONTRADICTION_FULL = -1L; // stored as the FULL cells (with no known cells) of a contradiction
+
+	private final LineCache  cache;
+	private final LineSolver solver;
+	private final long[]     result = new long[2]; // scratch for cache hits
+}
@@ -0,0 +1,30 @@
+package nonogram.solver;
+
+/**
+ * A flag one thread sets to ask work running in other threads to stop. The
+ * work polls it (see Budget) and stops at its next check, so a token can be
+ * shared by several computations and cancelled once for all of them. A
+ * cancelled token stays cancelled.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class CancellationToken {
+	/**
+	 * Ask the work polling this token to stop
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Has the token been cancelled?
+	 *
+	 * @return true if it has been cancelled, otherwise false
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	private volatile boolean cancelled = false;
+}
@@ -0,0 +1,117 @@
+package nonogram.solver;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.LinkedBlockingQueue;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+
+/**
+ * Measures how long ConsistencyChecker takes to report after a move. For each
+ * random puzzle a player sets cells in a random order, mostly to the state they
+ * have in the puzzle's goal, but now and then to the wrong state, which the
+ * next move takes back. Each move waits for its verdict, and the times from
+ * update() to the first report (which is UNKNOWN if the check runs past
+ * REPORT_MILLIS) and to the verdict are recorded, as is the time the checker
+ * takes to encode the clues and make its first solves. Sparser puzzles are the
+ * hard ones: they often have many solutions, so fewer moves are settled
+ * without a solve.
+ * Run with "java nonogram.solver.ConsistencyBenchmark".
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class ConsistencyBenchmark {
+	public static void main(String[] args) throws InterruptedException {
+		for (double density : DENSITIES) {
+			Random rnd = new Random(5L);
+			for (int pass=0; pass<PASSES; pass++) { // only the last pass is reported
+				double[] lat   = new double[PUZZLES * MOVES];
+				double[] done  = new double[PUZZLES * MOVES];
+				double   init  = 0, initMax = 0;
+				long     solves = 0, dead = 0;
+				int      n = 0;
+				for (int p=0; p<PUZZLES; p++) {
+					int[][]  goal = PuzzleGenerator.randomGoal(SIZE, SIZE, density, rnd);
+					Nonogram ng   = new Nonogram(new Scanner(PuzzleGenerator.toNonFile(goal)));
+					LinkedBlockingQueue<ConsistencyChecker.Verdict> verdicts = new LinkedBlockingQueue<ConsistencyChecker.Verdict>();
+					ConsistencyChecker checker = new ConsistencyChecker(ng, Runnable::run, verdicts::add);
+
+					// the first update waits for the first solves
+					long t0 = System.nanoTime();
+					checker.update(ng);
+					while (verdicts.take() == ConsistencyChecker.Verdict.UNKNOWN)
+						;
+					double ms = (System.nanoTime() - t0) / 1e6;
+					init   += ms;
+					initMax = Math.max(initMax, ms);
+
+					int[] order = new int[SIZE * SIZE];
+					for (int i=0; i<order.length; i++)
+						order[i] = i;
+					for (int i=order.length-1; i>0; i--) {
+						int j = rnd.nextInt(i + 1), t = order[i];
+						order[i] = order[j];
+						order[j] = t;
+					}
+					int wrong = -1;
+					for (int m=0; m<MOVES; m++) {
+						if (wrong >= 0) { // take back the wrong move
+							ng.setState(wrong / SIZE, wrong % SIZE, Nonogram.UNKNOWN);
+							wrong = -1;
+						} else {
+							int cell  = order[m];
+							int state = goal[cell / SIZE][cell % SIZE];
+							if (rnd.nextDouble() < WRONG) {
+								state = Nonogram.FULL + Nonogram.EMPTY - state;
+								wrong = cell;
+							}
+							ng.setState(cell / SIZE, cell % SIZE, state);
+						}
+						t0 = System.nanoTime();
+						checker.update(ng);
+						ConsistencyChecker.Verdict v = verdicts.take();
+						lat[n] = (System.nanoTime() - t0) / 1e6;
+						while (v == ConsistencyChecker.Verdict.UNKNOWN)
+							v = verdicts.take();
+						done[n++] = (System.nanoTime() - t0) / 1e6;
+						if (v == ConsistencyChecker.Verdict.UNSOLVABLE)
+							dead++;
+					}
+					solves += checker.getSolves();
+					checker.shutdown();
+				}
+				if (pass < PASSES - 1)
+					continue;
+				System.out.printf("%d puzzles %dx%d density %.1f: first solves %.1f ms mean, %.1f ms max%n",
+				                  PUZZLES, SIZE, SIZE, density, init / PUZZLES, initMax);
+				System.out.printf("  %d moves, %d solves, %d dead ends%n", n, solves, dead);
+				report("first report", lat, n);
+				report("verdict", done, n);
+			}
+		}
+	}
+
+	/**
+	 * Print the mean, 99th percentile and maximum of some times
+	 *
+	 * @param what what was timed
+	 * @param ms the times, in milliseconds (sorted here)
+	 * @param n the number of times
+	 */
+	private static void report(String what, double[] ms, int n) {
+		Arrays.sort(ms, 0, n);
+		double sum = 0;
+		for (int i=0; i<n; i++)
+			sum += ms[i];
+		System.out.printf("  %-12s %7.2f ms mean, %7.2f ms p99, %8.2f ms max%n", what, sum / n, ms[(int) (0.99 * (n - 1))], ms[n - 1]);
+	}
+
+	private static final double[] DENSITIES = { 0.6, 0.5 };
+	private static final int      SIZE      = 30;
+	private static final int      PUZZLES   = 20;
+	private static final int      MOVES     = 300;
+	private static final double   WRONG     = 0.1;   // chance of a wrong move
+	private static final int      PASSES    = 2;
+}
@@ -0,0 +1,394 @@
+package nonogram.solver;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import nonogram.Nonogram;
+
+/**
+ * Decides, off the thread the player's moves are made on, whether the player's
+ * grid can still be completed to a solution. A mistake can leave every line
+ * valid on its own and still rule out every solution; this finds it.
+ * The clues are encoded once, on a background thread, into a SatSolver, which
+ * finds a first solution and then whether there is another. After each move
+ * update() is called with the player's grid, the check for the grid before is
+ * cancelled, and the verdict is handed to a listener through a delivery executor
+ * (e.g. SwingUtilities::invokeLater), unless the player has moved again in the
+ * meantime.
+ * Work is reused between moves. A grid that agrees with a known solution can be
+ * completed, and if the puzzle is unique, a grid that does not agree with it
+ * cannot, so neither needs a solve. A grid that keeps every cell of a grid found
+ * to be a dead end is one too. Otherwise the SAT solver is asked for a solution
+ * with the player's cells assumed, keeping what it has learnt (clauses,
+ * activities and saved states) from the solves before, and a solution it finds
+ * becomes the known solution for the moves after.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class ConsistencyChecker {
+	/**
+	 * Whether a grid can be completed
+	 */
+	public enum Verdict {
+		/** the grid can be completed to a solution */
+		SOLVABLE,
+		/** no solution has the grid's cells */
+		UNSOLVABLE,
+		/** not decided within REPORT_MILLIS (the verdict follows) or at all */
+		UNKNOWN
+	}
+
+	/**
+	 * Constructor, starting the encoding and the first solves on the background thread
+	 *
+	 * @param ng the puzzle (only its clues are used)
+	 * @param deliver the executor to hand verdicts to the listener through (e.g. SwingUtilities::invokeLater)
+	 * @param listener called with the verdict for the latest grid
+	 */
+	public ConsistencyChecker(Nonogram ng, Executor deliver, Consumer<Verdict> listener) {
+		if (ng == null)
+			throw new IllegalArgumentException("ng cannot be null");
+		if (deliver == null)
+			throw new IllegalArgumentException("deliver cannot be null");
+		if (listener == null)
+			throw new IllegalArgumentException("listener cannot be null");
+		this.deliver  = deliver;
+		this.listener = listener;
+		this.executor = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "consistency");
+			t.setDaemon(true);
+			return t;
+		});
+		Nonogram clues = new Nonogram(ng);
+		executor.execute(() -> init(clues));
+	}
+
+	/**
+	 * Start checking the player's grid, cancelling the check of the grid before. Only the grid's
+	 * cell states are copied here, so this is cheap enough to call after every move on the thread
+	 * the moves are made on.
+	 *
+	 * @param grid the player's puzzle (only read, and only during this call)
+	 */
+	public synchronized void update(Nonogram grid) {
+		if (grid == null)
+			throw new IllegalArgumentException("grid cannot be null");
+		if (token != null)
+			token.cancel();
+		token  = null;
+		latest = null;
+		long    ver = ++version;
+		int[][] now = new int[grid.getNumRows()][grid.getNumCols()];
+		for (int row=0; row<now.length; row++)
+			for (int col=0; col<now[row].length; col++)
+				now[row][col] = grid.getState(row, col);
+		Verdict v = known(now);
+		if (v != null) {
+			post(ver, v);
+			return;
+		}
+		if (!ready)
+			post(ver, Verdict.UNKNOWN); // the first solves are still running, so the check has to wait for them
+		CancellationToken tok = new CancellationToken();
+		token = tok;
+		try {
+			executor.execute(() -> check(ver, now, tok));
+		} catch (RejectedExecutionException e) {
+			// shut down, so there are no more checks
+		}
+	}
+
+	/**
+	 * Retrieve the verdict for the grid of the last update()
+	 *
+	 * @return the verdict, or null if the check is still running
+	 */
+	public synchronized Verdict getLatest() {
+		return latest;
+	}
+
+	/**
+	 * Retrieve the number of SAT solves made to check grids (not counting the first solves)
+	 *
+	 * @return the number of solves
+	 */
+	public synchronized long getSolves() {
+		return solves;
+	}
+
+	/**
+	 * Stop the background thread (the checker cannot be used afterwards)
+	 */
+	public synchronized void shutdown() {
+		if (token != null)
+			token.cancel();
+		stop.cancel();
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Make the first solves on the background thread, then mark the checker ready however they end
+	 *
+	 * @param clues a copy of the puzzle
+	 */
+	private void init(Nonogram clues) {
+		try {
+			solveClues(clues);
+		} finally {
+			synchronized (this) {
+				ready = true;
+			}
+		}
+	}
+
+	/**
+	 * Encode the clues, find a first solution, and find out whether it is the only one
+	 *
+	 * @param clues a copy of the puzzle
+	 */
+	private void solveClues(Nonogram clues) {
+		this.clues = clues;
+		sat     = new SatSolver();
+		cellVar = SatNonogramSolver.encode(sat, clues);
+
+		// the cells line propagation settles hold in every solution, and save the SAT solver finding them
+		int[][] blank = new int[cellVar.length][cellVar[0].length];
+		for (int[] row : blank)
+			Arrays.fill(row, Nonogram.UNKNOWN);
+		int[][] settled = propagate(blank, new Budget(stop));
+		if (settled == null) {
+			if (!stop.isCancelled())
+				synchronized (this) {
+					noSolution = true;
+				}
+			return;
+		}
+		for (int row=0; row<settled.length; row++)
+			for (int col=0; col<settled[row].length; col++)
+				if (settled[row][col] != Nonogram.UNKNOWN)
+					sat.addClause((settled[row][col] == Nonogram.FULL) ? cellVar[row][col] : -cellVar[row][col]);
+		sat.setBudget(new Budget(stop));
+		if (!sat.solve()) {
+			if (!stop.isCancelled())
+				synchronized (this) {
+					noSolution = true;
+				}
+			return;
+		}
+		int[][] first = model();
+		addWitness(first);
+
+		// another solution must differ in some cell; a selector variable switches the clause off after
+		int   numCells = cellVar.length * cellVar[0].length;
+		int[] differ   = new int[numCells + 1];
+		int   select   = sat.newVar();
+		differ[0] = -select;
+		for (int row=0; row<cellVar.length; row++)
+			for (int col=0; col<cellVar[row].length; col++)
+				differ[1 + row*cellVar[row].length + col] = (first[row][col] == Nonogram.FULL) ? -cellVar[row][col] : cellVar[row][col];
+		sat.addClause(differ);
+		if (sat.solve(select))
+			addWitness(model());
+		else if (!stop.isCancelled())
+			synchronized (this) {
+				unique = true;
+			}
+		sat.addClause(-select);
+	}
+
+	/**
+	 * Check a grid with the SAT solver (on the background thread) and post the verdict
+	 *
+	 * @param ver the version of the player's grid
+	 * @param now the player's grid
+	 * @param tok the cancellation token of this check
+	 */
+	private void check(long ver, int[][] now, CancellationToken tok) {
+		Verdict v;
+		synchronized (this) {
+			if (ver != version)
+				return;
+			v = known(now); // the first solves may have settled it
+		}
+		if (v != null) {
+			post(ver, v);
+			return;
+		}
+
+		// line propagation finds most dead ends, and the cells it deduces are assumed as well
+		Budget  budget  = new Budget(0, REPORT_MILLIS, tok);
+		int[][] deduced = propagate(now, budget);
+		boolean found   = false;
+		if (deduced != null) {
+			int[] assume = new int[now.length * now[0].length];
+			int   n      = 0;
+			for (int row=0; row<deduced.length; row++)
+				for (int col=0; col<deduced[row].length; col++)
+					if (deduced[row][col] != Nonogram.UNKNOWN)
+						assume[n++] = (deduced[row][col] == Nonogram.FULL) ? cellVar[row][col] : -cellVar[row][col];
+			assume = Arrays.copyOf(assume, n);
+			sat.setBudget(budget);
+			found = sat.solve(assume);
+			if (!found && budget.isExhausted() && !budget.isCancelled()) {
+				post(ver, Verdict.UNKNOWN); // report in time, then carry on with what has been learnt
+				budget = new Budget(0, MAX_MILLIS, tok);
+				sat.setBudget(budget);
+				found = sat.solve(assume);
+			}
+			synchronized (this) {
+				solves++;
+			}
+		}
+		if (budget.isCancelled())
+			return;
+		if (found) {
+			addWitness(model());
+			post(ver, Verdict.SOLVABLE);
+		} else if (budget.isExhausted()) {
+			post(ver, Verdict.UNKNOWN);
+		} else {
+			synchronized (this) {
+				deadEnd = now;
+			}
+			post(ver, Verdict.UNSOLVABLE);
+		}
+	}
+
+	/**
+	 * Keep a solution, dropping the oldest kept if there are too many
+	 *
+	 * @param sol the solution
+	 */
+	private synchronized void addWitness(int[][] sol) {
+		witnesses.addFirst(sol);
+		if (witnesses.size() > MAX_WITNESSES)
+			witnesses.removeLast();
+	}
+
+	/**
+	 * Line propagate a grid (on the background thread)
+	 *
+	 * @param grid the cell states to start from
+	 * @param budget the budget
+	 * @return the cell states deduced (with the grid's), or null on a contradiction; if the budget
+	 *         runs out, whatever was deduced before
+	 */
+	private int[][] propagate(int[][] grid, Budget budget) {
+		Nonogram copy = new Nonogram(clues);
+		for (int row=0; row<grid.length; row++)
+			for (int col=0; col<grid[row].length; col++)
+				if (grid[row][col] != Nonogram.UNKNOWN)
+					copy.setState(row, col, grid[row][col]);
+		Propagator prop = new Propagator(copy);
+		prop.setBudget(budget);
+		if (!prop.propagate())
+			return null;
+		int[][] cells = new int[grid.length][grid[0].length];
+		for (int row=0; row<cells.length; row++)
+			for (int col=0; col<cells[row].length; col++)
+				cells[row][col] = copy.getState(row, col);
+		return cells;
+	}
+
+	/**
+	 * Settle a grid without solving, from what is known already
+	 *
+	 * @param now the player's grid
+	 * @return the verdict, or null if a solve is needed
+	 */
+	private Verdict known(int[][] now) {
+		if (noSolution)
+			return Verdict.UNSOLVABLE;
+		for (int[][] sol : witnesses)
+			if (keeps(sol, now))
+				return Verdict.SOLVABLE;
+		if (unique)
+			return Verdict.UNSOLVABLE; // it does not agree with the only solution
+		if ((deadEnd != null) && keeps(now, deadEnd))
+			return Verdict.UNSOLVABLE;
+		return null;
+	}
+
+	/**
+	 * Hand a verdict to the listener through the delivery executor, unless the player's grid has changed since
+	 *
+	 * @param ver the version of the player's grid the verdict is for
+	 * @param v the verdict
+	 */
+	private void post(long ver, Verdict v) {
+		deliver.execute(() -> {
+			synchronized (this) {
+				if (ver != version)
+					return;
+				latest = v;
+			}
+			listener.accept(v);
+		});
+	}
+
+	/**
+	 * Read the cell states of the SAT solver's last solution
+	 *
+	 * @return the cell states by row and column
+	 */
+	private int[][] model() {
+		int[][] sol = new int[cellVar.length][cellVar[0].length];
+		for (int row=0; row<sol.length; row++)
+			for (int col=0; col<sol[row].length; col++)
+				sol[row][col] = sat.getValue(cellVar[row][col]) ? Nonogram.FULL : Nonogram.EMPTY;
+		return sol;
+	}
+
+	/**
+	 * Does one grid keep every known cell of another?
+	 *
+	 * @param now the later grid
+	 * @param before the earlier grid
+	 * @return true if every cell known in before has the same state in now, otherwise false
+	 */
+	private static boolean keeps(int[][] now, int[][] before) {
+		for (int row=0; row<now.length; row++)
+			for (int col=0; col<now[row].length; col++)
+				if ((before[row][col] != Nonogram.UNKNOWN) && (before[row][col] != now[row][col]))
+					return false;
+		return true;
+	}
+
+	/**
+	 * The time after which a check not yet decided reports UNKNOWN and carries on, in milliseconds
+	 */
+	public static final long REPORT_MILLIS = 100;
+
+	/**
+	 * The longest a check may carry on for after reporting UNKNOWN, in milliseconds
+	 */
+	public static final long MAX_MILLIS = 10000;
+
+	/**
+	 * The number of solutions kept to settle grids that agree with one of them
+	 */
+	public static final int MAX_WITNESSES = 32;
+
+	private final Executor          deliver;
+	private final Consumer<Verdict> listener;
+	private final ExecutorService   executor;
+	private final CancellationToken stop       = new CancellationToken(); // cancelled by shutdown()
+	private final Deque<int[][]>    witnesses  = new ArrayDeque<int[][]>(); // solutions found, most recent first
+	private Nonogram                clues      = null; // a copy of the puzzle, only used on the background thread
+	private SatSolver               sat        = null; // only used on the background thread
+	private int[][]                 cellVar    = null; // the SAT variable of each cell
+	private CancellationToken       token      = null; // of the check running, if any
+	private Verdict                 latest     = null; // for the grid of the last update()
+	private long                    version    = 0;    // of the player's grid, one per update()
+	private long                    solves     = 0;
+	private boolean                 unique     = false; // true once the first solution is known to be the only one
+	private int[][]                 deadEnd    = null; // the last grid found to have no solution
+	private boolean                 noSolution = false; // true if the clues have no solution
+	private boolean                 ready      = false; // true once the first solves are done
+}
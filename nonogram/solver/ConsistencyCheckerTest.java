@@ -0,0 +1,132 @@
+package nonogram.solver;
+
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import nonogram.Nonogram;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The test class ConsistencyCheckerTest.
+ *
+ * @author  Daniel Dimuna
+ * @version October 2026
+ */
+public class ConsistencyCheckerTest
+{
+    /**
+     * Default constructor for test class ConsistencyCheckerTest
+     */
+    public ConsistencyCheckerTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+        posted   = new LinkedBlockingQueue<Runnable>();
+        received = new ArrayList<ConsistencyChecker.Verdict>();
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+        if (checker != null)
+            checker.shutdown();
+    }
+
+    @Test
+    public void uniquePuzzleNeedsNoSolves() throws InterruptedException {
+        Nonogram ng = new Nonogram(new Scanner(PropagatorTest.TINY));
+        checker = new ConsistencyChecker(ng, posted::add, received::add);
+        ng.setState(0, 0, Nonogram.FULL);
+        checker.update(ng);
+        assertEquals(ConsistencyChecker.Verdict.SOLVABLE, next());
+        ng.setState(0, 1, Nonogram.FULL); // goal has EMPTY here
+        checker.update(ng);
+        assertEquals(ConsistencyChecker.Verdict.UNSOLVABLE, next());
+        assertEquals(0, checker.getSolves()); // settled by the only solution
+        assertEquals(ConsistencyChecker.Verdict.UNSOLVABLE, checker.getLatest());
+    }
+
+    @Test
+    public void findsDeadEndWithEveryLineValid() throws InterruptedException {
+        Nonogram ng = new Nonogram(new Scanner(ParallelSearchSolverTest.PERMUTATIONS));
+        checker = new ConsistencyChecker(ng, posted::add, received::add);
+
+        // three rows left with only columns 0 and 1, which can take just two of them
+        for (int row=0; row<3; row++)
+            for (int col=2; col<5; col++)
+                ng.setState(row, col, Nonogram.EMPTY);
+        for (int i=0; i<5; i++) {
+            assertTrue(ng.isRowValid(i));
+            assertTrue(ng.isColValid(i));
+        }
+        checker.update(ng);
+        assertEquals(ConsistencyChecker.Verdict.UNSOLVABLE, next());
+        long solves = checker.getSolves();
+        assertTrue(solves > 0);
+
+        // more cells on top of the dead end are settled without a solve
+        ng.setState(4, 4, Nonogram.FULL);
+        checker.update(ng);
+        assertEquals(ConsistencyChecker.Verdict.UNSOLVABLE, next());
+        assertEquals(solves, checker.getSolves());
+
+        // taking back the mistake makes the grid solvable again
+        for (int col=2; col<5; col++)
+            ng.setState(2, col, Nonogram.UNKNOWN);
+        checker.update(ng);
+        assertEquals(ConsistencyChecker.Verdict.SOLVABLE, next());
+    }
+
+    @Test
+    public void staleVerdictsAreDropped() throws InterruptedException {
+        Nonogram ng = new Nonogram(new Scanner(PropagatorTest.TINY));
+        checker = new ConsistencyChecker(ng, posted::add, received::add);
+        ng.setState(0, 1, Nonogram.FULL);
+        checker.update(ng);
+        ng.setState(0, 1, Nonogram.EMPTY);
+        checker.update(ng);
+        assertEquals(ConsistencyChecker.Verdict.SOLVABLE, next());
+        while (!posted.isEmpty())
+            posted.take().run();
+        assertFalse(received.contains(ConsistencyChecker.Verdict.UNSOLVABLE)); // the first grid's never arrives
+    }
+
+    /**
+     * Run the posted tasks, as the delivery thread would, until the listener has been handed a verdict
+     * other than UNKNOWN (which is reported while the first solves are running)
+     *
+     * @return the verdict
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private ConsistencyChecker.Verdict next() throws InterruptedException {
+        int n = received.size();
+        while ((received.size() == n) || (received.get(received.size() - 1) == ConsistencyChecker.Verdict.UNKNOWN)) {
+            Runnable r = posted.poll(10, TimeUnit.SECONDS);
+            assertNotNull("no verdict within 10 seconds", r);
+            r.run();
+        }
+        return received.get(received.size() - 1);
+    }
+
+    private LinkedBlockingQueue<Runnable>    posted;
+    private List<ConsistencyChecker.Verdict> received;
+    private ConsistencyChecker               checker = null;
+}
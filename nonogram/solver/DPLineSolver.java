@@ -0,0 +1,139 @@
+package nonogram.solver;
+
+import nonogram.NGPattern;
+import nonogram.Nonogram;
+
+/**
+ * A complete line solver using dynamic programming over prefix and suffix
+ * feasibility tables. For a line of n cells and k blocks, fwd[j][i] records
+ * whether blocks 0..j-1 fit in cells 0..i-1 and bwd[j][i] whether blocks j..k-1
+ * fit in cells i..n-1. A cell can be EMPTY if some j has the first j blocks
+ * before it and the rest after it, and FULL if some block j can be placed over
+ * it with the blocks either side still fitting, so every forced cell is found in
+ * O(n*k) time with no enumeration of placements. The tables are kept between
+ * calls and only grow, so an instance should not be shared between threads.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class DPLineSolver implements LineSolver {
+	@Override
+	public boolean isComplete() {
+		return true;
+	}
+
+	@Override
+	public boolean solve(NGPattern pat, byte[] line) {
+		int n = pat.getMaxLen();
+		int k = pat.getNumBlocks();
+		int w = n + 1; // row width of the tables
+		ensureCapacity(n, k);
+		for (int j=0; j<k; j++)
+			nums[j] = pat.getNum(j);
+
+		// empties[i] is the number of EMPTY cells in 0..i-1
+		empties[0] = 0;
+		for (int i=0; i<n; i++)
+			empties[i+1] = empties[i] + ((line[i] == Nonogram.EMPTY) ? 1 : 0);
+
+		// prefix table
+		fwd[0] = true;
+		for (int i=1; i<=n; i++)
+			fwd[i] = fwd[i-1] && (line[i-1] != Nonogram.FULL);
+		for (int j=1; j<=k; j++) {
+			int len = nums[j-1];
+			fwd[j*w] = false;
+			for (int i=1; i<=n; i++) {
+				boolean ok = fwd[j*w + i-1] && (line[i-1] != Nonogram.FULL);
+				int s = i - len;
+				if (!ok && (s >= 0) && (empties[i] == empties[s])) {
+					if (s == 0)
+						ok = (j == 1);
+					else
+						ok = (line[s-1] != Nonogram.FULL) && fwd[(j-1)*w + s-1];
+				}
+				fwd[j*w + i] = ok;
+			}
+		}
+		if (!fwd[k*w + n])
+			return false;
+
+		// suffix table
+		bwd[k*w + n] = true;
+		for (int i=n-1; i>=0; i--)
+			bwd[k*w + i] = bwd[k*w + i+1] && (line[i] != Nonogram.FULL);
+		for (int j=k-1; j>=0; j--) {
+			int len = nums[j];
+			bwd[j*w + n] = false;
+			for (int i=n-1; i>=0; i--) {
+				boolean ok = bwd[j*w + i+1] && (line[i] != Nonogram.FULL);
+				int e = i + len;
+				if (!ok && (e <= n) && (empties[e] == empties[i])) {
+					if (e == n)
+						ok = (j == k-1);
+					else
+						ok = (line[e] != Nonogram.FULL) && bwd[(j+1)*w + e+1];
+				}
+				bwd[j*w + i] = ok;
+			}
+		}
+
+		// cells each block can cover (as a difference array), and cells that can be EMPTY
+		for (int i=0; i<=n; i++)
+			cover[i] = 0;
+		for (int j=0; j<k; j++) {
+			int len = nums[j];
+			for (int s=0; s+len<=n; s++) {
+				int e = s + len;
+				if (empties[e] != empties[s])
+					continue;
+				boolean left  = (s == 0) ? (j == 0) : (line[s-1] != Nonogram.FULL) && fwd[j*w + s-1];
+				boolean right = (e == n) ? (j == k-1) : (line[e] != Nonogram.FULL) && bwd[(j+1)*w + e+1];
+				if (left && right) {
+					cover[s]++;
+					cover[e]--;
+				}
+			}
+		}
+		int covered = 0;
+		for (int i=0; i<n; i++) {
+			covered += cover[i];
+			if (line[i] != Nonogram.UNKNOWN)
+				continue;
+			boolean canBeEmpty = false;
+			for (int j=0; j<=k && !canBeEmpty; j++)
+				canBeEmpty = fwd[j*w + i] && bwd[j*w + i+1];
+			if (covered > 0 && !canBeEmpty)
+				line[i] = Nonogram.FULL;
+			else if (covered == 0)
+				line[i] = Nonogram.EMPTY; // the line has a completion, so the cell must be able to be EMPTY
+		}
+		return true;
+	}
+
+	/**
+	 * Grow the tables if needed for a line
+	 *
+	 * @param n the number of cells
+	 * @param k the number of blocks
+	 */
+	private void ensureCapacity(int n, int k) {
+		int size = (k + 1) * (n + 1);
+		if (fwd.length < size) {
+			fwd = new boolean[size];
+			bwd = new boolean[size];
+		}
+		if (nums.length < k)
+			nums = new int[k];
+		if (empties.length < n + 1) {
+			empties = new int[n + 1];
+			cover   = new int[n + 1];
+		}
+	}
+
+	private boolean[] fwd     = new boolean[0]; // fwd[j*(n+1) + i]: blocks 0..j-1 fit in cells 0..i-1
+	private boolean[] bwd     = new boolean[0]; // bwd[j*(n+1) + i]: blocks j..k-1 fit in cells i..n-1
+	private int[]     empties = new int[0];     // prefix counts of EMPTY cells
+	private int[]     cover   = new int[0];     // difference array of the cells a block can cover
+	private int[]     nums    = new int[0];     // the block lengths of the pattern
+}
@@ -0,0 +1,98 @@
+package nonogram.solver;
+
+import static org.junit.Assert.*;
+import java.util.Random;
+import nonogram.NGPattern;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The test class DPLineSolverTest.
+ *
+ * @author  Daniel Dimuna
+ * @version October 2026
+ */
+public class DPLineSolverTest
+{
+    /**
+     * Default constructor for test class DPLineSolverTest
+     */
+    public DPLineSolverTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+    }
+
+    @Test
+    public void matchesSimpleLineSolver() {
+        checkAgainst(new SimpleLineSolver(), new DPLineSolver(), 5, 40, 3000);
+    }
+
+    @Test
+    public void longLines() {
+        checkAgainst(new SimpleLineSolver(), new DPLineSolver(), 100, 160, 50);
+    }
+
+    @Test
+    public void reportsContradiction() {
+        NGPattern pat = new NGPattern(new int[] {2, 1}, 5);
+        byte[] line = {Nonogram.FULL, Nonogram.EMPTY, Nonogram.UNKNOWN, Nonogram.UNKNOWN, Nonogram.UNKNOWN};
+        assertFalse(new DPLineSolver().solve(pat, line));
+    }
+
+    /**
+     * Compare two line solvers on random patterns and partly known lines
+     *
+     * @param expected the reference solver
+     * @param actual the solver under test
+     * @param minLen the shortest line
+     * @param maxLen the longest line
+     * @param trials the number of random lines
+     */
+    static void checkAgainst(LineSolver expected, LineSolver actual, int minLen, int maxLen, int trials) {
+        Random rnd = new Random(minLen * 1000L + maxLen);
+        for (int t=0; t<trials; t++) {
+            int len = minLen + rnd.nextInt(maxLen - minLen + 1);
+            int[] goal = new int[len];
+            for (int i=0; i<len; i++)
+                goal[i] = (rnd.nextInt(5) < 2) ? Nonogram.FULL : Nonogram.EMPTY;
+            goal[rnd.nextInt(len)] = Nonogram.FULL;
+            NGPattern pat = NGPattern.intern(PuzzleGenerator.clueFor(goal), len);
+            byte[] line = new byte[len];
+            int known = rnd.nextInt(10);
+            for (int i=0; i<len; i++) {
+                int r = rnd.nextInt(20);
+                line[i] = (byte) ((r >= known) ? Nonogram.UNKNOWN : (r > 0) ? goal[i] : 1 - goal[i]);
+            }
+            byte[] a = line.clone();
+            byte[] b = line.clone();
+            boolean okA = expected.solve(pat, a);
+            boolean okB = actual.solve(pat, b);
+            String msg = java.util.Arrays.toString(line) + " " + pat;
+            assertEquals(msg, okA, okB);
+            if (okA)
+                assertArrayEquals(msg, a, b);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package nonogram.solver;
+
+/**
+ * Solves queued lines in the order they were first queued. Each line is queued
+ * at most once, so the queue is a fixed ring buffer.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class FifoLineScheduler implements LineScheduler {
+	@Override
+	public void init(int[] slack, int[] unknown) {
+		queue     = new int[slack.length];
+		queued    = new boolean[slack.length];
+		head      = 0;
+		numQueued = 0;
+	}
+
+	@Override
+	public void add(int l) {
+		if (queued[l])
+			return;
+		queued[l] = true;
+		int tail = head + numQueued;
+		queue[(tail >= queue.length) ? tail - queue.length : tail] = l;
+		numQueued++;
+	}
+
+	@Override
+	public int poll() {
+		int l = queue[head];
+		head = (head + 1 == queue.length) ? 0 : head + 1;
+		numQueued--;
+		queued[l] = false;
+		return l;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return numQueued == 0;
+	}
+
+	@Override
+	public void clear() {
+		while (numQueued > 0)
+			poll();
+	}
+
+	private int[]     queue     = null;  // ring buffer of queued lines
+	private boolean[] queued    = null;  // is the line in queue?
+	private int       head      = 0;
+	private int       numQueued = 0;
+}
@@ -0,0 +1,349 @@
+package nonogram.solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import nonogram.Assign;
+import nonogram.NGPattern;
+import nonogram.Nonogram;
+
+/**
+ * Works out hints for a player, off the thread the player's moves are made on.
+ * After each move update() is called with the player's grid: the computation for
+ * the previous grid is cancelled, and line propagation from the new grid runs on
+ * a background thread. The hints are the cells that propagation deduces and the
+ * player has not set yet, in the order they were deduced (so the first follows
+ * from the grid as it is), and they are handed to a listener through a delivery
+ * executor (e.g. SwingUtilities::invokeLater), unless the player has moved again
+ * in the meantime.
+ * An engine is made for one puzzle, and only the player's cell states are read
+ * on the calling thread; the rest of the work is done in the background.
+ * The work is incremental: the last complete deductions are kept, and while the
+ * player only sets cells (no undo or clearing), they still hold. A move that
+ * agrees with them needs no propagation at all, and any other cell set is
+ * propagated from the kept deductions with only its crossing lines queued.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class HintEngine {
+	/**
+	 * The hints for one grid
+	 */
+	public static class Hints {
+		/**
+		 * Constructor
+		 *
+		 * @param status how propagation ended (SOLVED, STALLED, BUDGET_EXHAUSTED or CONTRADICTION)
+		 * @param cells the cells deduced that the player has not set, in the order they were deduced
+		 * @param steps the line solves it took (0 if the kept deductions were enough)
+		 */
+		Hints(AnytimeSolver.Status status, List<Assign> cells, long steps) {
+			this.status = status;
+			this.cells  = Collections.unmodifiableList(cells);
+			this.steps  = steps;
+		}
+
+		/**
+		 * Retrieve how propagation ended: CONTRADICTION if the player's grid cannot be completed
+		 * (some cell is wrong), BUDGET_EXHAUSTED if the hints are only some of the deducible cells
+		 *
+		 * @return the status
+		 */
+		public AnytimeSolver.Status getStatus() {
+			return status;
+		}
+
+		/**
+		 * Retrieve the cells that can be deduced and are not set yet
+		 *
+		 * @return the cells (unmodifiable, empty after a contradiction), in the order they were deduced
+		 */
+		public List<Assign> getCells() {
+			return cells;
+		}
+
+		/**
+		 * Retrieve the next cell to set
+		 *
+		 * @return the first cell deduced, or null if there is none
+		 */
+		public Assign getNext() {
+			return cells.isEmpty() ? null : cells.get(0);
+		}
+
+		/**
+		 * Retrieve the number of line solves it took to work out these hints
+		 *
+		 * @return the number of line solves
+		 */
+		public long getSteps() {
+			return steps;
+		}
+
+		private final AnytimeSolver.Status status;
+		private final List<Assign>         cells;
+		private final long                 steps;
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param ng the puzzle to give hints for (only its clues are used)
+	 * @param deliver the executor to hand hints to the listener through (e.g. SwingUtilities::invokeLater)
+	 * @param listener called with the hints for the latest grid
+	 */
+	public HintEngine(Nonogram ng, Executor deliver, Consumer<Hints> listener) {
+		if (ng == null)
+			throw new IllegalArgumentException("ng cannot be null");
+		if (deliver == null)
+			throw new IllegalArgumentException("deliver cannot be null");
+		if (listener == null)
+			throw new IllegalArgumentException("listener cannot be null");
+		this.clues    = new Nonogram(ng);
+		this.numRows  = ng.getNumRows();
+		this.numCols  = ng.getNumCols();
+		this.deliver  = deliver;
+		this.listener = listener;
+		this.executor = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "hints");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * Start working out the hints for the player's grid, cancelling the work for the grid before.
+	 * Only the grid's cell states are copied here (a row at a time), so this is cheap enough to call
+	 * after every move on the thread the moves are made on; everything else runs in the background.
+	 *
+	 * @param grid the player's puzzle, with the clues of the engine's puzzle (only read, and only during this call)
+	 */
+	public synchronized void update(Nonogram grid) {
+		if (grid == null)
+			throw new IllegalArgumentException("grid cannot be null");
+		if (!sameClues(grid))
+			throw new IllegalArgumentException("grid must have the clues of the engine's puzzle");
+		if (token != null)
+			token.cancel();
+		latest = null;
+		long     ver = ++version;
+		byte[][] now = new byte[numRows][numCols];
+		for (int row=0; row<numRows; row++)
+			grid.readRow(row, now[row]);
+		CancellationToken tok = new CancellationToken();
+		token = tok;
+		try {
+			executor.execute(() -> work(ver, now, tok));
+		} catch (RejectedExecutionException e) {
+			// shut down, so there are no more hints
+		}
+	}
+
+	/**
+	 * Retrieve the hints for the grid of the last update()
+	 *
+	 * @return the hints, or null if they are still being worked out
+	 */
+	public synchronized Hints getLatest() {
+		return latest;
+	}
+
+	/**
+	 * Stop the background thread (the engine cannot be used afterwards)
+	 */
+	public synchronized void shutdown() {
+		if (token != null)
+			token.cancel();
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Work out the hints for a grid on the background thread and post them
+	 *
+	 * @param ver the version of the player's grid
+	 * @param now the player's grid
+	 * @param tok the cancellation token of this computation
+	 */
+	private void work(long ver, byte[][] now, CancellationToken tok) {
+		if (tok.isCancelled()) // the player has moved again
+			return;
+
+		// only cells set since the kept deductions: carry on from them, queueing the lines of new cells
+		byte[][]     seed  = null;
+		List<Assign> added = new ArrayList<Assign>();
+		if ((known != null) && keeps(now, knownGrid)) {
+			seed = new byte[numRows][];
+			for (int row=0; row<numRows; row++)
+				seed[row] = known[row].clone();
+			for (int row=0; row<numRows; row++) {
+				for (int col=0; col<numCols; col++) {
+					if ((now[row][col] == Nonogram.UNKNOWN) || (now[row][col] == seed[row][col]))
+						continue;
+					if (seed[row][col] != Nonogram.UNKNOWN) { // against a deduction, so the grid cannot be completed
+						post(ver, new Hints(AnytimeSolver.Status.CONTRADICTION, new ArrayList<Assign>(), 0));
+						return;
+					}
+					seed[row][col] = now[row][col];
+					added.add(new Assign(row, col, now[row][col]));
+				}
+			}
+			if (added.isEmpty()) {
+				post(ver, hints(knownStatus, knownOrder, known, now, 0));
+				return;
+			}
+		}
+
+		Nonogram copy = new Nonogram(clues);
+		for (int row=0; row<numRows; row++)
+			copy.writeRow(row, (seed == null) ? now[row] : seed[row]);
+		int[]      order  = (seed == null) ? new int[0] : knownOrder;
+		Propagator prop   = new Propagator(copy);
+		Budget     budget = new Budget(0, MAX_MILLIS, tok);
+		prop.setBudget(budget);
+		if (seed == null)
+			prop.queueAll();
+		else
+			for (Assign a : added)
+				prop.queueCell(a.getRow(), a.getCol());
+		boolean ok = prop.run();
+		if (budget.isCancelled())
+			return;
+		if (!ok) {
+			post(ver, new Hints(AnytimeSolver.Status.CONTRADICTION, new ArrayList<Assign>(), budget.getSteps()));
+			return;
+		}
+
+		int[] deduced = new int[order.length + prop.getTrailSize()];
+		System.arraycopy(order, 0, deduced, 0, order.length);
+		for (int i=0; i<prop.getTrailSize(); i++)
+			deduced[order.length + i] = prop.getTrailCell(i);
+		byte[][] cells = new byte[numRows][numCols];
+		for (int row=0; row<numRows; row++)
+			copy.readRow(row, cells[row]);
+		if (prop.hasQueued()) { // only some of the deductions, so not kept
+			post(ver, hints(AnytimeSolver.Status.BUDGET_EXHAUSTED, deduced, cells, now, budget.getSteps()));
+			return;
+		}
+
+		// complete deductions hold for any later grid that keeps the player's cells, stale or not
+		known       = cells;
+		knownGrid   = now;
+		knownOrder  = deduced;
+		knownStatus = copy.isSolved() ? AnytimeSolver.Status.SOLVED : AnytimeSolver.Status.STALLED;
+		post(ver, hints(knownStatus, deduced, cells, now, budget.getSteps()));
+	}
+
+	/**
+	 * Hand hints to the listener through the delivery executor, unless the player's grid has changed since
+	 *
+	 * @param ver the version of the player's grid the hints are for
+	 * @param hints the hints
+	 */
+	private void post(long ver, Hints hints) {
+		deliver.execute(() -> {
+			synchronized (this) {
+				if (ver != version)
+					return;
+				latest = hints;
+			}
+			listener.accept(hints);
+		});
+	}
+
+	/**
+	 * Does a grid have the clues of the engine's puzzle?
+	 *
+	 * @param grid the grid
+	 * @return true if it has the same size and row and column patterns, otherwise false
+	 */
+	private boolean sameClues(Nonogram grid) {
+		if ((grid.getNumRows() != numRows) || (grid.getNumCols() != numCols))
+			return false;
+		for (int row=0; row<numRows; row++)
+			if (!samePattern(grid.getRowPattern(row), clues.getRowPattern(row)))
+				return false;
+		for (int col=0; col<numCols; col++)
+			if (!samePattern(grid.getColPattern(col), clues.getColPattern(col)))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Are two patterns the same (usually the same interned pattern)?
+	 *
+	 * @param a a pattern
+	 * @param b another pattern
+	 * @return true if they have the same nums and length, otherwise false
+	 */
+	private static boolean samePattern(NGPattern a, NGPattern b) {
+		if (a == b)
+			return true;
+		if ((a.getMaxLen() != b.getMaxLen()) || (a.getNumBlocks() != b.getNumBlocks()))
+			return false;
+		for (int i=0; i<a.getNumBlocks(); i++)
+			if (a.getNum(i) != b.getNum(i))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Build the hints: the deduced cells that the player has not set
+	 *
+	 * @param status how propagation ended
+	 * @param order the deduced cells (row*numCols + col), in the order they were deduced
+	 * @param cells the deduced cell states
+	 * @param now the player's grid
+	 * @param steps the line solves it took
+	 * @return the hints
+	 */
+	private Hints hints(AnytimeSolver.Status status, int[] order, byte[][] cells, byte[][] now, long steps) {
+		List<Assign> hint = new ArrayList<Assign>();
+		for (int cell : order) {
+			int row = cell / numCols;
+			int col = cell % numCols;
+			if (now[row][col] == Nonogram.UNKNOWN)
+				hint.add(new Assign(row, col, cells[row][col]));
+		}
+		return new Hints(status, hint, steps);
+	}
+
+	/**
+	 * Does one grid keep every known cell of another?
+	 *
+	 * @param now the later grid
+	 * @param before the earlier grid
+	 * @return true if every cell known in before has the same state in now, otherwise false
+	 */
+	private static boolean keeps(byte[][] now, byte[][] before) {
+		for (int row=0; row<now.length; row++)
+			for (int col=0; col<now[row].length; col++)
+				if ((before[row][col] != Nonogram.UNKNOWN) && (before[row][col] != now[row][col]))
+					return false;
+		return true;
+	}
+
+	/**
+	 * The longest a background computation may take, in milliseconds
+	 */
+	public static final long MAX_MILLIS = 10000;
+
+	private final Nonogram             clues;            // a copy of the puzzle, for its patterns
+	private final int                  numRows;
+	private final int                  numCols;
+	private final Executor             deliver;
+	private final Consumer<Hints>      listener;
+	private final ExecutorService      executor;
+	private CancellationToken          token       = null; // of the latest computation
+	private Hints                      latest      = null; // for the grid of the last update()
+	private long                       version     = 0;    // of the player's grid, one per update()
+	private byte[][]                   known       = null; // the last complete deductions (with the player's cells), background thread only
+	private byte[][]                   knownGrid   = null; // the player's grid they were made from
+	private int[]                      knownOrder  = null; // the deduced cells, in the order they were deduced
+	private AnytimeSolver.Status       knownStatus = null; // SOLVED or STALLED
+}
@@ -0,0 +1,188 @@
+package nonogram.solver;
+
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import nonogram.Assign;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The test class HintEngineTest.
+ *
+ * @author  Daniel Dimuna
+ * @version October 2026
+ */
+public class HintEngineTest
+{
+    /**
+     * Default constructor for test class HintEngineTest
+     */
+    public HintEngineTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+        posted   = new LinkedBlockingQueue<Runnable>();
+        received = new ArrayList<HintEngine.Hints>();
+        ng       = new Nonogram(new Scanner(PropagatorTest.TINY));
+        engine   = new HintEngine(ng, posted::add, received::add);
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+        engine.shutdown();
+    }
+
+    @Test
+    public void hintsFollowTheGoal() throws InterruptedException {
+        engine.update(ng);
+        HintEngine.Hints h = next();
+        assertEquals(AnytimeSolver.Status.SOLVED, h.getStatus());
+        assertEquals(25, h.getCells().size());
+        assertTrue(h.getSteps() > 0);
+        for (Assign a : h.getCells())
+            assertEquals(goal(a.getRow(), a.getCol()), a.getState());
+        assertSame(h, engine.getLatest());
+        assertEquals(Nonogram.UNKNOWN, ng.getState(0, 0)); // the grid passed in is only read
+    }
+
+    @Test
+    public void movesThatFollowHintsNeedNoPropagation() throws InterruptedException {
+        engine.update(ng);
+        Assign a = next().getNext();
+        ng.setState(a.getRow(), a.getCol(), a.getState());
+        engine.update(ng);
+        HintEngine.Hints h = next();
+        assertEquals(0, h.getSteps());
+        assertEquals(24, h.getCells().size());
+        for (Assign b : h.getCells())
+            assertFalse((b.getRow() == a.getRow()) && (b.getCol() == a.getCol()));
+    }
+
+    @Test
+    public void wrongMoveIsAContradiction() throws InterruptedException {
+        ng.setState(0, 0, Nonogram.EMPTY); // goal has FULL here, and tiny has a unique solution
+        engine.update(ng);
+        HintEngine.Hints h = next();
+        assertEquals(AnytimeSolver.Status.CONTRADICTION, h.getStatus());
+        assertNull(h.getNext());
+
+        // undo the mistake, and the hints come back
+        ng.setState(0, 0, Nonogram.UNKNOWN);
+        engine.update(ng);
+        assertEquals(25, next().getCells().size());
+
+        // now the deductions are kept, a move against one is caught without propagating
+        ng.setState(0, 0, Nonogram.EMPTY);
+        engine.update(ng);
+        h = next();
+        assertEquals(AnytimeSolver.Status.CONTRADICTION, h.getStatus());
+        assertEquals(0, h.getSteps());
+    }
+
+    @Test
+    public void staleHintsAreDropped() throws InterruptedException {
+        engine.update(ng);
+        ng.setState(0, 0, Nonogram.EMPTY);
+        engine.update(ng);
+        assertNull(engine.getLatest());
+        assertEquals(AnytimeSolver.Status.CONTRADICTION, next().getStatus());
+        while (!posted.isEmpty())
+            posted.take().run();
+        assertEquals(1, received.size()); // the hints for the first grid never reach the listener
+    }
+
+    @Test
+    public void engineKeepsToItsPuzzle() throws InterruptedException {
+        engine.update(ng);
+        assertEquals(25, next().getCells().size()); // deductions for tiny are kept
+
+        // another 5x5 puzzle, every cell FULL, and a 6x6 one are refused rather than given tiny's hints
+        Nonogram other = new Nonogram(new Scanner(PuzzleGenerator.toNonFile(full(5))));
+        Nonogram big   = new Nonogram(new Scanner(PuzzleGenerator.toNonFile(full(6))));
+        for (Nonogram g : new Nonogram[] { other, big }) {
+            try {
+                engine.update(g);
+                fail("grid of another puzzle accepted");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+
+        // an engine of its own gives the other puzzle its hints
+        engine.shutdown();
+        engine = new HintEngine(other, posted::add, received::add);
+        engine.update(other);
+        HintEngine.Hints h = next();
+        assertEquals(AnytimeSolver.Status.SOLVED, h.getStatus());
+        assertEquals(25, h.getCells().size());
+        for (Assign a : h.getCells())
+            assertEquals(Nonogram.FULL, a.getState());
+    }
+
+    /**
+     * Run the posted tasks, as the delivery thread would, until the listener has been handed hints
+     *
+     * @return the hints
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private HintEngine.Hints next() throws InterruptedException {
+        int n = received.size();
+        while (received.size() == n) {
+            Runnable r = posted.poll(10, TimeUnit.SECONDS);
+            assertNotNull("no hints within 10 seconds", r);
+            r.run();
+        }
+        return received.get(n);
+    }
+
+    /**
+     * A square goal with every cell FULL
+     *
+     * @param size the number of rows and columns
+     * @return the goal
+     */
+    private static int[][] full(int size) {
+        int[][] goal = new int[size][size];
+        for (int[] row : goal)
+            Arrays.fill(row, Nonogram.FULL);
+        return goal;
+    }
+
+    /**
+     * The goal state of a cell of tiny
+     *
+     * @param row the cell row
+     * @param col the cell column
+     * @return the state
+     */
+    private static int goal(int row, int col) {
+        return PropagatorTest.GOAL.charAt(row * 5 + col) - '0';
+    }
+
+    private LinkedBlockingQueue<Runnable> posted;
+    private List<HintEngine.Hints>        received;
+    private HintEngine                    engine;
+    private Nonogram                      ng;
+}
@@ -0,0 +1,29 @@
+package nonogram.solver;
+
+import nonogram.NGPattern;
+
+/**
+ * A complete line solver that picks the fastest exact method for each line: the
+ * bit-parallel BitLineSolver for lines of up to 64 cells, and the DPLineSolver
+ * for longer ones. Both keep scratch space, so an instance should not be shared
+ * between threads.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class HybridLineSolver implements LineSolver {
+	@Override
+	public boolean isComplete() {
+		return true;
+	}
+
+	@Override
+	public boolean solve(NGPattern pat, byte[] line) {
+		if (pat.getMaxLen() <= BitLineSolver.MAX_LEN)
+			return bits.solve(pat, line);
+		return dp.solve(pat, line);
+	}
+
+	private final BitLineSolver bits = new BitLineSolver();
+	private final DPLineSolver  dp   = new DPLineSolver();
+}
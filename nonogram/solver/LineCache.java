@@ -0,0 +1,269 @@
+package nonogram.solver;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of line solve results for lines of up to 64 cells, keyed by
+ * the pattern's id (see NGPattern.getId()) and the partial line packed into
+ * known/full bit masks. The cache is split into sets of WAYS entries; a key can
+ * only live in the set its hash picks, and each set evicts by CLOCK (a
+ * referenced bit per entry and a hand that clears it as it passes). Entries are
+ * kept in flat primitive arrays, so a lookup allocates and boxes nothing. Sets
+ * are guarded by striped locks, so one cache can be shared by the solvers of
+ * several threads.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class LineCache {
+	/**
+	 * Constructor
+	 *
+	 * @param capacity the maximum number of entries (rounded up to a power of two, at least WAYS)
+	 */
+	public LineCache(int capacity) {
+		this(capacity, false);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param capacity the maximum number of entries (rounded up to a power of two, at least WAYS)
+	 * @param shared true for the shared cache, otherwise false
+	 */
+	private LineCache(int capacity, boolean shared) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("capacity must be at least 1");
+		int sets = 1;
+		while (sets * WAYS < capacity)
+			sets <<= 1;
+		this.shared   = shared;
+		this.setMask  = sets - 1;
+		this.ids      = new int[sets * WAYS];
+		this.keyKnown = new long[sets * WAYS];
+		this.keyFull  = new long[sets * WAYS];
+		this.resKnown = new long[sets * WAYS];
+		this.resFull  = new long[sets * WAYS];
+		this.refs     = new boolean[sets * WAYS];
+		this.hands    = new byte[sets];
+		this.locks    = new Object[Math.min(sets, STRIPES)];
+		for (int i=0; i<locks.length; i++)
+			locks[i] = new Object();
+	}
+
+	/**
+	 * Is this the shared cache? Unlike comparing with shared(), this does not create it.
+	 *
+	 * @return true if it is the shared cache, otherwise false
+	 */
+	boolean isShared() {
+		return shared;
+	}
+
+	/**
+	 * Retrieve the cache shared by default across solvers and threads (created on first use), which
+	 * only holds the results of complete line solvers
+	 *
+	 * @return the shared cache
+	 */
+	public static LineCache shared() {
+		return Shared.CACHE;
+	}
+
+	/**
+	 * Look up the result for a line
+	 *
+	 * @param patId the pattern id
+	 * @param known the known cells of the line
+	 * @param full the FULL cells of the line
+	 * @param result set to the known and FULL cells after solving (result[0], result[1]) on a hit
+	 * @return true on a hit, otherwise false
+	 */
+	public boolean get(int patId, long known, long full, long[] result) {
+		int set  = setOf(patId, known, full);
+		int base = set * WAYS;
+		synchronized (locks[set % locks.length]) {
+			for (int i=base; i<base+WAYS; i++) {
+				if ((ids[i] == patId) && (keyKnown[i] == known) && (keyFull[i] == full)) {
+					refs[i]   = true;
+					result[0] = resKnown[i];
+					result[1] = resFull[i];
+					hits.increment();
+					return true;
+				}
+			}
+		}
+		misses.increment();
+		return false;
+	}
+
+	/**
+	 * Store the result for a line, evicting the set's CLOCK victim if the set is full
+	 *
+	 * @param patId the pattern id
+	 * @param known the known cells of the line
+	 * @param full the FULL cells of the line
+	 * @param outKnown the known cells after solving
+	 * @param outFull the FULL cells after solving
+	 */
+	public void put(int patId, long known, long full, long outKnown, long outFull) {
+		int set  = setOf(patId, known, full);
+		int base = set * WAYS;
+		synchronized (locks[set % locks.length]) {
+			int slot = -1;
+			for (int i=base; (i<base+WAYS) && (slot<0); i++)
+				if ((ids[i] == 0) || ((ids[i] == patId) && (keyKnown[i] == known) && (keyFull[i] == full)))
+					slot = i;
+			if (slot < 0) {
+				int hand = hands[set];
+				while (refs[base + hand]) {
+					refs[base + hand] = false;
+					hand = (hand + 1) % WAYS;
+				}
+				slot = base + hand;
+				hands[set] = (byte) ((hand + 1) % WAYS);
+				evictions.increment();
+			} else if (ids[slot] == 0) {
+				size.increment();
+			}
+			ids[slot]      = patId;
+			keyKnown[slot] = known;
+			keyFull[slot]  = full;
+			resKnown[slot] = outKnown;
+			resFull[slot]  = outFull;
+			refs[slot]     = false;
+		}
+	}
+
+	/**
+	 * Remove every entry and reset the statistics
+	 */
+	public void clear() {
+		for (int s=0; s<=setMask; s++) {
+			synchronized (locks[s % locks.length]) {
+				for (int i=s*WAYS; i<(s+1)*WAYS; i++) {
+					ids[i]  = 0;
+					refs[i] = false;
+				}
+				hands[s] = 0;
+			}
+		}
+		size.reset();
+		hits.reset();
+		misses.reset();
+		evictions.reset();
+	}
+
+	/**
+	 * Retrieve the number of lookups that hit
+	 *
+	 * @return the number of hits
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Retrieve the number of lookups that missed
+	 *
+	 * @return the number of misses
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Retrieve the fraction of lookups that hit
+	 *
+	 * @return the hit rate (0 if there have been no lookups)
+	 */
+	public double getHitRate() {
+		long h = hits.sum(), m = misses.sum();
+		return (h + m == 0) ? 0.0 : (double) h / (h + m);
+	}
+
+	/**
+	 * Retrieve the number of entries evicted to make room
+	 *
+	 * @return the number of evictions
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Retrieve the number of entries held
+	 *
+	 * @return the number of entries
+	 */
+	public int getSize() {
+		return size.intValue();
+	}
+
+	/**
+	 * Retrieve the maximum number of entries
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return ids.length;
+	}
+
+	/**
+	 * Retrieve the memory held by the entry tables (allocated up front, so independent of the number of entries)
+	 *
+	 * @return the number of bytes
+	 */
+	public long getMemoryBytes() {
+		return (long) ids.length * (4 + 4*8 + 1) + hands.length;
+	}
+
+	/**
+	 * Pick the set for a key
+	 *
+	 * @param patId the pattern id
+	 * @param known the known cells
+	 * @param full the FULL cells
+	 * @return the set
+	 */
+	private int setOf(int patId, long known, long full) {
+		long z = known * 0x9e3779b97f4a7c15L + full;
+		z = (z ^ (z >>> 30) ^ ((long) patId << 32) ^ patId) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return (int) (z ^ (z >>> 31)) & setMask;
+	}
+
+	/**
+	 * The number of entries in a set
+	 */
+	public static final int WAYS = 4;
+
+	/**
+	 * The capacity of the shared cache
+	 */
+	public static final int SHARED_CAPACITY = 1 << 18;
+
+	private static final int STRIPES = 256;
+
+	/**
+	 * Holds the shared cache, so its tables are only allocated when it is first used
+	 */
+	private static class Shared {
+		static final LineCache CACHE = new LineCache(SHARED_CAPACITY, true);
+	}
+
+	private final boolean    shared;     // the shared cache, which only complete solvers may use
+	private final int        setMask;
+	private final int[]      ids;        // pattern id per entry (0 for an empty entry)
+	private final long[]     keyKnown;   // known cells of the line per entry
+	private final long[]     keyFull;    // FULL cells of the line per entry
+	private final long[]     resKnown;   // known cells after solving per entry
+	private final long[]     resFull;    // FULL cells after solving per entry
+	private final boolean[]  refs;       // CLOCK referenced bit per entry
+	private final byte[]     hands;      // CLOCK hand per set
+	private final Object[]   locks;      // striped over the sets
+	private final LongAdder  hits      = new LongAdder();
+	private final LongAdder  misses    = new LongAdder();
+	private final LongAdder  evictions = new LongAdder();
+	private final LongAdder  size      = new LongAdder();
+}
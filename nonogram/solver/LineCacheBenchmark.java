@@ -0,0 +1,60 @@
+package nonogram.solver;
+
+import java.util.Random;
+import java.util.Scanner;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+
+/**
+ * Times SearchSolver on a stream of random puzzles with a plain line solver and
+ * with the same solver behind a CachingLineSolver, for both the bit-parallel and
+ * the dynamic programming line solvers, and reports the cache hit rate and memory
+ * use. Run with "java nonogram.solver.LineCacheBenchmark".
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class LineCacheBenchmark {
+	public static void main(String[] args) {
+		System.out.println("solver  size   plain ms  cached ms  hit rate  entries     KiB");
+		for (boolean bits : new boolean[] { true, false }) {
+			for (int size : SIZES) {
+				String[] files = new String[PUZZLES];
+				Random   rnd   = new Random(size);
+				for (int i=0; i<PUZZLES; i++)
+					files[i] = PuzzleGenerator.randomNonFile(size, size, 0.5, rnd.nextLong());
+				double plain = 0, cached = 0;
+				LineCache cache = null;
+				for (int pass=0; pass<PASSES; pass++) { // only the last pass is reported
+					cache = new LineCache(CAPACITY);
+					long t0 = System.nanoTime();
+					for (String file : files)
+						search(file, bits ? new BitLineSolver() : new DPLineSolver());
+					long t1 = System.nanoTime();
+					for (String file : files)
+						search(file, new CachingLineSolver(cache, bits ? new BitLineSolver() : new DPLineSolver()));
+					long t2 = System.nanoTime();
+					plain  = (t1-t0)/1e6;
+					cached = (t2-t1)/1e6;
+				}
+				System.out.printf("%-6s %5d %10.1f %10.1f %9.3f %8d %7d%n", bits ? "bit" : "DP", size, plain, cached,
+					cache.getHitRate(), cache.getSize(), cache.getMemoryBytes() / 1024);
+			}
+		}
+	}
+
+	/**
+	 * Solve a puzzle by search
+	 *
+	 * @param file the puzzle as a .non file
+	 * @param solver the line solver
+	 */
+	private static void search(String file, LineSolver solver) {
+		new SearchSolver(new Propagator(new Nonogram(new Scanner(file)), solver)).solve();
+	}
+
+	private static final int[] SIZES    = { 15, 20 };
+	private static final int   PUZZLES  = 40;
+	private static final int   PASSES   = 3;
+	private static final int   CAPACITY = 1 << 16;
+}
@@ -0,0 +1,138 @@
+package nonogram.solver;
+
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.List;
+import nonogram.NGPattern;
+import nonogram.Nonogram;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The test class LineCacheTest.
+ *
+ * @author  Daniel Dimuna
+ * @version October 2026
+ */
+public class LineCacheTest
+{
+    /**
+     * Default constructor for test class LineCacheTest
+     */
+    public LineCacheTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+        cache = new LineCache(1024);
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+    }
+
+    @Test
+    public void cachedResultsMatch() {
+        LineSolver cached = new CachingLineSolver(cache, new DPLineSolver());
+        DPLineSolverTest.checkAgainst(new DPLineSolver(), cached, 5, 20, 500);
+        long misses = cache.getMisses();
+        DPLineSolverTest.checkAgainst(new DPLineSolver(), cached, 5, 20, 500); // the same lines again
+        assertTrue(cache.getHits() > 0);
+        assertTrue(cache.getMisses() - misses < 500);
+        assertTrue(cache.getHitRate() > 0.0);
+    }
+
+    @Test
+    public void cachesContradictions() {
+        LineSolver cached = new CachingLineSolver(cache, new DPLineSolver());
+        NGPattern pat = NGPattern.intern(new int[] {2, 1}, 5);
+        for (int t=0; t<2; t++) {
+            byte[] line = {Nonogram.FULL, Nonogram.EMPTY, Nonogram.UNKNOWN, Nonogram.UNKNOWN, Nonogram.UNKNOWN};
+            assertFalse(cached.solve(pat, line));
+        }
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void cachesLinesWithNothingForced() {
+        LineSolver cached = new CachingLineSolver(cache, new DPLineSolver());
+        NGPattern pat = NGPattern.intern(new int[] {1}, 6);
+        for (int t=0; t<2; t++) {
+            byte[] line = new byte[6];
+            java.util.Arrays.fill(line, (byte) Nonogram.UNKNOWN);
+            assertTrue(cached.solve(pat, line));
+        }
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void staysWithinCapacity() {
+        LineSolver cached = new CachingLineSolver(cache, new DPLineSolver());
+        DPLineSolverTest.checkAgainst(new DPLineSolver(), cached, 20, 60, 5000);
+        assertEquals(1024, cache.getCapacity());
+        assertTrue(cache.getSize() <= cache.getCapacity());
+        assertTrue(cache.getEvictions() > 0);
+        assertTrue(cache.getMemoryBytes() > 0);
+        cache.clear();
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void sharedAcrossThreads() throws InterruptedException {
+        final List<Throwable> failures = new ArrayList<Throwable>();
+        Thread[] threads = new Thread[4];
+        for (int t=0; t<threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    DPLineSolverTest.checkAgainst(new DPLineSolver(), new CachingLineSolver(cache, new BitLineSolver()), 5, 30, 2000);
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads)
+            t.join();
+        assertTrue(failures.toString(), failures.isEmpty());
+        assertTrue(cache.getHits() > 0);
+    }
+
+    @Test
+    public void incompleteSolversKeepOffTheSharedCache() {
+        try {
+            new CachingLineSolver(LineCache.shared(), new OverlapLineSolver());
+            fail("an incomplete solver was allowed on the shared cache");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertFalse(new CachingLineSolver(cache, new OverlapLineSolver()).isComplete());
+        assertTrue(new CachingLineSolver().isComplete());
+
+        NGPattern pat = NGPattern.intern(new int[] {1, 1}, 8);
+        byte[] expected = {2, 2, 0, 1, 2, 2, 2, 2};
+        byte[] line     = expected.clone();
+        assertTrue(new DPLineSolver().solve(pat, expected));
+        assertEquals(Nonogram.EMPTY, expected[4]);
+        assertTrue(new CachingLineSolver().solve(pat, line));
+        assertArrayEquals(expected, line);
+    }
+
+    private LineCache cache = null;
+}
@@ -0,0 +1,48 @@
+package nonogram.solver;
+
+/**
+ * Decides the order in which a Propagator line solves its queued lines. Lines
+ * are numbered rows first, then columns, and a line is queued at most once: add()
+ * on a line already queued records that another of its cells has changed, which
+ * a scheduler may use to move it forward. The order never changes the result of
+ * propagation (with a complete line solver), only how many line solves it takes
+ * to get there. A scheduler belongs to one Propagator.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public interface LineScheduler {
+	/**
+	 * Prepare for a puzzle's lines, emptying the queue
+	 *
+	 * @param slack per line, its length minus the minimum length of its pattern
+	 * @param unknown per line, its number of UNKNOWN cells (kept up to date by the propagator, only read here)
+	 */
+	void init(int[] slack, int[] unknown);
+
+	/**
+	 * Queue a line, or note another change to it if it is already queued
+	 *
+	 * @param l the line number (rows first, then columns)
+	 */
+	void add(int l);
+
+	/**
+	 * Remove the next line to solve from the queue
+	 *
+	 * @return the line number (the queue must not be empty)
+	 */
+	int poll();
+
+	/**
+	 * Is the queue empty?
+	 *
+	 * @return true if no line is queued, otherwise false
+	 */
+	boolean isEmpty();
+
+	/**
+	 * Empty the queue
+	 */
+	void clear();
+}
@@ -0,0 +1,62 @@
+package nonogram.solver;
+
+import java.util.Random;
+import java.util.Scanner;
+import java.util.function.Supplier;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+
+/**
+ * Compares line schedulers by the number of line solves and the time a
+ * SearchSolver (propagation and search) needs to solve the same random puzzles,
+ * at a few sizes. Run with "java nonogram.solver.LineSchedulerBenchmark".
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class LineSchedulerBenchmark {
+	public static void main(String[] args) {
+		System.out.println("  size  scheduler  line solves/puzzle   ms/puzzle");
+		for (int size : SIZES) {
+			Random rnd = new Random(size);
+			String[] files = new String[PUZZLES];
+			for (int i=0; i<PUZZLES; i++)
+				files[i] = PuzzleGenerator.toNonFile(PuzzleGenerator.randomGoal(size, size, 0.6, rnd));
+			report(size, "fifo",  files, () -> new FifoLineScheduler());
+			report(size, "slack", files, () -> new SlackLineScheduler());
+		}
+	}
+
+	/**
+	 * Solve every puzzle with a scheduler and print the line solves and time per puzzle
+	 *
+	 * @param size the puzzle size
+	 * @param name the scheduler name
+	 * @param files the puzzles as .non files
+	 * @param scheduler creates a scheduler for each puzzle
+	 */
+	private static void report(int size, String name, String[] files, Supplier<LineScheduler> scheduler) {
+		long   solves = 0;
+		double ms     = 0;
+		for (int pass=0; pass<PASSES; pass++) { // only the last pass is reported
+			Nonogram[] puzzles = new Nonogram[files.length];
+			for (int i=0; i<files.length; i++)
+				puzzles[i] = new Nonogram(new Scanner(files[i]));
+			solves = 0;
+			long t0 = System.nanoTime();
+			for (Nonogram ng : puzzles) {
+				Propagator prop = new Propagator(ng, new HybridLineSolver(), scheduler.get());
+				if (new SearchSolver(prop).solve() == null)
+					throw new IllegalStateException("puzzle not solved");
+				solves += prop.getLineSolves();
+			}
+			ms = (System.nanoTime() - t0) / 1e6;
+		}
+		System.out.printf("%3dx%-3d %-9s %19.1f %11.3f%n", size, size, name, (double) solves / files.length,
+			ms / files.length);
+	}
+
+	private static final int[] SIZES   = { 15, 20, 30 };
+	private static final int   PUZZLES = 200;
+	private static final int   PASSES  = 5;
+}
@@ -0,0 +1,34 @@
+package nonogram.solver;
+
+import nonogram.NGPattern;
+
+/**
+ * Deduces the cells of a single row or column from its pattern: an UNKNOWN cell
+ * that has the same state in all valid completions of the line is set to that
+ * state. A complete line solver sets every such cell, a cheaper one may set only
+ * some. Implementations may keep scratch space, so an instance should not be
+ * shared between threads.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public interface LineSolver {
+	/**
+	 * Set the forced cells of a line
+	 *
+	 * @param pat the pattern the line must match
+	 * @param line the first pat.getMaxLen() cells hold the line (updated in place, known cells are never changed)
+	 * @return true if the line has at least one valid completion, false if it is a contradiction
+	 */
+	boolean solve(NGPattern pat, byte[] line);
+
+	/**
+	 * Does this solver set every forced cell? Complete solvers all give the same result for a line,
+	 * so they can share cached results.
+	 *
+	 * @return true if it is complete, otherwise false
+	 */
+	default boolean isComplete() {
+		return false;
+	}
+}
@@ -0,0 +1,120 @@
+package nonogram.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+import nonogram.NGPattern;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+
+/**
+ * Compares the per-cell dynamic programming line solver with the bit-parallel one
+ * on the lines met while propagating random puzzles of common sizes, and times a
+ * whole propagation with each. Run with "java nonogram.solver.LineSolverBenchmark".
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class LineSolverBenchmark {
+	public static void main(String[] args) {
+		Random rnd = new Random(1L);
+		System.out.println(" size    lines   DP line   bit line  speedup   DP prop  bit prop   (us)");
+		for (int size : SIZES) {
+			List<NGPattern> pats  = new ArrayList<NGPattern>();
+			List<byte[]>    lines = new ArrayList<byte[]>();
+			List<String>    files = new ArrayList<String>();
+			for (int p=0; p<PUZZLES; p++) {
+				String file = PuzzleGenerator.toNonFile(PuzzleGenerator.randomGoal(size, size, 0.6, rnd));
+				files.add(file);
+				collectLines(new Nonogram(new Scanner(file)), pats, lines);
+			}
+			LineSolver dp   = new DPLineSolver();
+			LineSolver bits = new BitLineSolver();
+			int    reps = Math.max(1, 2000000 / (size * lines.size()));
+			double dl = 0, bl = 0, dprop = 0, bprop = 0;
+			int    sum = 0;
+			for (int pass=0; pass<PASSES; pass++) { // only the last pass is reported
+				long t0 = System.nanoTime();
+				sum += timeLines(dp, pats, lines, reps);
+				long t1 = System.nanoTime();
+				sum += timeLines(bits, pats, lines, reps);
+				long t2 = System.nanoTime();
+				sum += timePropagate(files, new DPLineSolver());
+				long t3 = System.nanoTime();
+				sum += timePropagate(files, new BitLineSolver());
+				long t4 = System.nanoTime();
+				double solves = 1000.0 * reps * lines.size();
+				dl    = (t1-t0)/solves;
+				bl    = (t2-t1)/solves;
+				dprop = (t3-t2)/(1000.0 * files.size());
+				bprop = (t4-t3)/(1000.0 * files.size());
+			}
+			System.out.printf("%5d %8d %9.3f %10.3f %7.1fx %9.1f %9.1f   (%d)%n",
+				size, lines.size(), dl, bl, dl/bl, dprop, bprop, sum);
+		}
+	}
+
+	/**
+	 * Record every line state a propagation of a puzzle line solves, by running it with a recording solver
+	 *
+	 * @param ng the puzzle
+	 * @param pats the patterns of the lines (appended to)
+	 * @param lines the line states before solving (appended to)
+	 */
+	private static void collectLines(Nonogram ng, final List<NGPattern> pats, final List<byte[]> lines) {
+		final LineSolver dp = new DPLineSolver();
+		new Propagator(ng, new LineSolver() {
+			@Override
+			public boolean solve(NGPattern pat, byte[] line) {
+				pats.add(pat);
+				lines.add(java.util.Arrays.copyOf(line, pat.getMaxLen()));
+				return dp.solve(pat, line);
+			}
+		}).propagate();
+	}
+
+	/**
+	 * Line solve copies of recorded lines
+	 *
+	 * @param solver the line solver
+	 * @param pats the patterns
+	 * @param lines the line states
+	 * @param reps the number of times to solve each line
+	 * @return a checksum, so the work is not optimised away
+	 */
+	private static int timeLines(LineSolver solver, List<NGPattern> pats, List<byte[]> lines, int reps) {
+		byte[] work = new byte[MAX_SIZE];
+		int    sum  = 0;
+		for (int r=0; r<reps; r++) {
+			for (int i=0; i<lines.size(); i++) {
+				byte[] line = lines.get(i);
+				System.arraycopy(line, 0, work, 0, line.length);
+				sum += solver.solve(pats.get(i), work) ? work[line.length/2] : 0;
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Propagate fresh copies of puzzles
+	 *
+	 * @param files the puzzles as .non files
+	 * @param solver the line solver
+	 * @return the number of cells set, so the work is not optimised away
+	 */
+	private static int timePropagate(List<String> files, LineSolver solver) {
+		int sum = 0;
+		for (String file : files) {
+			Propagator prop = new Propagator(new Nonogram(new Scanner(file)), solver);
+			prop.propagate();
+			sum += (int) prop.getCellsSet();
+		}
+		return sum;
+	}
+
+	private static final int[] SIZES    = { 15, 25, 50 };
+	private static final int   MAX_SIZE = 50;
+	private static final int   PUZZLES  = 20;
+	private static final int   PASSES   = 5;
+}
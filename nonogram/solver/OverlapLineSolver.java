@@ -0,0 +1,18 @@
+package nonogram.solver;
+
+import nonogram.NGPattern;
+
+/**
+ * A line solver that only makes the leftmost/rightmost placement deductions (see
+ * NGPattern.overlap()). It costs O(n) per line but may leave forced cells UNKNOWN,
+ * so it suits hints and cheap first passes rather than finishing a puzzle.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class OverlapLineSolver implements LineSolver {
+	@Override
+	public boolean solve(NGPattern pat, byte[] line) {
+		return pat.overlap(line);
+	}
+}
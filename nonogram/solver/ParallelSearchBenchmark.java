@@ -0,0 +1,58 @@
+package nonogram.solver;
+
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+
+/**
+ * Times SearchSolver and ParallelSearchSolver with growing pool sizes on a fixed
+ * set of random 30x30 puzzles that need thousands of search nodes, timing the
+ * search for a first solution. Which branch finds it first depends on thread
+ * timing, so the node counts of the parallel runs vary from run to run.
+ * Run with "java nonogram.solver.ParallelSearchBenchmark".
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class ParallelSearchBenchmark {
+	public static void main(String[] args) {
+		Nonogram[] puzzles = new Nonogram[SEEDS.length];
+		for (int i=0; i<SEEDS.length; i++)
+			puzzles[i] = new Nonogram(new Scanner(PuzzleGenerator.randomNonFile(SIZE, SIZE, 0.5, SEEDS[i])));
+		int cores = Runtime.getRuntime().availableProcessors();
+		System.out.println(cores + " cores");
+		System.out.println(" threads      ms     nodes  speedup");
+		double base = 0;
+		for (int threads=0; threads<=cores; threads=(threads == 0) ? 1 : 2*threads) {
+			ForkJoinPool pool  = (threads == 0) ? null : new ForkJoinPool(threads);
+			long         nodes = 0;
+			double       ms    = 0;
+			for (int pass=0; pass<PASSES; pass++) { // only the last pass is reported
+				nodes = 0;
+				long t0 = System.nanoTime();
+				for (Nonogram ng : puzzles) {
+					if (pool == null) {
+						SearchSolver search = new SearchSolver(new Nonogram(ng));
+						search.solve();
+						nodes += search.getNodes();
+					} else {
+						ParallelSearchSolver search = new ParallelSearchSolver(ng, pool);
+						search.solve();
+						nodes += search.getNodes();
+					}
+				}
+				ms = (System.nanoTime() - t0) / 1e6;
+			}
+			if (threads == 0)
+				base = ms;
+			System.out.printf("%8s %7.0f %9d %7.2fx%n", (threads == 0) ? "seq" : "" + threads, ms, nodes, base/ms);
+			if (pool != null)
+				pool.shutdown();
+		}
+	}
+
+	private static final int    SIZE   = 30;
+	private static final long[] SEEDS  = { 2, 15, 23, 25, 41, 51, 57 };
+	private static final int    PASSES = 2;
+}
@@ -0,0 +1,237 @@
+package nonogram.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import nonogram.Nonogram;
+import nonogram.NonogramSnapshot;
+
+/**
+ * A parallel version of SearchSolver on a ForkJoinPool. Each worker thread
+ * searches in its own copy of the puzzle with its own Propagator and trail. At a
+ * branch point the EMPTY branch is forked as a new task (holding a snapshot of
+ * the worker's puzzle) only while the worker's own queue is nearly empty, so the
+ * search splits finely while workers are idle and runs sequentially once there
+ * is enough work queued. Every worker stops as soon as the requested number of
+ * solutions has been found. The puzzle passed in is only read.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class ParallelSearchSolver {
+	/**
+	 * Constructor using the common pool
+	 *
+	 * @param ng the puzzle to solve
+	 */
+	public ParallelSearchSolver(Nonogram ng) {
+		this(ng, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param ng the puzzle to solve
+	 * @param pool the pool to search in
+	 */
+	public ParallelSearchSolver(Nonogram ng, ForkJoinPool pool) {
+		if (ng == null)
+			throw new IllegalArgumentException("ng cannot be null");
+		if (pool == null)
+			throw new IllegalArgumentException("pool cannot be null");
+		this.ng   = ng;
+		this.pool = pool;
+	}
+
+	/**
+	 * Search for a solution, starting from the current cell states of the puzzle
+	 *
+	 * @return a solution (cell states by row and column), or null if the puzzle has no solution
+	 */
+	public int[][] solve() {
+		List<int[][]> sols = solve(1);
+		return sols.isEmpty() ? null : sols.get(0);
+	}
+
+	/**
+	 * Search for solutions, starting from the current cell states of the puzzle
+	 *
+	 * @param maxSolutions the number of solutions after which to stop
+	 * @return the solutions found (at most maxSolutions, in no particular order)
+	 */
+	public List<int[][]> solve(int maxSolutions) {
+		if (maxSolutions < 1)
+			throw new IllegalArgumentException("maxSolutions must be at least 1");
+		Run run = new Run(new Nonogram(ng), maxSolutions);
+		pool.invoke(new Branch(run, run.start.snapshot(), -1, Nonogram.UNKNOWN));
+		nodes = run.nodes.get();
+		return run.solutions;
+	}
+
+	/**
+	 * Retrieve the number of search nodes (propagations) in the last solve(), over all workers
+	 *
+	 * @return the number of nodes
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * The state shared by the tasks of one solve()
+	 */
+	private static class Run {
+		Run(Nonogram start, int maxSolutions) {
+			this.start        = start;
+			this.maxSolutions = maxSolutions;
+		}
+
+		/**
+		 * Retrieve the current thread's worker for this solve, making it on the thread's first task
+		 *
+		 * @return the worker
+		 */
+		Worker worker() {
+			return workers.computeIfAbsent(Thread.currentThread(), t -> new Worker(this));
+		}
+
+		/**
+		 * Record a solution found in a worker's puzzle
+		 *
+		 * @param ng the worker's puzzle
+		 */
+		synchronized void addSolution(Nonogram ng) {
+			if (done)
+				return;
+			int[][] sol = new int[ng.getNumRows()][ng.getNumCols()];
+			for (int row=0; row<sol.length; row++)
+				for (int col=0; col<sol[row].length; col++)
+					sol[row][col] = ng.getState(row, col);
+			solutions.add(sol);
+			if (solutions.size() >= maxSolutions)
+				done = true;
+		}
+
+		final Nonogram                 start;        // copy of the puzzle that the workers copy
+		final int                      maxSolutions;
+		final List<int[][]>            solutions = new ArrayList<int[][]>();
+		final AtomicLong               nodes     = new AtomicLong();
+		final Map<Thread, Worker>      workers   = new ConcurrentHashMap<Thread, Worker>(); // dropped with the run, so pool threads keep nothing
+		volatile boolean               done      = false;
+	}
+
+	/**
+	 * The puzzle copy, propagator and trail of one worker thread
+	 */
+	private static class Worker {
+		Worker(Run run) {
+			synchronized (run) { // the start puzzle is shared, so copy it one worker at a time
+				this.ng = new Nonogram(run.start);
+			}
+			this.search = new SearchSolver(ng);
+			this.prop   = search.getPropagator();
+		}
+
+		final Nonogram     ng;
+		final SearchSolver search; // for its branching heuristic
+		final Propagator   prop;
+	}
+
+	/**
+	 * A subtree of the search: the puzzle in a snapshot state, with one cell guessed
+	 */
+	private static class Branch extends RecursiveAction {
+		/**
+		 * Constructor
+		 *
+		 * @param run the shared state of the solve
+		 * @param snap the cell states before the guess
+		 * @param cell the guessed cell (row*numCols + col), or -1 for the root
+		 * @param state the guessed state
+		 */
+		Branch(Run run, NonogramSnapshot snap, int cell, int state) {
+			this.run   = run;
+			this.snap  = snap;
+			this.cell  = cell;
+			this.state = state;
+		}
+
+		@Override
+		protected void compute() {
+			if (run.done)
+				return;
+			Worker w = run.worker();
+			w.ng.restore(snap);
+			w.prop.clearTrail();
+			if (cell < 0) {
+				w.prop.queueAll();
+			} else {
+				int numCols = w.ng.getNumCols();
+				w.prop.assign(cell / numCols, cell % numCols, state);
+			}
+			List<Branch> forked = new ArrayList<Branch>();
+			search(w, forked);
+			for (Branch b : forked)
+				b.join();
+		}
+
+		/**
+		 * Propagate the queued lines, and if the puzzle is not yet solved, branch on a cell,
+		 * forking the EMPTY branch while this worker has little queued work
+		 *
+		 * @param w the worker
+		 * @param forked the branches forked (appended to)
+		 */
+		private void search(Worker w, List<Branch> forked) {
+			if (run.done)
+				return;
+			run.nodes.incrementAndGet();
+			if (!w.prop.run())
+				return;
+			int pick = w.search.pickCell();
+			if (pick < 0) {
+				if (w.ng.isSolved())
+					run.addSolution(w.ng);
+				return;
+			}
+			int numCols = w.ng.getNumCols();
+			int row     = pick / numCols;
+			int col     = pick % numCols;
+			int mark    = w.prop.getTrailSize();
+			boolean split = getSurplusQueuedTaskCount() < SPLIT_SURPLUS;
+			if (split) {
+				Branch b = new Branch(run, w.ng.snapshot(), pick, Nonogram.EMPTY);
+				b.fork();
+				forked.add(b);
+			}
+			w.prop.assign(row, col, Nonogram.FULL);
+			search(w, forked);
+			w.prop.undo(mark);
+			if (split)
+				return;
+			w.prop.assign(row, col, Nonogram.EMPTY);
+			search(w, forked);
+			w.prop.undo(mark);
+		}
+
+		private static final long serialVersionUID = 1L;
+
+		private final Run              run;
+		private final NonogramSnapshot snap;
+		private final int              cell;
+		private final int              state;
+	}
+
+	/**
+	 * Fork a branch only while fewer than this many of the worker's tasks are waiting to be stolen
+	 */
+	private static final int SPLIT_SURPLUS = 2;
+
+	private final Nonogram     ng;
+	private final ForkJoinPool pool;
+	private long               nodes = 0;
+}
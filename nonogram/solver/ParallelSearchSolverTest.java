@@ -0,0 +1,107 @@
+package nonogram.solver;
+
+import static org.junit.Assert.*;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The test class ParallelSearchSolverTest.
+ *
+ * @author  Daniel Dimuna
+ * @version October 2026
+ */
+public class ParallelSearchSolverTest
+{
+    /**
+     * Default constructor for test class ParallelSearchSolverTest
+     */
+    public ParallelSearchSolverTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+        pool = new ForkJoinPool(4);
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void solvesRandomPuzzles() {
+        Random rnd = new Random(3L);
+        for (int t=0; t<20; t++) {
+            Nonogram ng = new Nonogram(new Scanner(PuzzleGenerator.randomNonFile(20, 20, 0.5, rnd.nextLong())));
+            int[][] sol = new ParallelSearchSolver(ng, pool).solve();
+            assertNotNull(sol);
+            assertEquals(0, countKnown(ng)); // the puzzle passed in is only read
+            for (int row=0; row<20; row++)
+                for (int col=0; col<20; col++)
+                    ng.setState(row, col, sol[row][col]);
+            assertTrue(ng.isSolved());
+        }
+    }
+
+    @Test
+    public void reportsUnsolvable() {
+        Nonogram ng = new Nonogram(new Scanner(PropagatorTest.TINY));
+        ng.setState(0, 0, Nonogram.EMPTY); // goal has FULL here, and tiny has a unique solution
+        ParallelSearchSolver search = new ParallelSearchSolver(ng, pool);
+        assertNull(search.solve());
+        assertTrue(search.getNodes() >= 1);
+    }
+
+    @Test
+    public void stopsAtMaxSolutions() {
+        Nonogram ng = new Nonogram(new Scanner(PERMUTATIONS)); // 5! = 120 solutions
+        ParallelSearchSolver search = new ParallelSearchSolver(ng, pool);
+        List<int[][]> sols = search.solve(7);
+        assertEquals(7, sols.size());
+        for (int i=0; i<sols.size(); i++)
+            for (int j=0; j<i; j++)
+                assertFalse(java.util.Arrays.deepEquals(sols.get(i), sols.get(j)));
+        assertEquals(120, search.solve(1000).size());
+        assertEquals(1, new ParallelSearchSolver(new Nonogram(new Scanner(PropagatorTest.TINY)), pool).solve(2).size());
+    }
+
+    /**
+     * Count the known cells of a puzzle
+     *
+     * @param ng the puzzle
+     * @return the number of cells that are not UNKNOWN
+     */
+    private static int countKnown(Nonogram ng) {
+        int known = 0;
+        for (int row=0; row<ng.getNumRows(); row++)
+            for (int col=0; col<ng.getNumCols(); col++)
+                if (ng.getState(row, col) != Nonogram.UNKNOWN)
+                    known++;
+        return known;
+    }
+
+    static final String PERMUTATIONS =
+        "width 5\nheight 5\n\nrows\n1\n1\n1\n1\n1\n\ncolumns\n1\n1\n1\n1\n1\n";
+
+    private ForkJoinPool pool = null;
+}
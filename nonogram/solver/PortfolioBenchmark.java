@@ -0,0 +1,80 @@
+package nonogram.solver;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Scanner;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+
+/**
+ * Compares the solve time distribution of SearchSolver with that of a
+ * PortfolioSolver over a stream of random puzzles, where a few puzzles take far
+ * longer than the rest under any one branching order. Run with
+ * "java nonogram.solver.PortfolioBenchmark [configurations]".
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class PortfolioBenchmark {
+	public static void main(String[] args) {
+		int n = (args.length > 0) ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		Random     rnd     = new Random(7L);
+		Nonogram[] puzzles = new Nonogram[PUZZLES];
+		for (int i=0; i<PUZZLES; i++)
+			puzzles[i] = new Nonogram(new Scanner(PuzzleGenerator.randomNonFile(SIZE, SIZE, 0.5, rnd.nextLong())));
+
+		double[] single = new double[PUZZLES];
+		for (int i=0; i<PUZZLES; i++) {
+			long t0 = System.nanoTime();
+			new SearchSolver(new Nonogram(puzzles[i])).solve();
+			single[i] = (System.nanoTime() - t0) / 1e6;
+		}
+
+		PortfolioSolver portfolio = new PortfolioSolver(n);
+		double[] raced = new double[PUZZLES];
+		for (int i=0; i<PUZZLES; i++) {
+			long t0 = System.nanoTime();
+			portfolio.solve(puzzles[i]);
+			raced[i] = (System.nanoTime() - t0) / 1e6;
+		}
+		portfolio.shutdown();
+
+		System.out.println(PUZZLES + " puzzles " + SIZE + "x" + SIZE + ", " + n + " configurations, "
+			+ Runtime.getRuntime().availableProcessors() + " cores");
+		System.out.println("               mean      p50      p90      p99      max   (ms)");
+		report("single", single);
+		report("portfolio", raced);
+		System.out.println("wins: " + portfolio.getWins());
+	}
+
+	/**
+	 * Print the mean and percentiles of a set of times
+	 *
+	 * @param name the row name
+	 * @param ms the times
+	 */
+	private static void report(String name, double[] ms) {
+		double[] sorted = ms.clone();
+		Arrays.sort(sorted);
+		double sum = 0;
+		for (double t : sorted)
+			sum += t;
+		System.out.printf("%-10s %9.1f %8.1f %8.1f %8.1f %8.1f%n", name, sum/sorted.length,
+			percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), sorted[sorted.length-1]);
+	}
+
+	/**
+	 * The nearest-rank percentile of sorted times
+	 *
+	 * @param sorted the times in ascending order
+	 * @param p the percentile
+	 * @return the time
+	 */
+	private static double percentile(double[] sorted, int p) {
+		int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+		return sorted[Math.max(0, rank - 1)];
+	}
+
+	private static final int SIZE    = 20;
+	private static final int PUZZLES = 100;
+}
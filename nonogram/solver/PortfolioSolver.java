@@ -0,0 +1,249 @@
+package nonogram.solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import nonogram.Nonogram;
+
+/**
+ * Races several differently configured SearchSolvers on the same puzzle, one per
+ * thread, and takes the first answer (a solution, or proof that there is none,
+ * since every configuration searches completely). The others are then cancelled,
+ * and solve() waits for them to stop, so the threads are free for the next
+ * puzzle. Each solver works on its own copy of the puzzle, sharing its parsed
+ * patterns. The number of wins of each configuration is kept, for tuning the
+ * portfolio on a stream of puzzles.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class PortfolioSolver {
+	/**
+	 * One configuration of the portfolio
+	 */
+	public static class Config {
+		/**
+		 * Constructor
+		 *
+		 * @param name the name to report wins under
+		 * @param heuristic how to pick the cell to branch on
+		 * @param seed the random seed (for the RANDOM heuristic)
+		 * @param restartNodes the number of nodes before the first restart (0 never restarts)
+		 */
+		public Config(String name, SearchSolver.Heuristic heuristic, long seed, long restartNodes) {
+			if (name == null)
+				throw new IllegalArgumentException("name cannot be null");
+			if (heuristic == null)
+				throw new IllegalArgumentException("heuristic cannot be null");
+			if (restartNodes < 0)
+				throw new IllegalArgumentException("restartNodes cannot be negative");
+			this.name         = name;
+			this.heuristic    = heuristic;
+			this.seed         = seed;
+			this.restartNodes = restartNodes;
+		}
+
+		/**
+		 * Create a search solver with this configuration
+		 *
+		 * @param ng the puzzle to solve
+		 * @return the solver
+		 */
+		public SearchSolver createSolver(Nonogram ng) {
+			SearchSolver search = new SearchSolver(new Propagator(ng), heuristic, seed);
+			search.setRestartNodes(restartNodes);
+			return search;
+		}
+
+		/**
+		 * Retrieve the name of the configuration
+		 *
+		 * @return the name
+		 */
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+
+		private final String                 name;
+		private final SearchSolver.Heuristic heuristic;
+		private final long                   seed;
+		private final long                   restartNodes;
+	}
+
+	/**
+	 * Constructor using the default portfolio of n configurations
+	 *
+	 * @param n the number of configurations (and threads)
+	 */
+	public PortfolioSolver(int n) {
+		this(defaultConfigs(n));
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param configs the configurations to race (one thread each), with different names
+	 */
+	public PortfolioSolver(List<Config> configs) {
+		if ((configs == null) || configs.isEmpty())
+			throw new IllegalArgumentException("configs cannot be null or empty");
+		this.configs = new ArrayList<Config>(configs);
+		for (Config c : this.configs) {
+			if (c == null)
+				throw new IllegalArgumentException("configs cannot contain null");
+			if (wins.put(c.getName(), 0) != null)
+				throw new IllegalArgumentException("configs cannot share a name (" + c.getName() + ")");
+		}
+		this.executor = Executors.newFixedThreadPool(this.configs.size(), r -> {
+			Thread t = new Thread(r, "portfolio");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * The default portfolio: most-constrained and largest-clue branching, then random branching with
+	 * restarts, each with its own seed
+	 *
+	 * @param n the number of configurations
+	 * @return the configurations
+	 */
+	public static List<Config> defaultConfigs(int n) {
+		if (n < 1)
+			throw new IllegalArgumentException("n must be at least 1");
+		List<Config> configs = new ArrayList<Config>();
+		configs.add(new Config("most-constrained", SearchSolver.Heuristic.MOST_CONSTRAINED, 0L, 0));
+		if (n > 1)
+			configs.add(new Config("largest-clue", SearchSolver.Heuristic.LARGEST_CLUE, 0L, 0));
+		for (int i=configs.size(); i<n; i++)
+			configs.add(new Config("random-" + i, SearchSolver.Heuristic.RANDOM, i, RESTART_NODES));
+		return configs;
+	}
+
+	/**
+	 * Solve a puzzle, starting from its current cell states. The puzzle itself is only read.
+	 *
+	 * @param ng the puzzle
+	 * @return the solution (cell states by row and column), or null if the puzzle has no solution
+	 */
+	public int[][] solve(Nonogram ng) {
+		if (ng == null)
+			throw new IllegalArgumentException("ng cannot be null");
+		int n = configs.size();
+		SearchSolver[] solvers = new SearchSolver[n];
+		for (int i=0; i<n; i++)
+			solvers[i] = configs.get(i).createSolver(new Nonogram(ng));
+		ExecutorCompletionService<Integer> done = new ExecutorCompletionService<Integer>(executor);
+		List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+		final int[][][] sols = new int[n][][];
+		for (int i=0; i<n; i++) {
+			final int index = i;
+			futures.add(done.submit(() -> {
+				sols[index] = solvers[index].solve();
+				return index;
+			}));
+		}
+		int won = -1;
+		try {
+			Future<Integer> first = done.take();
+			futures.remove(first);
+			won = first.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("portfolio solve interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("portfolio solver failed", e.getCause());
+		} finally {
+			// cancel the rest, and wait for them so the threads are free for the next puzzle
+			for (SearchSolver s : solvers)
+				s.cancel();
+			for (Future<Integer> f : futures) {
+				try {
+					f.get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} catch (ExecutionException e) {
+					// a loser failed after the race was decided
+				}
+			}
+		}
+		synchronized (wins) {
+			lastWinner = configs.get(won);
+			lastNodes  = solvers[won].getNodes();
+			wins.put(lastWinner.getName(), wins.get(lastWinner.getName()) + 1);
+		}
+		return sols[won];
+	}
+
+	/**
+	 * Retrieve the configuration that answered the last solve() first
+	 *
+	 * @return the configuration, or null before the first solve()
+	 */
+	public Config getLastWinner() {
+		synchronized (wins) {
+			return lastWinner;
+		}
+	}
+
+	/**
+	 * Retrieve the number of search nodes the winner of the last solve() used
+	 *
+	 * @return the number of nodes
+	 */
+	public long getLastNodes() {
+		synchronized (wins) {
+			return lastNodes;
+		}
+	}
+
+	/**
+	 * Retrieve the number of wins of each configuration so far
+	 *
+	 * @return the wins by configuration name (a copy, in portfolio order)
+	 */
+	public Map<String, Integer> getWins() {
+		synchronized (wins) {
+			return Collections.unmodifiableMap(new LinkedHashMap<String, Integer>(wins));
+		}
+	}
+
+	/**
+	 * Retrieve the configurations
+	 *
+	 * @return the configurations (unmodifiable)
+	 */
+	public List<Config> getConfigs() {
+		return Collections.unmodifiableList(configs);
+	}
+
+	/**
+	 * Stop the solver threads (the solver cannot be used afterwards)
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * The number of nodes before the first restart of the random configurations
+	 */
+	public static final long RESTART_NODES = 100;
+
+	private final List<Config>         configs;
+	private final ExecutorService      executor;
+	private final Map<String, Integer> wins       = new LinkedHashMap<String, Integer>(); // also guards lastWinner and lastNodes
+	private Config                     lastWinner = null;
+	private long                       lastNodes  = 0;
+}
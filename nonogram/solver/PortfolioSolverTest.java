@@ -0,0 +1,100 @@
+package nonogram.solver;
+
+import static org.junit.Assert.*;
+import java.util.Map;
+import java.util.Random;
+import java.util.Scanner;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The test class PortfolioSolverTest.
+ *
+ * @author  Daniel Dimuna
+ * @version October 2026
+ */
+public class PortfolioSolverTest
+{
+    /**
+     * Default constructor for test class PortfolioSolverTest
+     */
+    public PortfolioSolverTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+        portfolio = new PortfolioSolver(4);
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+        portfolio.shutdown();
+    }
+
+    @Test
+    public void solvesAndRecordsWinners() {
+        Random rnd = new Random(3L);
+        for (int t=0; t<10; t++) {
+            Nonogram ng = new Nonogram(new Scanner(PuzzleGenerator.randomNonFile(20, 20, 0.5, rnd.nextLong())));
+            int[][] sol = portfolio.solve(ng);
+            assertNotNull(sol);
+            assertNotNull(portfolio.getLastWinner());
+            for (int row=0; row<20; row++)
+                for (int col=0; col<20; col++)
+                    ng.setState(row, col, sol[row][col]);
+            assertTrue(ng.isSolved());
+        }
+        int total = 0;
+        for (int w : portfolio.getWins().values())
+            total += w;
+        assertEquals(10, total);
+    }
+
+    @Test
+    public void reportsUnsolvable() {
+        Nonogram ng = new Nonogram(new Scanner(PropagatorTest.TINY));
+        ng.setState(0, 0, Nonogram.EMPTY); // goal has FULL here, and tiny has a unique solution
+        assertNull(portfolio.solve(ng));
+        assertEquals(Nonogram.UNKNOWN, ng.getState(0, 1)); // the puzzle passed in is only read
+    }
+
+    @Test
+    public void defaultConfigs() {
+        Map<String, Integer> wins = portfolio.getWins();
+        assertEquals(4, wins.size());
+        assertTrue(wins.containsKey("most-constrained"));
+        assertTrue(wins.containsKey("largest-clue"));
+        assertTrue(wins.containsKey("random-2"));
+        assertTrue(wins.containsKey("random-3"));
+    }
+
+    @Test
+    public void rejectsSharedNames() {
+        PortfolioSolver.Config a = new PortfolioSolver.Config("same", SearchSolver.Heuristic.MOST_CONSTRAINED, 0L, 0);
+        PortfolioSolver.Config b = new PortfolioSolver.Config("same", SearchSolver.Heuristic.RANDOM, 1L, 0);
+        try {
+            new PortfolioSolver(java.util.Arrays.asList(a, b));
+            fail("two configurations shared a name, so their wins would be counted together");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private PortfolioSolver portfolio = null;
+}
@@ -0,0 +1,294 @@
+package nonogram.solver;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import nonogram.Nonogram;
+import nonogram.NonogramSnapshot;
+
+/**
+ * Probing for puzzles that line propagation alone cannot finish. Each UNKNOWN
+ * cell is tried as FULL and as EMPTY on a scratch copy of the puzzle, and each
+ * try is propagated. If one try leads to a contradiction the cell must take the
+ * other state, and any cell that both tries set to the same state must take that
+ * state. The probes of a round all start from the same propagated state and are
+ * independent, so they run in parallel on a ForkJoinPool, each worker thread
+ * probing on its own puzzle copy. Their deductions are then merged into the
+ * puzzle in cell order, so the result does not depend on thread timing, and the
+ * puzzle is propagated again before the next round.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class Prober {
+	/**
+	 * Constructor using the common pool
+	 *
+	 * @param ng the puzzle to solve
+	 */
+	public Prober(Nonogram ng) {
+		this(ng, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param ng the puzzle to solve
+	 * @param pool the pool to probe in
+	 */
+	public Prober(Nonogram ng, ForkJoinPool pool) {
+		if (ng == null)
+			throw new IllegalArgumentException("ng cannot be null");
+		if (pool == null)
+			throw new IllegalArgumentException("pool cannot be null");
+		this.ng      = ng;
+		this.pool    = pool;
+		this.prop    = new Propagator(ng);
+		this.numRows = ng.getNumRows();
+		this.numCols = ng.getNumCols();
+		this.cells   = new int[numRows * numCols];
+		this.results = new int[numRows * numCols][];
+	}
+
+	/**
+	 * Propagate, then probe and propagate in rounds until a round deduces nothing
+	 *
+	 * @return true if no contradiction was found, false if the puzzle has no solution
+	 */
+	public boolean run() {
+		try {
+			if (!prop.propagate())
+				return false;
+			while (true) {
+				int set = probeRound();
+				if (set < 0)
+					return false;
+				if (set == 0)
+					return true;
+				if (!prop.run())
+					return false;
+			}
+		} finally {
+			workers.clear(); // the puzzle copies are only needed while probing
+		}
+	}
+
+	/**
+	 * Probe every UNKNOWN cell once, from the current state (which should already be propagated),
+	 * and set the cells deduced, queueing their lines in the propagator. The worker copies of the
+	 * puzzle are kept for the next round (run() drops them when it is done).
+	 *
+	 * @return the number of cells set, or -1 if the puzzle has no solution
+	 */
+	public int probeRound() {
+		rounds++;
+		numCells = 0;
+		for (int row=0; row<numRows; row++)
+			for (int col=0; col<numCols; col++)
+				if (ng.getState(row, col) == Nonogram.UNKNOWN)
+					cells[numCells++] = row * numCols + col;
+		if (numCells == 0)
+			return 0;
+		pool.invoke(new Probes(ng.snapshot(), 0, numCells));
+		probes += numCells;
+
+		// merge in cell order
+		int set = 0;
+		for (int i=0; i<numCells; i++) {
+			int[] found = results[i];
+			results[i] = null;
+			if (found == null)
+				continue;
+			if (found == CONTRADICTION)
+				return -1;
+			for (int d : found) {
+				int cell  = d >>> 2;
+				int row   = cell / numCols;
+				int col   = cell % numCols;
+				int state = d & 3;
+				int now   = ng.getState(row, col);
+				if (now == state)
+					continue;
+				if (now != Nonogram.UNKNOWN)
+					return -1; // two sound deductions disagree
+				prop.assign(row, col, state);
+				set++;
+			}
+		}
+		cellsSet += set;
+		return set;
+	}
+
+	/**
+	 * Retrieve the propagator used on the puzzle (its trail holds every cell set by run())
+	 *
+	 * @return the propagator
+	 */
+	public Propagator getPropagator() {
+		return prop;
+	}
+
+	/**
+	 * Retrieve the number of probing rounds so far
+	 *
+	 * @return the number of rounds
+	 */
+	public int getRounds() {
+		return rounds;
+	}
+
+	/**
+	 * Retrieve the number of cells probed so far (each probed both ways)
+	 *
+	 * @return the number of probes
+	 */
+	public long getProbes() {
+		return probes;
+	}
+
+	/**
+	 * Retrieve the number of cells set by probing (not counting the propagation that followed)
+	 *
+	 * @return the number of cells set
+	 */
+	public long getCellsSet() {
+		return cellsSet;
+	}
+
+	/**
+	 * The puzzle copy, propagator and scratch of one worker thread
+	 */
+	private class Worker {
+		Worker() {
+			synchronized (Prober.this) { // the puzzle is only read during a round, but copy it one worker at a time
+				this.ng = new Nonogram(Prober.this.ng);
+			}
+			this.prop    = new Propagator(ng);
+			this.stamp   = new int[numRows * numCols];
+			this.state   = new byte[numRows * numCols];
+			this.agreed  = new int[numRows * numCols];
+		}
+
+		/**
+		 * Probe a cell both ways from the round's state
+		 *
+		 * @param cell the cell (row*numCols + col)
+		 * @return null if nothing was deduced, CONTRADICTION if neither state is possible, otherwise
+		 *         the deduced cells as (cell << 2) | state
+		 */
+		int[] probe(int cell) {
+			int row = cell / numCols;
+			int col = cell % numCols;
+			probeId++;
+
+			// FULL: remember every cell it sets
+			prop.assign(row, col, Nonogram.FULL);
+			boolean fullOk = prop.run();
+			if (fullOk) {
+				for (int t=0; t<prop.getTrailSize(); t++) {
+					int c = prop.getTrailCell(t);
+					stamp[c] = probeId;
+					state[c] = (byte) ng.getState(c / numCols, c % numCols);
+				}
+			}
+			prop.undo(0);
+
+			// EMPTY: keep the cells it sets the same way as FULL did
+			prop.assign(row, col, Nonogram.EMPTY);
+			boolean emptyOk = prop.run();
+			int n = 0;
+			if (fullOk && emptyOk) {
+				for (int t=0; t<prop.getTrailSize(); t++) {
+					int c = prop.getTrailCell(t);
+					byte s = (byte) ng.getState(c / numCols, c % numCols);
+					if ((stamp[c] == probeId) && (state[c] == s))
+						n = add(n, c, s);
+				}
+			}
+			prop.undo(0);
+
+			if (!fullOk && !emptyOk)
+				return CONTRADICTION;
+			if (!fullOk)
+				n = add(n, cell, Nonogram.EMPTY);
+			else if (!emptyOk)
+				n = add(n, cell, Nonogram.FULL);
+			if (n == 0)
+				return null;
+			return Arrays.copyOf(agreed, n);
+		}
+
+		/**
+		 * Append a deduction to the scratch list
+		 *
+		 * @param n the length of the list
+		 * @param cell the cell
+		 * @param s the state
+		 * @return the new length of the list
+		 */
+		private int add(int n, int cell, int s) {
+			agreed[n] = (cell << 2) | s;
+			return n + 1;
+		}
+
+		final Nonogram   ng;
+		final Propagator prop;
+		final int[]      stamp;   // probeId of the FULL try that set the cell
+		final byte[]     state;   // the state the FULL try set
+		final int[]      agreed;  // scratch for the deductions
+		int              probeId = 0;
+	}
+
+	/**
+	 * Probe the cells in a range of the UNKNOWN cell list, splitting the range while it is large
+	 */
+	private class Probes extends RecursiveAction {
+		Probes(NonogramSnapshot snap, int from, int to) {
+			this.snap = snap;
+			this.from = from;
+			this.to   = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > CHUNK) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new Probes(snap, from, mid), new Probes(snap, mid, to));
+				return;
+			}
+			Worker w = workers.computeIfAbsent(Thread.currentThread(), t -> new Worker());
+			w.ng.restore(snap);
+			w.prop.clearTrail();
+			for (int i=from; i<to; i++)
+				results[i] = w.probe(cells[i]);
+		}
+
+		private static final long serialVersionUID = 1L;
+
+		private final NonogramSnapshot snap;   // the state every probe of the round starts from
+		private final int              from;
+		private final int              to;
+	}
+
+	/**
+	 * The number of cells a task probes without splitting
+	 */
+	private static final int CHUNK = 8;
+
+	private static final int[] CONTRADICTION = new int[0];
+
+	private final Nonogram     ng;
+	private final ForkJoinPool pool;
+	private final Propagator   prop;
+	private final int          numRows;
+	private final int          numCols;
+	private final int[]        cells;     // the UNKNOWN cells of the round
+	private final int[][]      results;   // the deductions of each probe
+	private final Map<Thread, Worker> workers  = new ConcurrentHashMap<Thread, Worker>(); // per pool thread, held here rather than by the threads
+	private int                       numCells = 0;
+	private int                       rounds   = 0;
+	private long                      probes   = 0;
+	private long                      cellsSet = 0;
+}
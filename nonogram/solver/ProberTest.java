@@ -0,0 +1,94 @@
+package nonogram.solver;
+
+import static org.junit.Assert.*;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The test class ProberTest.
+ *
+ * @author  Daniel Dimuna
+ * @version October 2026
+ */
+public class ProberTest
+{
+    /**
+     * Default constructor for test class ProberTest
+     */
+    public ProberTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+        pool = new ForkJoinPool(4);
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void goesBeyondPropagation() {
+        Random rnd = new Random(11L);
+        int[][] goal = null;
+        for (int t=0; t<8; t++) // the 8th has a unique solution that propagation alone gets less than half of
+            goal = PuzzleGenerator.randomGoal(20, 20, 0.5, rnd);
+        String file = PuzzleGenerator.toNonFile(goal);
+        Nonogram propagated = new Nonogram(new Scanner(file));
+        new Propagator(propagated).propagate();
+        Nonogram probed = new Nonogram(new Scanner(file));
+        Prober prober = new Prober(probed, pool);
+        assertTrue(prober.run());
+        assertTrue(prober.getCellsSet() > 0);
+        assertTrue(probed.isSolved());
+        assertFalse(propagated.isSolved());
+        for (int row=0; row<20; row++)
+            for (int col=0; col<20; col++)
+                assertEquals(goal[row][col], probed.getState(row, col));
+    }
+
+    @Test
+    public void sameResultForAnyPoolSize() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        Random rnd = new Random(11L);
+        for (int t=0; t<10; t++) {
+            String file = PuzzleGenerator.randomNonFile(20, 20, 0.5, rnd.nextLong());
+            Nonogram a = new Nonogram(new Scanner(file));
+            Nonogram b = new Nonogram(new Scanner(file));
+            assertTrue(new Prober(a, single).run());
+            assertTrue(new Prober(b, pool).run());
+            assertEquals(a.getStateHash(), b.getStateHash());
+            assertEquals(PropagatorTest.cells(a), PropagatorTest.cells(b));
+        }
+        single.shutdownNow();
+    }
+
+    @Test
+    public void findsContradiction() {
+        Nonogram ng = new Nonogram(new Scanner(PropagatorTest.TINY));
+        ng.setState(0, 0, Nonogram.EMPTY); // goal has FULL here, and tiny has a unique solution
+        assertFalse(new Prober(ng, pool).run());
+    }
+
+    private ForkJoinPool pool = null;
+}
@@ -0,0 +1,364 @@
+package nonogram.solver;
+
+import java.util.Arrays;
+import nonogram.NGPattern;
+import nonogram.Nonogram;
+
+/**
+ * Line propagation for a Nonogram puzzle: queued lines are line solved one at a
+ * time, the cells deduced are written back into the puzzle, and the crossing line
+ * of each changed cell is queued, until no line is left to solve. Lines are
+ * numbered rows first, then columns (row r is line r, column c is line numRows+c),
+ * and each line is queued at most once. The order queued lines are solved in is
+ * left to a LineScheduler (first come first served by default), which can read
+ * the number of UNKNOWN cells of each line kept here.
+ * Every cell set (by propagation or assign()) is pushed on an undo trail, so a
+ * search can return to an earlier state with undo() instead of copying the grid.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class Propagator {
+	/**
+	 * Constructor using the default (complete) line solver, which is bit-parallel for
+	 * lines of up to 64 cells and dynamic programming for longer ones
+	 *
+	 * @param ng the puzzle to solve
+	 */
+	public Propagator(Nonogram ng) {
+		this(ng, new HybridLineSolver());
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param ng the puzzle to solve
+	 * @param solver the line solver
+	 */
+	public Propagator(Nonogram ng, LineSolver solver) {
+		this(ng, solver, new FifoLineScheduler());
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param ng the puzzle to solve
+	 * @param solver the line solver
+	 * @param scheduler the order to solve queued lines in (not shared with another propagator)
+	 */
+	public Propagator(Nonogram ng, LineSolver solver, LineScheduler scheduler) {
+		if (ng == null)
+			throw new IllegalArgumentException("ng cannot be null");
+		if (solver == null)
+			throw new IllegalArgumentException("solver cannot be null");
+		if (scheduler == null)
+			throw new IllegalArgumentException("scheduler cannot be null");
+		this.ng        = ng;
+		this.solver    = solver;
+		this.scheduler = scheduler;
+		this.numRows   = ng.getNumRows();
+		this.numCols   = ng.getNumCols();
+		this.pats      = new NGPattern[numRows + numCols];
+		for (int row=0; row<numRows; row++)
+			pats[row] = ng.getRowPattern(row);
+		for (int col=0; col<numCols; col++)
+			pats[numRows + col] = ng.getColPattern(col);
+		this.slack     = new int[numRows + numCols];
+		this.unknown   = new int[numRows + numCols];
+		for (int l=0; l<numRows+numCols; l++)
+			slack[l] = pats[l].getMaxLen() - pats[l].getMinLen();
+		this.line      = new byte[Math.max(numRows, numCols)];
+		this.before    = new byte[Math.max(numRows, numCols)];
+		this.trail     = new int[numRows * numCols];
+		countUnknown();
+		scheduler.init(slack, unknown);
+	}
+
+	/**
+	 * Queue every line and propagate
+	 *
+	 * @return true if propagation finished without a contradiction, otherwise false
+	 */
+	public boolean propagate() {
+		queueAll();
+		return run();
+	}
+
+	/**
+	 * Line solve queued lines until the queue is empty, or the budget (if any) runs out. On a
+	 * contradiction the queue is emptied, and the cells set so far are left in the puzzle. If the
+	 * budget runs out the remaining lines are left queued (see hasQueued()), so a later run() with
+	 * a new budget carries on from there.
+	 *
+	 * @return true if propagation finished or stopped without a contradiction, otherwise false
+	 */
+	public boolean run() {
+		while (!scheduler.isEmpty()) {
+			if ((budget != null) && !budget.step())
+				return true;
+			int l = scheduler.poll();
+			if (!solveLine(l)) {
+				clearQueue();
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Queue every row and column
+	 */
+	public void queueAll() {
+		for (int l=0; l<numRows+numCols; l++)
+			queueLine(l);
+	}
+
+	/**
+	 * Queue the row and column that cross a cell (e.g. after the cell has been set from outside)
+	 *
+	 * @param row the cell row
+	 * @param col the cell column
+	 */
+	public void queueCell(int row, int col) {
+		if ((row < 0)  || (row >= numRows))
+			throw new IllegalArgumentException("row invalid, must be 0 <= row < " + numRows);
+		if ((col < 0)  || (col >= numCols))
+			throw new IllegalArgumentException("col invalid, must be 0 <= col < " + numCols);
+		queueLine(row);
+		queueLine(numRows + col);
+	}
+
+	/**
+	 * Queue a line, unless it is already queued (in which case the scheduler notes another change to it)
+	 *
+	 * @param l the line number (rows first, then columns)
+	 */
+	public void queueLine(int l) {
+		if ((l < 0) || (l >= numRows + numCols))
+			throw new IllegalArgumentException("line invalid, must be 0 <= line < " + (numRows + numCols));
+		scheduler.add(l);
+	}
+
+	/**
+	 * Set an UNKNOWN cell (e.g. a search guess), recording it on the trail and queueing its crossing lines
+	 *
+	 * @param row the cell row
+	 * @param col the cell column
+	 * @param state the new state (FULL or EMPTY)
+	 */
+	public void assign(int row, int col, int state) {
+		if ((state != Nonogram.FULL) && (state != Nonogram.EMPTY))
+			throw new IllegalArgumentException("state must be FULL or EMPTY");
+		if (ng.getState(row, col) != Nonogram.UNKNOWN)
+			throw new IllegalArgumentException("cell (" + row + "," + col + ") is already known");
+		setCell(row, col, state);
+		queueCell(row, col);
+	}
+
+	/**
+	 * Retrieve the current size of the undo trail, to undo() back to later
+	 *
+	 * @return the number of cells on the trail
+	 */
+	public int getTrailSize() {
+		return trailSize;
+	}
+
+	/**
+	 * Retrieve the number of UNKNOWN cells of a line, kept up to date as cells are set and undone
+	 * (the puzzle must only be changed through this propagator, or clearTrail() called afterwards)
+	 *
+	 * @param l the line number (rows first, then columns)
+	 * @return the number of UNKNOWN cells
+	 */
+	public int getUnknown(int l) {
+		if ((l < 0) || (l >= numRows + numCols))
+			throw new IllegalArgumentException("line invalid, must be 0 <= line < " + (numRows + numCols));
+		return unknown[l];
+	}
+
+	/**
+	 * Retrieve a cell on the trail
+	 *
+	 * @param i the position on the trail (0 is the oldest)
+	 * @return the cell (row*numCols + col)
+	 */
+	public int getTrailCell(int i) {
+		if ((i < 0) || (i >= trailSize))
+			throw new IllegalArgumentException("i invalid, must be 0 <= i < " + trailSize);
+		return trail[i];
+	}
+
+	/**
+	 * Set the cells recorded on the trail since a mark back to UNKNOWN, most recent first,
+	 * and empty the work queue
+	 *
+	 * @param mark a trail size returned by getTrailSize()
+	 */
+	public void undo(int mark) {
+		if ((mark < 0) || (mark > trailSize))
+			throw new IllegalArgumentException("mark invalid, must be 0 <= mark <= " + trailSize);
+		clearQueue();
+		while (trailSize > mark) {
+			int cell = trail[--trailSize];
+			int row  = cell / numCols;
+			int col  = cell % numCols;
+			ng.setState(row, col, Nonogram.UNKNOWN);
+			unknown[row]++;
+			unknown[numRows + col]++;
+		}
+	}
+
+	/**
+	 * Forget the trail without changing any cells (e.g. after the puzzle has been restored from a snapshot),
+	 * and empty the work queue
+	 */
+	public void clearTrail() {
+		clearQueue();
+		trailSize = 0;
+		countUnknown();
+	}
+
+	/**
+	 * Empty the work queue
+	 */
+	public void clearQueue() {
+		scheduler.clear();
+	}
+
+	/**
+	 * Are there lines queued (after run(), only if the budget ran out)?
+	 *
+	 * @return true if at least one line is queued, otherwise false
+	 */
+	public boolean hasQueued() {
+		return !scheduler.isEmpty();
+	}
+
+	/**
+	 * Limit the line solves of run(), each taking one step of a budget
+	 *
+	 * @param budget the budget (null for no limit)
+	 */
+	public void setBudget(Budget budget) {
+		this.budget = budget;
+	}
+
+	/**
+	 * Retrieve the budget limiting run()
+	 *
+	 * @return the budget, or null if there is no limit
+	 */
+	public Budget getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Retrieve the puzzle being solved
+	 *
+	 * @return the puzzle
+	 */
+	public Nonogram getNonogram() {
+		return ng;
+	}
+
+	/**
+	 * Retrieve the number of line solves made so far
+	 *
+	 * @return the number of line solves
+	 */
+	public long getLineSolves() {
+		return lineSolves;
+	}
+
+	/**
+	 * Retrieve the number of cells set by propagation so far
+	 *
+	 * @return the number of cells set
+	 */
+	public long getCellsSet() {
+		return cellsSet;
+	}
+
+	/**
+	 * Line solve one line, writing back the cells it deduces and queueing their crossing lines
+	 *
+	 * @param l the line number (rows first, then columns)
+	 * @return true if the line has a valid completion, otherwise false
+	 */
+	private boolean solveLine(int l) {
+		boolean isRow = (l < numRows);
+		int     index = isRow ? l : l - numRows;
+		int     len   = isRow ? numCols : numRows;
+		if (isRow)
+			ng.readRow(index, line);
+		else
+			ng.readCol(index, line);
+		System.arraycopy(line, 0, before, 0, len);
+		lineSolves++;
+		if (!solver.solve(pats[l], line))
+			return false;
+		for (int i=0; i<len; i++) {
+			if (line[i] == before[i])
+				continue;
+			if (isRow) {
+				setCell(index, i, line[i]);
+				queueLine(numRows + i);
+			} else {
+				setCell(i, index, line[i]);
+				queueLine(i);
+			}
+			cellsSet++;
+		}
+		return true;
+	}
+
+	/**
+	 * Count the UNKNOWN cells of every line
+	 */
+	private void countUnknown() {
+		for (int l=0; l<numRows+numCols; l++)
+			unknown[l] = 0;
+		for (int row=0; row<numRows; row++) {
+			ng.readRow(row, line);
+			for (int col=0; col<numCols; col++) {
+				if (line[col] == Nonogram.UNKNOWN) {
+					unknown[row]++;
+					unknown[numRows + col]++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Set a cell that is UNKNOWN and push it on the trail
+	 *
+	 * @param row the cell row
+	 * @param col the cell column
+	 * @param state the new state
+	 */
+	private void setCell(int row, int col, int state) {
+		ng.setState(row, col, state);
+		unknown[row]--;
+		unknown[numRows + col]--;
+		if (trailSize == trail.length) // only if cells were reset from outside without undo()
+			trail = Arrays.copyOf(trail, 2 * trail.length);
+		trail[trailSize++] = row * numCols + col;
+	}
+
+	private final Nonogram      ng;
+	private final LineSolver    solver;
+	private final LineScheduler scheduler;        // orders the queued lines
+	private final int           numRows;
+	private final int           numCols;
+	private final NGPattern[]   pats;             // per line (rows, then columns)
+	private final int[]         slack;            // per line, its length minus its pattern's minimum length
+	private final int[]         unknown;          // per line, its UNKNOWN cells (recounted by clearTrail())
+	private final byte[]        line;             // scratch for the line being solved
+	private final byte[]        before;           // the line before it was solved
+	private int[]               trail;            // cells set (row*numCols + col), oldest first
+	private Budget              budget     = null;
+	private int                 trailSize  = 0;
+	private long                lineSolves = 0;
+	private long                cellsSet   = 0;
+}
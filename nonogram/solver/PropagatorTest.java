@@ -0,0 +1,108 @@
+package nonogram.solver;
+
+import static org.junit.Assert.*;
+import java.util.Random;
+import java.util.Scanner;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The test class PropagatorTest.
+ *
+ * @author  Daniel Dimuna
+ * @version October 2026
+ */
+public class PropagatorTest
+{
+    /**
+     * Default constructor for test class PropagatorTest
+     */
+    public PropagatorTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+        ng = new Nonogram(new Scanner(TINY));
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+    }
+
+    @Test
+    public void solvesTiny() {
+        Propagator prop = new Propagator(ng);
+        assertTrue(prop.propagate());
+        assertTrue(ng.isSolved());
+        assertEquals(GOAL, cells(ng));
+        assertEquals(25, prop.getCellsSet());
+    }
+
+    @Test
+    public void requeuesOnlyCrossingLines() {
+        Propagator prop = new Propagator(ng);
+        assertTrue(prop.propagate());
+        long solves = prop.getLineSolves();
+        assertTrue(solves >= 10);
+        assertTrue(prop.run()); // nothing queued, so nothing to do
+        assertEquals(solves, prop.getLineSolves());
+        prop.queueCell(0, 0);
+        assertTrue(prop.run());
+        assertEquals(solves + 2, prop.getLineSolves());
+    }
+
+    @Test
+    public void findsContradiction() {
+        ng.setState(0, 0, Nonogram.EMPTY); // goal has FULL here, and tiny has a unique solution
+        assertFalse(new Propagator(ng).propagate());
+    }
+
+    @Test
+    public void deductionsMatchGoal() {
+        Random rnd = new Random(11L);
+        for (int t=0; t<20; t++) {
+            int[][] goal = PuzzleGenerator.randomGoal(15, 15, 0.6, rnd);
+            Nonogram big = new Nonogram(new Scanner(PuzzleGenerator.toNonFile(goal)));
+            assertTrue(new Propagator(big).propagate());
+            for (int row=0; row<15; row++)
+                for (int col=0; col<15; col++)
+                    if (big.getState(row, col) != Nonogram.UNKNOWN)
+                        assertEquals(goal[row][col], big.getState(row, col));
+        }
+    }
+
+    /**
+     * The cell states of a puzzle in row order
+     *
+     * @param ng the puzzle
+     * @return the cell states as a .non file goal
+     */
+    static String cells(Nonogram ng) {
+        StringBuffer sb = new StringBuffer();
+        for (int row=0; row<ng.getNumRows(); row++)
+            sb.append(ng.getRowSequence(row));
+        return sb.toString();
+    }
+
+    static final String TINY =
+        "width 5\nheight 5\n\nrows\n1,2\n2,2\n2\n1,1,1\n1\n\ncolumns\n4\n2\n1\n2\n2,2\n";
+    static final String GOAL = "1001111011110001010100001";
+
+    private Nonogram ng = null;
+}
@@ -0,0 +1,60 @@
+package nonogram.solver;
+
+import java.util.List;
+import java.util.Scanner;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+
+/**
+ * Compares the propagation/search path (SearchSolver) with the CNF encoding on
+ * SatNonogramSolver on random 30x30 puzzles that the search finds hard. The
+ * search is given up after NODE_CAP nodes, so its time for a capped puzzle is a
+ * lower bound. Run with "java nonogram.solver.SatBenchmark".
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class SatBenchmark {
+	public static void main(String[] args) {
+		Nonogram[] puzzles = new Nonogram[SEEDS.length];
+		for (int i=0; i<SEEDS.length; i++)
+			puzzles[i] = new Nonogram(new Scanner(PuzzleGenerator.randomNonFile(SIZE, SIZE, 0.5, SEEDS[i])));
+		double searchTotal = 0, satTotal = 0;
+		int    capped      = 0;
+		for (int pass=0; pass<PASSES; pass++) { // only the last pass is reported
+			boolean report = pass == PASSES - 1;
+			if (report)
+				System.out.println(" seed  search ms      nodes   sat ms  conflicts  restarts");
+			searchTotal = satTotal = 0;
+			capped      = 0;
+			for (int i=0; i<puzzles.length; i++) {
+				long t0 = System.nanoTime();
+				SearchSolver  search = new SearchSolver(new Nonogram(puzzles[i]));
+				List<int[][]> found  = search.solveAll(1, NODE_CAP);
+				double searchMs = (System.nanoTime() - t0) / 1e6;
+
+				t0 = System.nanoTime();
+				SatNonogramSolver sat = new SatNonogramSolver(puzzles[i]);
+				if (sat.solve() == null)
+					throw new IllegalStateException("no solution for seed " + SEEDS[i]);
+				double satMs = (System.nanoTime() - t0) / 1e6;
+
+				searchTotal += searchMs;
+				satTotal    += satMs;
+				if (found == null)
+					capped++;
+				if (report)
+					System.out.printf("%5d %10.0f %10s %8.0f %10d %9d%n", SEEDS[i], searchMs,
+						(found == null) ? ">" + NODE_CAP : "" + search.getNodes(), satMs,
+						sat.getSatSolver().getConflicts(), sat.getSatSolver().getRestarts());
+			}
+		}
+		System.out.printf("total %10.0f %10s %8.0f   (search capped on %d of %d)%n", searchTotal, "", satTotal,
+			capped, puzzles.length);
+	}
+
+	private static final int    SIZE     = 30;
+	private static final long[] SEEDS    = { 1, 2, 4, 5, 7, 8, 10, 12, 13, 15, 16, 19, 20, 26 };
+	private static final long   NODE_CAP = 50000;
+	private static final int    PASSES   = 2;
+}
@@ -0,0 +1,207 @@
+package nonogram.solver;
+
+import java.util.Arrays;
+import nonogram.NGPattern;
+import nonogram.Nonogram;
+
+/**
+ * Solves a puzzle by encoding it as CNF and handing it to the built-in CDCL
+ * SatSolver, for the puzzles that line propagation and branching search find
+ * hard. Each cell has a variable (true for FULL). Each block of each line's
+ * pattern has a variable for each position it could start at, and the clauses
+ * of a line say that every block starts at exactly one of them, that each block
+ * starts after the one before it ends (leaving a gap), and that a cell is FULL
+ * exactly when some block's start covers it. The known cells of the puzzle are
+ * added as unit clauses. The puzzle itself is only read.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class SatNonogramSolver {
+	/**
+	 * Constructor
+	 *
+	 * @param ng the puzzle to solve
+	 */
+	public SatNonogramSolver(Nonogram ng) {
+		if (ng == null)
+			throw new IllegalArgumentException("ng cannot be null");
+		this.ng = ng;
+	}
+
+	/**
+	 * Encode the puzzle, starting from its current cell states, and solve it
+	 *
+	 * @return the solution (cell states by row and column), or null if the puzzle has no solution
+	 *         or the solve was cancelled
+	 */
+	public int[][] solve() {
+		int numRows = ng.getNumRows();
+		int numCols = ng.getNumCols();
+		SatSolver s = new SatSolver();
+		sat = s;
+		if (cancelled)
+			s.cancel();
+		int[][] cellVar = encode(s, ng);
+		for (int row=0; row<numRows; row++) {
+			for (int col=0; col<numCols; col++) {
+				int state = ng.getState(row, col);
+				if (state == Nonogram.FULL)
+					s.addClause(cellVar[row][col]);
+				else if (state == Nonogram.EMPTY)
+					s.addClause(-cellVar[row][col]);
+			}
+		}
+		if (!s.solve())
+			return null;
+		int[][] sol = new int[numRows][numCols];
+		for (int row=0; row<numRows; row++)
+			for (int col=0; col<numCols; col++)
+				sol[row][col] = s.getValue(cellVar[row][col]) ? Nonogram.FULL : Nonogram.EMPTY;
+		return sol;
+	}
+
+	/**
+	 * Add the variables and clauses for a puzzle's clues (but not its known cells) to a SAT solver
+	 *
+	 * @param sat the solver
+	 * @param ng the puzzle
+	 * @return the variable of each cell (true for FULL), by row and column
+	 */
+	public static int[][] encode(SatSolver sat, Nonogram ng) {
+		int numRows = ng.getNumRows();
+		int numCols = ng.getNumCols();
+		int[][] cellVar = new int[numRows][numCols];
+		for (int row=0; row<numRows; row++)
+			for (int col=0; col<numCols; col++)
+				cellVar[row][col] = sat.newVar();
+		int[] vars = new int[Math.max(numRows, numCols)];
+		for (int row=0; row<numRows; row++) {
+			for (int col=0; col<numCols; col++)
+				vars[col] = cellVar[row][col];
+			encodeLine(sat, ng.getRowPattern(row), vars);
+		}
+		for (int col=0; col<numCols; col++) {
+			for (int row=0; row<numRows; row++)
+				vars[row] = cellVar[row][col];
+			encodeLine(sat, ng.getColPattern(col), vars);
+		}
+		return cellVar;
+	}
+
+	/**
+	 * Add the clauses for one line to a SAT solver
+	 *
+	 * @param sat the solver
+	 * @param pat the line's pattern
+	 * @param cells the variables of the line's cells (true for FULL), in order (at least pat.getMaxLen() of them)
+	 */
+	public static void encodeLine(SatSolver sat, NGPattern pat, int[] cells) {
+		int len = pat.getMaxLen();
+		int k   = pat.getNumBlocks();
+
+		// the positions each block can start at, and a variable for each
+		int[]   first = new int[k];
+		int[][] start = new int[k][];
+		int pos = 0;
+		for (int b=0; b<k; b++) {
+			first[b] = pos;
+			pos += pat.getNum(b) + 1;
+		}
+		int end = len;
+		for (int b=k-1; b>=0; b--) {
+			int last = end - pat.getNum(b);
+			start[b] = new int[last - first[b] + 1];
+			for (int i=0; i<start[b].length; i++)
+				start[b][i] = sat.newVar();
+			end = last - 1;
+		}
+
+		for (int b=0; b<k; b++) {
+			int num = pat.getNum(b);
+
+			// exactly one start: at least one, and at most one by a sequential counter
+			sat.addClause(start[b]);
+			int prev = 0; // true if one of the starts so far is true
+			for (int i=0; i<start[b].length - 1; i++) {
+				int sofar = sat.newVar();
+				sat.addClause(-start[b][i], sofar);
+				if (prev != 0) {
+					sat.addClause(-prev, sofar);
+					sat.addClause(-start[b][i], -prev);
+				}
+				prev = sofar;
+			}
+			if (prev != 0)
+				sat.addClause(-start[b][start[b].length - 1], -prev);
+
+			for (int i=0; i<start[b].length; i++) {
+				int p = first[b] + i;
+
+				// the next block starts after a gap
+				if (b + 1 < k) {
+					int from = Math.max(0, p + num + 1 - first[b+1]);
+					int[] c = new int[1 + Math.max(0, start[b+1].length - from)];
+					c[0] = -start[b][i];
+					for (int j=from; j<start[b+1].length; j++)
+						c[1 + j - from] = start[b+1][j];
+					sat.addClause(c);
+				}
+
+				// the block's cells are FULL
+				for (int cell=p; cell<p+num; cell++)
+					sat.addClause(-start[b][i], cells[cell]);
+			}
+		}
+
+		// a FULL cell is covered by some block
+		int[] cover = new int[len + 1];
+		for (int cell=0; cell<len; cell++) {
+			int n = 0;
+			cover[n++] = -cells[cell];
+			for (int b=0; b<k; b++)
+				for (int i=0; i<start[b].length; i++)
+					if ((first[b] + i <= cell) && (cell < first[b] + i + pat.getNum(b)))
+						cover = push(cover, n++, start[b][i]);
+			sat.addClause(Arrays.copyOf(cover, n));
+		}
+	}
+
+	/**
+	 * Stop the solve() running in another thread as soon as possible. A cancelled solver stays cancelled.
+	 */
+	public void cancel() {
+		cancelled = true;
+		SatSolver s = sat;
+		if (s != null)
+			s.cancel();
+	}
+
+	/**
+	 * Retrieve the SAT solver of the last solve(), for its statistics
+	 *
+	 * @return the SAT solver, or null before the first solve()
+	 */
+	public SatSolver getSatSolver() {
+		return sat;
+	}
+
+	/**
+	 * Store a value in a growable array
+	 *
+	 * @param a the array
+	 * @param i the position
+	 * @param x the value
+	 * @return the array (a new one if it had to grow)
+	 */
+	private static int[] push(int[] a, int i, int x) {
+		if (i == a.length)
+			a = Arrays.copyOf(a, 2 * a.length);
+		a[i] = x;
+		return a;
+	}
+
+	private final Nonogram    ng;
+	private volatile SatSolver sat       = null;
+	private volatile boolean   cancelled = false;
+}
@@ -0,0 +1,93 @@
+package nonogram.solver;
+
+import static org.junit.Assert.*;
+import java.util.Random;
+import java.util.Scanner;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The test class SatNonogramSolverTest.
+ *
+ * @author  Daniel Dimuna
+ * @version October 2026
+ */
+public class SatNonogramSolverTest
+{
+    /**
+     * Default constructor for test class SatNonogramSolverTest
+     */
+    public SatNonogramSolverTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+    }
+
+    @Test
+    public void solvesTiny() {
+        Nonogram ng = new Nonogram(new Scanner(PropagatorTest.TINY));
+        int[][] sol = new SatNonogramSolver(ng).solve();
+        assertNotNull(sol);
+        StringBuilder sb = new StringBuilder();
+        for (int[] row : sol)
+            for (int state : row)
+                sb.append(state);
+        assertEquals(PropagatorTest.GOAL, sb.toString());
+    }
+
+    @Test
+    public void solvesRandomPuzzles() {
+        Random rnd = new Random(3L);
+        for (int t=0; t<20; t++) {
+            Nonogram ng = new Nonogram(new Scanner(PuzzleGenerator.randomNonFile(20, 20, 0.5, rnd.nextLong())));
+            int[][] sol = new SatNonogramSolver(ng).solve();
+            assertNotNull(sol);
+            assertEquals(Nonogram.UNKNOWN, ng.getState(0, 0)); // the puzzle passed in is only read
+            for (int row=0; row<20; row++)
+                for (int col=0; col<20; col++)
+                    ng.setState(row, col, sol[row][col]);
+            assertTrue(ng.isSolved());
+        }
+    }
+
+    @Test
+    public void keepsKnownCells() {
+        Nonogram ng = new Nonogram(new Scanner(ParallelSearchSolverTest.PERMUTATIONS));
+        ng.setState(2, 3, Nonogram.FULL);
+        ng.setState(0, 0, Nonogram.EMPTY);
+        int[][] sol = new SatNonogramSolver(ng).solve();
+        assertNotNull(sol);
+        assertEquals(Nonogram.FULL, sol[2][3]);
+        assertEquals(Nonogram.EMPTY, sol[0][0]);
+    }
+
+    @Test
+    public void reportsUnsolvable() {
+        Nonogram ng = new Nonogram(new Scanner(PropagatorTest.TINY));
+        ng.setState(0, 0, Nonogram.EMPTY); // goal has FULL here, and tiny has a unique solution
+        SatNonogramSolver sat = new SatNonogramSolver(ng);
+        assertNull(sat.solve());
+        assertFalse(sat.getSatSolver().isCancelled());
+    }
+}
@@ -0,0 +1,810 @@
+package nonogram.solver;
+
+import java.util.Arrays;
+
+/**
+ * A conflict-driven clause-learning (CDCL) SAT solver. Variables are numbered
+ * from 1 and literals are given as in DIMACS files: v for the variable being
+ * true and -v for it being false. Unit propagation watches two literals of each
+ * clause, so a clause is only visited when one of its watched literals becomes
+ * false. A conflict is analysed back to its first unique implication point, and
+ * the learnt clause (with literals implied by the others removed) is added, the
+ * search jumping back to the level where it becomes unit. Decisions take the
+ * unassigned variable with the highest VSIDS activity (bumped for the variables
+ * in each conflict, and decaying over time) with the state it last had. The
+ * search restarts on a Luby schedule of conflicts, and at restarts the learnt
+ * clauses are cut back to the best half by literal block distance (the number of
+ * decision levels they span).
+ * A solve can assume some literals true, which are decided first; whatever it
+ * learns follows from the clauses alone, so the learnt clauses, activities and
+ * saved states carry over to the next solve, with other assumptions. A Budget
+ * (one step per decision and per conflict) can stop a solve without spoiling
+ * the solver for later ones.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class SatSolver {
+	/**
+	 * Constructor
+	 */
+	public SatSolver() {
+		ensureVars(INITIAL_VARS);
+	}
+
+	/**
+	 * Create a new variable
+	 *
+	 * @return the variable (numbered from 1)
+	 */
+	public int newVar() {
+		ensureVars(numVars + 1);
+		int v = numVars++;
+		heapInsert(v);
+		return v + 1;
+	}
+
+	/**
+	 * Add a clause, which must be satisfied. Clauses can be added between solve() calls.
+	 *
+	 * @param lits the literals (v or -v for an existing variable v)
+	 */
+	public void addClause(int... lits) {
+		if (lits == null)
+			throw new IllegalArgumentException("lits cannot be null");
+		cancelUntil(0);
+		int[] c = new int[lits.length];
+		for (int i=0; i<lits.length; i++) {
+			int v = Math.abs(lits[i]);
+			if ((v < 1) || (v > numVars))
+				throw new IllegalArgumentException("lits[" + i + "] invalid, must be a variable between 1 and " + numVars);
+			c[i] = 2*(v-1) + ((lits[i] < 0) ? 1 : 0);
+		}
+		numOriginal++;
+		if (unsat)
+			return;
+
+		// drop duplicate and level 0 false literals, and the clause if it is already satisfied
+		Arrays.sort(c);
+		int n = 0;
+		for (int i=0; i<c.length; i++) {
+			int value = value(c[i]);
+			if ((value == TRUE) || ((i > 0) && (c[i] == (c[i-1] ^ 1))))
+				return;
+			if ((value == FALSE) || ((n > 0) && (c[n-1] == c[i])))
+				continue;
+			c[n++] = c[i];
+		}
+		if (n == 0) {
+			unsat = true;
+		} else if (n == 1) {
+			enqueue(c[0], NO_REASON);
+		} else {
+			attach(Arrays.copyOf(c, n), false, 0);
+		}
+	}
+
+	/**
+	 * Search for an assignment satisfying every clause
+	 *
+	 * @return true if one was found (see getValue()), false if there is none or the search was
+	 *         cancelled (see isCancelled()) or ran out of budget
+	 */
+	public boolean solve() {
+		return solve(new int[0]);
+	}
+
+	/**
+	 * Search for an assignment satisfying every clause in which some literals are true. The
+	 * assumptions only hold for this solve.
+	 *
+	 * @param assumptions the literals assumed true (v or -v for an existing variable v)
+	 * @return true if one was found (see getValue()), false if there is none with the assumptions
+	 *         or the search was cancelled (see isCancelled()) or ran out of budget
+	 */
+	public boolean solve(int... assumptions) {
+		if (assumptions == null)
+			throw new IllegalArgumentException("assumptions cannot be null");
+		int[] assume = new int[assumptions.length];
+		for (int i=0; i<assumptions.length; i++) {
+			int v = Math.abs(assumptions[i]);
+			if ((v < 1) || (v > numVars))
+				throw new IllegalArgumentException("assumptions[" + i + "] invalid, must be a variable between 1 and " + numVars);
+			assume[i] = 2*(v-1) + ((assumptions[i] < 0) ? 1 : 0);
+		}
+		model = null;
+		if (unsat)
+			return false;
+		cancelUntil(0);
+		if (trailLim.length < numVars + assume.length + 1) { // an assumption already true takes an empty level
+			trailLim   = Arrays.copyOf(trailLim,   numVars + assume.length + 1);
+			levelStamp = Arrays.copyOf(levelStamp, numVars + assume.length + 1);
+		}
+		int  restartConflicts = 0;
+		long restartLimit     = RESTART_BASE * luby(restarts);
+		while (true) {
+			int confl = propagate();
+			if (confl != NO_REASON) {
+				conflicts++;
+				restartConflicts++;
+				if (decisionLevel() == 0) {
+					unsat = true;
+					return false;
+				}
+				if ((budget != null) && !budget.step()) {
+					cancelUntil(0);
+					return false;
+				}
+				learn(confl);
+				varInc *= VAR_DECAY;
+				continue;
+			}
+			if (cancelled) {
+				cancelUntil(0);
+				return false;
+			}
+			if (restartConflicts >= restartLimit) {
+				cancelUntil(0);
+				restarts++;
+				restartConflicts = 0;
+				restartLimit     = RESTART_BASE * luby(restarts);
+				if (numLearnt > maxLearnt)
+					reduceLearnt();
+				continue;
+			}
+			if ((budget != null) && !budget.step()) {
+				cancelUntil(0);
+				return false;
+			}
+
+			// decide the next assumption, then the most active variable
+			int next = -1;
+			while (level < assume.length) {
+				int p = assume[level];
+				if (value(p) == TRUE) {
+					trailLim[level++] = trailSize;
+				} else if (value(p) == FALSE) {
+					cancelUntil(0); // the clauses and the assumptions before it rule it out
+					return false;
+				} else {
+					next = p;
+					break;
+				}
+			}
+			if (next < 0) {
+				int v = pickBranchVar();
+				if (v < 0) {
+					model = new boolean[numVars];
+					for (int i=0; i<numVars; i++)
+						model[i] = assigns[i] == TRUE;
+					cancelUntil(0);
+					return true;
+				}
+				next = 2*v + (phase[v] ? 0 : 1);
+			}
+			decisions++;
+			trailLim[level++] = trailSize;
+			enqueue(next, NO_REASON);
+		}
+	}
+
+	/**
+	 * Retrieve the value of a variable in the assignment found by the last solve()
+	 *
+	 * @param var the variable
+	 * @return true if the variable is true, otherwise false
+	 */
+	public boolean getValue(int var) {
+		if (model == null)
+			throw new IllegalStateException("no assignment, the last solve() did not succeed");
+		if ((var < 1) || (var > numVars))
+			throw new IllegalArgumentException("var invalid, must be between 1 and " + numVars);
+		return model[var - 1];
+	}
+
+	/**
+	 * Stop the solve() running in another thread as soon as possible. A cancelled solver stays
+	 * cancelled, so a later solve() returns false at once.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Has the solver been cancelled?
+	 *
+	 * @return true if it has been cancelled, otherwise false
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Limit solves, each decision and each conflict taking one step of a budget. A solve that runs
+	 * out returns false, and the solver can be given a new budget and used again.
+	 *
+	 * @param budget the budget (null for no limit)
+	 */
+	public void setBudget(Budget budget) {
+		this.budget = budget;
+	}
+
+	/**
+	 * Is the problem unsatisfiable whatever is assumed (shown by some solve, or by the clauses added)?
+	 *
+	 * @return true if it is known to be unsatisfiable, otherwise false
+	 */
+	public boolean isUnsat() {
+		return unsat;
+	}
+
+	/**
+	 * Retrieve the number of variables
+	 *
+	 * @return the number of variables
+	 */
+	public int getNumVars() {
+		return numVars;
+	}
+
+	/**
+	 * Retrieve the number of clauses added (not counting learnt clauses)
+	 *
+	 * @return the number of clauses
+	 */
+	public int getNumClauses() {
+		return numOriginal;
+	}
+
+	/**
+	 * Retrieve the number of learnt clauses currently kept
+	 *
+	 * @return the number of learnt clauses
+	 */
+	public int getNumLearnt() {
+		return numLearnt;
+	}
+
+	/**
+	 * Retrieve the number of conflicts so far
+	 *
+	 * @return the number of conflicts
+	 */
+	public long getConflicts() {
+		return conflicts;
+	}
+
+	/**
+	 * Retrieve the number of decisions so far
+	 *
+	 * @return the number of decisions
+	 */
+	public long getDecisions() {
+		return decisions;
+	}
+
+	/**
+	 * Retrieve the number of literals assigned by unit propagation so far
+	 *
+	 * @return the number of propagations
+	 */
+	public long getPropagations() {
+		return propagations;
+	}
+
+	/**
+	 * Retrieve the number of restarts so far
+	 *
+	 * @return the number of restarts
+	 */
+	public int getRestarts() {
+		return restarts;
+	}
+
+	/**
+	 * Propagate the literals on the trail that have not been propagated yet
+	 *
+	 * @return the clause that became false, or NO_REASON
+	 */
+	private int propagate() {
+		while (qhead < trailSize) {
+			int   falseLit = trail[qhead++] ^ 1;
+			int[] ws       = watches[falseLit];
+			int   n        = watchSize[falseLit];
+			int   i = 0, j = 0;
+			while (i < n) {
+				int   cid = ws[i++];
+				int[] c   = lits[cid];
+				if (c[0] == falseLit) { // keep the false watch at c[1]
+					c[0] = c[1];
+					c[1] = falseLit;
+				}
+				if (value(c[0]) == TRUE) {
+					ws[j++] = cid;
+					continue;
+				}
+				boolean moved = false;
+				for (int k=2; k<c.length; k++) {
+					if (value(c[k]) != FALSE) {
+						c[1] = c[k];
+						c[k] = falseLit;
+						watch(c[1], cid);
+						moved = true;
+						break;
+					}
+				}
+				if (moved)
+					continue;
+				ws[j++] = cid;
+				if (value(c[0]) == FALSE) {
+					while (i < n)
+						ws[j++] = ws[i++];
+					watchSize[falseLit] = j;
+					qhead = trailSize;
+					return cid;
+				}
+				enqueue(c[0], cid);
+			}
+			watchSize[falseLit] = j;
+		}
+		return NO_REASON;
+	}
+
+	/**
+	 * Analyse a conflict to its first unique implication point, add the learnt clause and jump back
+	 * to the level where it is unit
+	 *
+	 * @param confl the clause that became false
+	 */
+	private void learn(int confl) {
+		int pathCount = 0, p = -1, index = trailSize - 1, n = 1;
+		do {
+			int[] c = lits[confl];
+			if (learnt[confl])
+				lbd[confl] = Math.min(lbd[confl], levelsSpanned(c, c.length));
+			for (int k=(p < 0) ? 0 : 1; k<c.length; k++) {
+				int q = c[k], v = q >> 1;
+				if (seen[v] || (levels[v] == 0))
+					continue;
+				seen[v] = true;
+				bumpVar(v);
+				if (levels[v] >= level)
+					pathCount++;
+				else
+					learnBuf = push(learnBuf, n++, q);
+			}
+			while (!seen[trail[index] >> 1])
+				index--;
+			p     = trail[index--];
+			confl = reasons[p >> 1];
+			seen[p >> 1] = false;
+			pathCount--;
+		} while (pathCount > 0);
+		learnBuf[0] = p ^ 1;
+
+		// remove the literals implied by the others
+		if (learnCopy.length < n)
+			learnCopy = new int[learnBuf.length];
+		System.arraycopy(learnBuf, 0, learnCopy, 0, n);
+		int kept = 1;
+		for (int i=1; i<n; i++)
+			if (!impliedByLearnt(learnCopy[i]))
+				learnBuf[kept++] = learnCopy[i];
+		for (int i=1; i<n; i++)
+			seen[learnCopy[i] >> 1] = false;
+
+		// jump back to the second highest level
+		int back = 0;
+		if (kept > 1) {
+			int max = 1;
+			for (int i=2; i<kept; i++)
+				if (levels[learnBuf[i] >> 1] > levels[learnBuf[max] >> 1])
+					max = i;
+			int t = learnBuf[1];
+			learnBuf[1]   = learnBuf[max];
+			learnBuf[max] = t;
+			back = levels[learnBuf[1] >> 1];
+		}
+		cancelUntil(back);
+		if (kept == 1) {
+			enqueue(learnBuf[0], NO_REASON);
+		} else {
+			int[] c = Arrays.copyOf(learnBuf, kept);
+			enqueue(c[0], attach(c, true, levelsSpanned(c, kept)));
+		}
+	}
+
+	/**
+	 * Is a literal of the learnt clause implied by the others (every other literal of its reason
+	 * is in the clause or fixed at level 0)?
+	 *
+	 * @param q the literal
+	 * @return true if it can be removed, otherwise false
+	 */
+	private boolean impliedByLearnt(int q) {
+		int r = reasons[q >> 1];
+		if (r == NO_REASON)
+			return false;
+		int[] c = lits[r];
+		for (int k=1; k<c.length; k++) {
+			int v = c[k] >> 1;
+			if (!seen[v] && (levels[v] > 0))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Count the distinct decision levels of a clause's literals
+	 *
+	 * @param c the clause
+	 * @param n the number of literals
+	 * @return the number of levels
+	 */
+	private int levelsSpanned(int[] c, int n) {
+		stamp++;
+		int count = 0;
+		for (int i=0; i<n; i++) {
+			int l = levels[c[i] >> 1];
+			if (levelStamp[l] != stamp) {
+				levelStamp[l] = stamp;
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Store a clause of at least two literals, watching the first two
+	 *
+	 * @param c the literals
+	 * @param isLearnt whether the clause was learnt
+	 * @param span the literal block distance (for a learnt clause)
+	 * @return the clause id
+	 */
+	private int attach(int[] c, boolean isLearnt, int span) {
+		if (numClauses == lits.length) {
+			lits   = Arrays.copyOf(lits,   2 * numClauses);
+			learnt = Arrays.copyOf(learnt, 2 * numClauses);
+			lbd    = Arrays.copyOf(lbd,    2 * numClauses);
+		}
+		int cid = numClauses++;
+		lits[cid]   = c;
+		learnt[cid] = isLearnt;
+		lbd[cid]    = span;
+		if (isLearnt)
+			numLearnt++;
+		watch(c[0], cid);
+		watch(c[1], cid);
+		return cid;
+	}
+
+	/**
+	 * Add a clause to the watch list of a literal
+	 *
+	 * @param lit the literal
+	 * @param cid the clause id
+	 */
+	private void watch(int lit, int cid) {
+		watches[lit] = push(watches[lit], watchSize[lit]++, cid);
+	}
+
+	/**
+	 * Keep the learnt clauses with the lowest literal block distance (and all of distance 2 or less),
+	 * at level 0, and renumber the clauses
+	 */
+	private void reduceLearnt() {
+		int m = 0;
+		long[] keys = new long[numLearnt];
+		for (int cid=0; cid<numClauses; cid++)
+			if (learnt[cid])
+				keys[m++] = ((long) lbd[cid] << 48) | ((long) Math.min(lits[cid].length, 0xffff) << 32) | cid;
+		Arrays.sort(keys, 0, m);
+		boolean[] drop = new boolean[numClauses];
+		for (int i=m/2; i<m; i++) {
+			int cid = (int) keys[i];
+			if (lbd[cid] > 2)
+				drop[cid] = true;
+		}
+		int kept = 0;
+		numLearnt = 0;
+		for (int cid=0; cid<numClauses; cid++) {
+			if (drop[cid])
+				continue;
+			lits[kept]   = lits[cid];
+			learnt[kept] = learnt[cid];
+			lbd[kept]    = lbd[cid];
+			if (learnt[kept])
+				numLearnt++;
+			kept++;
+		}
+		Arrays.fill(lits, kept, numClauses, null);
+		numClauses = kept;
+		for (int v=0; v<numVars; v++)
+			reasons[v] = NO_REASON; // every assignment is at level 0 now
+		Arrays.fill(watchSize, 0);
+		for (int cid=0; cid<numClauses; cid++) {
+			watch(lits[cid][0], cid);
+			watch(lits[cid][1], cid);
+		}
+		maxLearnt = maxLearnt * 11 / 10;
+	}
+
+	/**
+	 * Assign a literal true
+	 *
+	 * @param lit the literal
+	 * @param reason the clause that implied it, or NO_REASON for a decision or a level 0 fact
+	 */
+	private void enqueue(int lit, int reason) {
+		int v = lit >> 1;
+		if (assigns[v] != UNDEF) {
+			if (value(lit) == FALSE)
+				unsat = true; // only reached for level 0 facts from addClause()
+			return;
+		}
+		assigns[v] = ((lit & 1) == 0) ? TRUE : FALSE;
+		levels[v]  = level;
+		reasons[v] = reason;
+		trail[trailSize++] = lit;
+		if (reason != NO_REASON)
+			propagations++;
+	}
+
+	/**
+	 * Undo the assignments above a decision level
+	 *
+	 * @param target the level to go back to
+	 */
+	private void cancelUntil(int target) {
+		if (level <= target)
+			return;
+		for (int i=trailSize-1; i>=trailLim[target]; i--) {
+			int v = trail[i] >> 1;
+			phase[v]   = assigns[v] == TRUE;
+			assigns[v] = UNDEF;
+			reasons[v] = NO_REASON;
+			if (heapIndex[v] < 0)
+				heapInsert(v);
+		}
+		trailSize = trailLim[target];
+		qhead     = trailSize;
+		level     = target;
+	}
+
+	/**
+	 * Pick the unassigned variable with the highest activity
+	 *
+	 * @return the variable (from 0), or -1 if every variable is assigned
+	 */
+	private int pickBranchVar() {
+		while (heapSize > 0) {
+			int v = heapRemoveMax();
+			if (assigns[v] == UNDEF)
+				return v;
+		}
+		return -1;
+	}
+
+	/**
+	 * Increase the activity of a variable, rescaling every activity if it grows too large
+	 *
+	 * @param v the variable (from 0)
+	 */
+	private void bumpVar(int v) {
+		activity[v] += varInc;
+		if (activity[v] > 1e100) {
+			for (int i=0; i<numVars; i++)
+				activity[i] *= 1e-100;
+			varInc *= 1e-100;
+		}
+		if (heapIndex[v] >= 0)
+			heapUp(heapIndex[v]);
+	}
+
+	/**
+	 * Add a variable to the activity heap
+	 *
+	 * @param v the variable (from 0)
+	 */
+	private void heapInsert(int v) {
+		heap[heapSize] = v;
+		heapIndex[v]   = heapSize;
+		heapUp(heapSize++);
+	}
+
+	/**
+	 * Remove the variable with the highest activity from the heap
+	 *
+	 * @return the variable (from 0)
+	 */
+	private int heapRemoveMax() {
+		int top  = heap[0];
+		int last = heap[--heapSize];
+		heapIndex[top] = -1;
+		if (heapSize > 0) {
+			heap[0]         = last;
+			heapIndex[last] = 0;
+			heapDown(0);
+		}
+		return top;
+	}
+
+	/**
+	 * Move a heap entry up to its place
+	 *
+	 * @param i the heap position
+	 */
+	private void heapUp(int i) {
+		int v = heap[i];
+		while (i > 0) {
+			int parent = (i - 1) >> 1;
+			if (activity[heap[parent]] >= activity[v])
+				break;
+			heap[i] = heap[parent];
+			heapIndex[heap[i]] = i;
+			i = parent;
+		}
+		heap[i]      = v;
+		heapIndex[v] = i;
+	}
+
+	/**
+	 * Move a heap entry down to its place
+	 *
+	 * @param i the heap position
+	 */
+	private void heapDown(int i) {
+		int v = heap[i];
+		while (true) {
+			int child = 2*i + 1;
+			if (child >= heapSize)
+				break;
+			if ((child + 1 < heapSize) && (activity[heap[child + 1]] > activity[heap[child]]))
+				child++;
+			if (activity[heap[child]] <= activity[v])
+				break;
+			heap[i] = heap[child];
+			heapIndex[heap[i]] = i;
+			i = child;
+		}
+		heap[i]      = v;
+		heapIndex[v] = i;
+	}
+
+	/**
+	 * The value of a literal
+	 *
+	 * @param lit the literal
+	 * @return TRUE, FALSE or UNDEF
+	 */
+	private int value(int lit) {
+		int a = assigns[lit >> 1];
+		return ((lit & 1) == 0) ? a : -a;
+	}
+
+	/**
+	 * The current decision level
+	 *
+	 * @return the level
+	 */
+	private int decisionLevel() {
+		return level;
+	}
+
+	/**
+	 * Grow the per-variable arrays to hold at least a number of variables
+	 *
+	 * @param n the number of variables
+	 */
+	private void ensureVars(int n) {
+		if ((assigns != null) && (n <= assigns.length))
+			return;
+		int cap = Math.max(n, (assigns == null) ? 0 : 2 * assigns.length);
+		assigns    = (assigns == null) ? new byte[cap] : Arrays.copyOf(assigns, cap);
+		levels     = (levels == null) ? new int[cap] : Arrays.copyOf(levels, cap);
+		reasons    = (reasons == null) ? new int[cap] : Arrays.copyOf(reasons, cap);
+		phase      = (phase == null) ? new boolean[cap] : Arrays.copyOf(phase, cap);
+		seen       = (seen == null) ? new boolean[cap] : Arrays.copyOf(seen, cap);
+		activity   = (activity == null) ? new double[cap] : Arrays.copyOf(activity, cap);
+		heap       = (heap == null) ? new int[cap] : Arrays.copyOf(heap, cap);
+		heapIndex  = (heapIndex == null) ? new int[cap] : Arrays.copyOf(heapIndex, cap);
+		trail      = (trail == null) ? new int[cap] : Arrays.copyOf(trail, cap);
+		trailLim   = (trailLim == null) ? new int[cap + 1] : Arrays.copyOf(trailLim, cap + 1);
+		levelStamp = (levelStamp == null) ? new int[cap + 1] : Arrays.copyOf(levelStamp, cap + 1);
+		watches    = (watches == null) ? new int[2 * cap][] : Arrays.copyOf(watches, 2 * cap);
+		watchSize  = (watchSize == null) ? new int[2 * cap] : Arrays.copyOf(watchSize, 2 * cap);
+		for (int v=numVars; v<cap; v++) {
+			reasons[v]   = NO_REASON;
+			heapIndex[v] = -1;
+		}
+		for (int l=2*numVars; l<2*cap; l++)
+			if (watches[l] == null)
+				watches[l] = new int[4];
+	}
+
+	/**
+	 * Store a value in a growable array
+	 *
+	 * @param a the array
+	 * @param i the position
+	 * @param x the value
+	 * @return the array (a new one if it had to grow)
+	 */
+	private static int[] push(int[] a, int i, int x) {
+		if (i == a.length)
+			a = Arrays.copyOf(a, 2 * a.length);
+		a[i] = x;
+		return a;
+	}
+
+	/**
+	 * The i'th term of the Luby sequence (1, 1, 2, 1, 1, 2, 4, 1, ...)
+	 *
+	 * @param i the index (from 0)
+	 * @return the term
+	 */
+	static long luby(int i) {
+		int size = 1, seq = 0;
+		while (size < i + 1) {
+			seq++;
+			size = 2*size + 1;
+		}
+		while (size - 1 != i) {
+			size = (size - 1) >> 1;
+			seq--;
+			i = i % size;
+		}
+		return 1L << seq;
+	}
+
+	/**
+	 * The number of conflicts in the first restart interval (scaled by the Luby sequence)
+	 */
+	public static final long RESTART_BASE = 100;
+
+	private static final byte   TRUE          = 1;
+	private static final byte   FALSE         = -1;
+	private static final byte   UNDEF         = 0;
+	private static final int    NO_REASON     = -1;
+	private static final int    INITIAL_VARS  = 64;
+	private static final double VAR_DECAY     = 1 / 0.95;
+
+	private byte[]    assigns    = null;  // TRUE, FALSE or UNDEF per variable
+	private int[]     levels     = null;  // decision level per assigned variable
+	private int[]     reasons    = null;  // implying clause per assigned variable
+	private boolean[] phase      = null;  // last value per variable
+	private boolean[] seen       = null;  // scratch for conflict analysis
+	private double[]  activity   = null;  // VSIDS activity per variable
+	private int[]     heap       = null;  // variables by activity (max first)
+	private int[]     heapIndex  = null;  // heap position per variable (-1 if not in it)
+	private int[]     trail      = null;  // assigned literals in order
+	private int[]     trailLim   = null;  // trail size at the start of each level
+	private int[]     levelStamp = null;  // scratch for counting levels
+	private int[][]   watches    = null;  // clauses per watched literal
+	private int[]     watchSize  = null;  // watch list length per literal
+	private int[][]   lits       = new int[256][];     // literals per clause
+	private boolean[] learnt     = new boolean[256];   // learnt flag per clause
+	private int[]     lbd        = new int[256];       // literal block distance per learnt clause
+	private int[]     learnBuf   = new int[64];        // scratch for the learnt clause
+	private int[]     learnCopy  = new int[64];        // the learnt clause before minimisation
+	private boolean[] model      = null;
+	private Budget    budget     = null;
+	private int       numVars     = 0;
+	private int       numClauses  = 0;
+	private int       numOriginal = 0;
+	private int       numLearnt   = 0;
+	private int       maxLearnt   = 2000;
+	private int       heapSize    = 0;
+	private int       trailSize   = 0;
+	private int       qhead       = 0;
+	private int       level       = 0;
+	private int       stamp       = 0;
+	private double    varInc      = 1.0;
+	private boolean   unsat       = false;
+	private long      conflicts    = 0;
+	private long      decisions    = 0;
+	private long      propagations = 0;
+	private int       restarts     = 0;
+	private volatile boolean cancelled = false;
+}
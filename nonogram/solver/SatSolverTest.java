@@ -0,0 +1,198 @@
+package nonogram.solver;
+
+import static org.junit.Assert.*;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The test class SatSolverTest.
+ *
+ * @author  Daniel Dimuna
+ * @version October 2026
+ */
+public class SatSolverTest
+{
+    /**
+     * Default constructor for test class SatSolverTest
+     */
+    public SatSolverTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+    }
+
+    @Test
+    public void refutesPigeonhole() {
+        // 5 pigeons in 4 holes
+        SatSolver sat = new SatSolver();
+        int[][] in = new int[5][4];
+        for (int p=0; p<5; p++)
+            for (int h=0; h<4; h++)
+                in[p][h] = sat.newVar();
+        for (int p=0; p<5; p++)
+            sat.addClause(in[p]);
+        for (int h=0; h<4; h++)
+            for (int p=0; p<5; p++)
+                for (int q=p+1; q<5; q++)
+                    sat.addClause(-in[p][h], -in[q][h]);
+        assertFalse(sat.solve());
+        assertFalse(sat.isCancelled());
+        assertTrue(sat.getConflicts() > 0);
+    }
+
+    @Test
+    public void agreesWithBruteForce() {
+        Random rnd = new Random(1L);
+        int n = 10;
+        for (int t=0; t<200; t++) {
+            SatSolver sat = new SatSolver();
+            for (int v=0; v<n; v++)
+                sat.newVar();
+            int[][] clauses = new int[43][3];
+            for (int[] c : clauses) {
+                for (int j=0; j<3; j++)
+                    c[j] = (rnd.nextInt(n) + 1) * (rnd.nextBoolean() ? 1 : -1);
+                sat.addClause(c);
+            }
+            boolean exists = false;
+            for (int mask=0; (mask < (1 << n)) && !exists; mask++)
+                exists = satisfies(clauses, mask);
+            assertEquals(exists, sat.solve());
+            if (exists) {
+                int mask = 0;
+                for (int v=1; v<=n; v++)
+                    if (sat.getValue(v))
+                        mask |= 1 << (v - 1);
+                assertTrue(satisfies(clauses, mask));
+            }
+        }
+    }
+
+    @Test
+    public void addsClausesBetweenSolves() {
+        SatSolver sat = new SatSolver();
+        int a = sat.newVar(), b = sat.newVar();
+        sat.addClause(a, b);
+        assertTrue(sat.solve());
+        sat.addClause(-a);
+        assertTrue(sat.solve());
+        assertFalse(sat.getValue(a));
+        assertTrue(sat.getValue(b));
+        sat.addClause(-b);
+        assertFalse(sat.solve());
+        assertEquals(3, sat.getNumClauses());
+    }
+
+    @Test
+    public void assumptionsAgreeWithBruteForce() {
+        Random rnd = new Random(2L);
+        int n = 10;
+        for (int t=0; t<20; t++) {
+            SatSolver sat = new SatSolver();
+            for (int v=0; v<n; v++)
+                sat.newVar();
+            int[][] clauses = new int[30][3];
+            for (int[] c : clauses) {
+                for (int j=0; j<3; j++)
+                    c[j] = (rnd.nextInt(n) + 1) * (rnd.nextBoolean() ? 1 : -1);
+                sat.addClause(c);
+            }
+            for (int a=0; a<20; a++) { // the same solver for every set of assumptions
+                int[] assume = new int[rnd.nextInt(4)];
+                for (int j=0; j<assume.length; j++)
+                    assume[j] = (rnd.nextInt(n) + 1) * (rnd.nextBoolean() ? 1 : -1);
+                boolean exists = false;
+                for (int mask=0; (mask < (1 << n)) && !exists; mask++)
+                    exists = satisfies(clauses, mask) && holds(assume, mask);
+                assertEquals(exists, sat.solve(assume));
+                if (exists)
+                    for (int lit : assume)
+                        assertEquals(lit > 0, sat.getValue(Math.abs(lit)));
+                else if (!sat.isUnsat())
+                    assertFalse(sat.solve(assume)); // no solution with them is not no solution at all
+            }
+        }
+    }
+
+    @Test
+    public void budgetStopsSolveAndSolverCarriesOn() {
+        SatSolver sat = new SatSolver();
+        int a = sat.newVar(), b = sat.newVar();
+        sat.addClause(a, b);
+        sat.setBudget(new Budget(1, 0, null));
+        assertFalse(sat.solve()); // two decisions needed
+        assertFalse(sat.isUnsat());
+        sat.setBudget(null);
+        assertTrue(sat.solve());
+    }
+
+    @Test
+    public void cancelledSolveReturnsFalse() {
+        SatSolver sat = new SatSolver();
+        int a = sat.newVar();
+        sat.addClause(a);
+        sat.cancel();
+        assertFalse(sat.solve());
+        assertTrue(sat.isCancelled());
+    }
+
+    @Test
+    public void lubySequence() {
+        long[] expected = { 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8 };
+        for (int i=0; i<expected.length; i++)
+            assertEquals(expected[i], SatSolver.luby(i));
+    }
+
+    /**
+     * Are assumed literals true in an assignment?
+     *
+     * @param assume the literals (DIMACS)
+     * @param mask the assignment (bit v-1 for variable v)
+     * @return true if they are, otherwise false
+     */
+    private static boolean holds(int[] assume, int mask) {
+        for (int lit : assume)
+            if ((((mask >> (Math.abs(lit) - 1)) & 1) == 1) != (lit > 0))
+                return false;
+        return true;
+    }
+
+    /**
+     * Does an assignment satisfy every clause?
+     *
+     * @param clauses the clauses (DIMACS literals)
+     * @param mask the assignment (bit v-1 for variable v)
+     * @return true if it does, otherwise false
+     */
+    private static boolean satisfies(int[][] clauses, int mask) {
+        for (int[] c : clauses) {
+            boolean sat = false;
+            for (int lit : c)
+                if ((((mask >> (Math.abs(lit) - 1)) & 1) == 1) == (lit > 0))
+                    sat = true;
+            if (!sat)
+                return false;
+        }
+        return true;
+    }
+}
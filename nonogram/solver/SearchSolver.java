@@ -0,0 +1,347 @@
+package nonogram.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import nonogram.NGPattern;
+import nonogram.Nonogram;
+
+/**
+ * A depth-first search solver: propagate, then guess an UNKNOWN cell, propagate
+ * again, and backtrack on a contradiction. By default the guessed cell is picked
+ * by a most-constrained heuristic: the line with the fewest UNKNOWN cells left,
+ * then the cell in it whose crossing line has the fewest (see Heuristic for the
+ * others). Backtracking undoes the cells set since the guess from the
+ * Propagator's trail, so the grid is never copied. The search runs in the puzzle
+ * itself, which is left solved if a solution is found and as it started
+ * otherwise.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class SearchSolver {
+	/**
+	 * How to pick the cell to branch on
+	 */
+	public enum Heuristic {
+		/** the cell in the line with the fewest UNKNOWN cells, ties broken by its crossing line (FULL tried first) */
+		MOST_CONSTRAINED,
+		/** a cell in the line with the largest block, ties broken by the fewest UNKNOWN cells (FULL tried first) */
+		LARGEST_CLUE,
+		/** a random UNKNOWN cell, with a random state tried first */
+		RANDOM
+	}
+
+	/**
+	 * Constructor using the default line solver
+	 *
+	 * @param ng the puzzle to solve
+	 */
+	public SearchSolver(Nonogram ng) {
+		this(new Propagator(ng));
+	}
+
+	/**
+	 * Constructor using the most-constrained heuristic
+	 *
+	 * @param prop the propagator for the puzzle to solve
+	 */
+	public SearchSolver(Propagator prop) {
+		this(prop, Heuristic.MOST_CONSTRAINED, 0L);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param prop the propagator for the puzzle to solve
+	 * @param heuristic how to pick the cell to branch on
+	 * @param seed the random seed (for the RANDOM heuristic)
+	 */
+	public SearchSolver(Propagator prop, Heuristic heuristic, long seed) {
+		if (prop == null)
+			throw new IllegalArgumentException("prop cannot be null");
+		if (heuristic == null)
+			throw new IllegalArgumentException("heuristic cannot be null");
+		this.prop      = prop;
+		this.heuristic = heuristic;
+		this.rnd       = new Random(seed);
+		this.ng        = prop.getNonogram();
+		this.numRows   = ng.getNumRows();
+		this.numCols   = ng.getNumCols();
+		this.rowBlock  = new int[numRows];
+		this.colBlock  = new int[numCols];
+		this.line      = new byte[numCols];
+		for (int row=0; row<numRows; row++)
+			rowBlock[row] = largestBlock(ng.getRowPattern(row));
+		for (int col=0; col<numCols; col++)
+			colBlock[col] = largestBlock(ng.getColPattern(col));
+	}
+
+	/**
+	 * Search for a solution, starting from the current cell states
+	 *
+	 * @return the solution (cell states by row and column), or null if the puzzle has no solution
+	 *         or the search was cancelled or ran out of budget (see isCancelled() and isBudgetExhausted())
+	 */
+	public int[][] solve() {
+		nodes        = 0;
+		restarts     = 0;
+		stopped      = false;
+		maxSolutions = 1;
+		solutions    = null;
+		int  mark  = prop.getTrailSize();
+		long limit = restartNodes;
+		while (true) {
+			nodeLimit = (limit > 0) ? nodes + limit : Long.MAX_VALUE;
+			aborted   = false;
+			prop.queueAll();
+			if (search())
+				break;
+			prop.undo(mark);
+			if (!aborted || cancelled || stopped)
+				return null;
+			restarts++;
+			limit *= 2; // so the search is still complete
+		}
+		return cells();
+	}
+
+	/**
+	 * Search for up to limit solutions, starting from the current cell states, and stop as soon as
+	 * that many have been found. The puzzle is left as it started. Restarts are not used.
+	 *
+	 * @param limit the number of solutions after which to stop (e.g. 2 to check a solution is unique)
+	 * @return the solutions found (cell states by row and column, in search order), empty if there are
+	 *         none or the search was cancelled or ran out of budget
+	 */
+	public List<int[][]> solveAll(int limit) {
+		List<int[][]> found = solveAll(limit, 0);
+		return (found == null) ? new ArrayList<int[][]>() : found;
+	}
+
+	/**
+	 * Search for up to limit solutions within a number of nodes, starting from the current cell states.
+	 * The puzzle is left as it started. Restarts are not used.
+	 *
+	 * @param limit the number of solutions after which to stop (e.g. 2 to check a solution is unique)
+	 * @param maxNodes the number of nodes after which to give up (0 for no limit)
+	 * @return the solutions found (cell states by row and column, in search order), empty if there are
+	 *         none, or null if the search gave up or was cancelled before it was complete
+	 */
+	public List<int[][]> solveAll(int limit, long maxNodes) {
+		if (limit < 1)
+			throw new IllegalArgumentException("limit must be at least 1");
+		if (maxNodes < 0)
+			throw new IllegalArgumentException("maxNodes cannot be negative");
+		nodes        = 0;
+		restarts     = 0;
+		nodeLimit    = (maxNodes > 0) ? maxNodes : Long.MAX_VALUE;
+		aborted      = false;
+		stopped      = false;
+		maxSolutions = limit;
+		solutions    = new ArrayList<int[][]>();
+		int mark = prop.getTrailSize();
+		prop.queueAll();
+		search();
+		prop.undo(mark);
+		List<int[][]> found = solutions;
+		solutions = null;
+		return aborted ? null : found;
+	}
+
+	/**
+	 * Restart the search after a number of nodes, doubling the number at each restart (0, the default,
+	 * never restarts). Restarts only change the search with the RANDOM heuristic.
+	 *
+	 * @param restartNodes the number of nodes before the first restart
+	 */
+	public void setRestartNodes(long restartNodes) {
+		if (restartNodes < 0)
+			throw new IllegalArgumentException("restartNodes cannot be negative");
+		this.restartNodes = restartNodes;
+	}
+
+	/**
+	 * Stop the solve() running in another thread as soon as possible, leaving the puzzle as it started.
+	 * A cancelled solver stays cancelled, so a later solve() returns null at once.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Has the solver been cancelled?
+	 *
+	 * @return true if it has been cancelled, otherwise false
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Did the last solve() or solveAll() stop because the propagator's budget ran out (see Propagator.setBudget())?
+	 *
+	 * @return true if the budget ran out, otherwise false
+	 */
+	public boolean isBudgetExhausted() {
+		return stopped;
+	}
+
+	/**
+	 * Retrieve the number of search nodes (propagations) in the last solve()
+	 *
+	 * @return the number of nodes
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Retrieve the number of restarts in the last solve()
+	 *
+	 * @return the number of restarts
+	 */
+	public int getRestarts() {
+		return restarts;
+	}
+
+	/**
+	 * Retrieve the propagator the search uses
+	 *
+	 * @return the propagator
+	 */
+	public Propagator getPropagator() {
+		return prop;
+	}
+
+	/**
+	 * Propagate the queued lines, and if the puzzle is not yet solved, branch on a cell
+	 *
+	 * @return true if a solution was found (and is left in the puzzle), otherwise false
+	 */
+	private boolean search() {
+		if (cancelled || (nodes >= nodeLimit)) {
+			aborted = true;
+			return false;
+		}
+		nodes++;
+		if (!prop.run())
+			return false;
+		if (prop.hasQueued()) { // the propagator's budget ran out
+			aborted = stopped = true;
+			return false;
+		}
+		int cell = pickCell();
+		if (cell < 0) {
+			if (!ng.isSolved())
+				return false;
+			if (solutions == null)
+				return true;
+			solutions.add(cells());
+			return solutions.size() >= maxSolutions; // otherwise backtrack for more
+		}
+		int row = cell / numCols;
+		int col = cell % numCols;
+		int mark = prop.getTrailSize();
+		boolean emptyFirst = (heuristic == Heuristic.RANDOM) && rnd.nextBoolean();
+		for (int state : emptyFirst ? EMPTY_FIRST : FULL_FIRST) {
+			prop.assign(row, col, state);
+			if (search())
+				return true;
+			prop.undo(mark);
+			if (aborted)
+				return false;
+		}
+		return false;
+	}
+
+	/**
+	 * Copy the cell states of the puzzle
+	 *
+	 * @return the cell states by row and column
+	 */
+	private int[][] cells() {
+		int[][] sol = new int[numRows][numCols];
+		for (int row=0; row<numRows; row++)
+			for (int col=0; col<numCols; col++)
+				sol[row][col] = ng.getState(row, col);
+		return sol;
+	}
+
+	/**
+	 * Pick the UNKNOWN cell to branch on with the heuristic, scoring lines by the propagator's
+	 * UNKNOWN counts, so only the rows that still have UNKNOWN cells are read
+	 *
+	 * @return the cell (row*numCols + col), or -1 if there are no UNKNOWN cells
+	 */
+	int pickCell() {
+		int best = -1, bestLine = Integer.MAX_VALUE, bestCross = Integer.MAX_VALUE, seen = 0;
+		for (int row=0; row<numRows; row++) {
+			int rowUnknown = prop.getUnknown(row);
+			if (rowUnknown == 0)
+				continue;
+			ng.readRow(row, line);
+			for (int col=0; col<numCols; col++) {
+				if (line[col] != Nonogram.UNKNOWN)
+					continue;
+				int colUnknown = prop.getUnknown(numRows + col);
+				int lineScore, crossScore;
+				switch (heuristic) {
+				case LARGEST_CLUE:
+					lineScore  = -Math.max(rowBlock[row], colBlock[col]); // larger is better
+					crossScore = Math.min(rowUnknown, colUnknown);
+					break;
+				case RANDOM:
+					if (rnd.nextInt(++seen) == 0) // reservoir sampling: the i-th UNKNOWN cell is kept with probability 1/i
+						best = row * numCols + col;
+					continue;
+				default:
+					lineScore  = Math.min(rowUnknown, colUnknown);
+					crossScore = Math.max(rowUnknown, colUnknown);
+					break;
+				}
+				if ((lineScore < bestLine) || ((lineScore == bestLine) && (crossScore < bestCross))) {
+					best      = row * numCols + col;
+					bestLine  = lineScore;
+					bestCross = crossScore;
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * The length of the largest block of a pattern
+	 *
+	 * @param pat the pattern
+	 * @return the largest block
+	 */
+	private static int largestBlock(NGPattern pat) {
+		int largest = 0;
+		for (int b=0; b<pat.getNumBlocks(); b++)
+			largest = Math.max(largest, pat.getNum(b));
+		return largest;
+	}
+
+	private static final int[] FULL_FIRST  = { Nonogram.FULL, Nonogram.EMPTY };
+	private static final int[] EMPTY_FIRST = { Nonogram.EMPTY, Nonogram.FULL };
+
+	private final Propagator prop;
+	private final Heuristic  heuristic;
+	private final Random     rnd;
+	private final Nonogram   ng;
+	private final int        numRows;
+	private final int        numCols;
+	private final int[]      rowBlock;   // largest block per row
+	private final int[]      colBlock;   // largest block per column
+	private final byte[]     line;       // scratch for reading a row
+	private long             nodes        = 0;
+	private long             nodeLimit    = Long.MAX_VALUE;
+	private long             restartNodes = 0;
+	private int              restarts     = 0;
+	private int              maxSolutions = 1;
+	private List<int[][]>    solutions    = null;  // collected by solveAll(), otherwise null
+	private boolean          aborted      = false; // stopped by the node limit, cancel() or the budget
+	private boolean          stopped      = false; // stopped by the propagator's budget
+	private volatile boolean cancelled    = false;
+}
@@ -0,0 +1,130 @@
+package nonogram.solver;
+
+import static org.junit.Assert.*;
+import java.util.Random;
+import java.util.Scanner;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The test class SearchSolverTest.
+ *
+ * @author  Daniel Dimuna
+ * @version October 2026
+ */
+public class SearchSolverTest
+{
+    /**
+     * Default constructor for test class SearchSolverTest
+     */
+    public SearchSolverTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+    }
+
+    @Test
+    public void solvesTinyWithoutGuessing() {
+        Nonogram ng = new Nonogram(new Scanner(PropagatorTest.TINY));
+        SearchSolver search = new SearchSolver(ng);
+        assertNotNull(search.solve());
+        assertEquals(1, search.getNodes());
+        assertEquals(PropagatorTest.GOAL, PropagatorTest.cells(ng));
+    }
+
+    @Test
+    public void solvesRandomPuzzles() {
+        Random rnd = new Random(3L);
+        for (int t=0; t<20; t++) {
+            Nonogram ng = new Nonogram(new Scanner(PuzzleGenerator.randomNonFile(20, 20, 0.5, rnd.nextLong())));
+            int[][] sol = new SearchSolver(ng).solve();
+            assertNotNull(sol);
+            assertTrue(ng.isSolved());
+            for (int row=0; row<20; row++)
+                for (int col=0; col<20; col++)
+                    assertEquals(sol[row][col], ng.getState(row, col));
+        }
+    }
+
+    @Test
+    public void reportsUnsolvable() {
+        Nonogram ng = new Nonogram(new Scanner(PropagatorTest.TINY));
+        ng.setState(0, 0, Nonogram.EMPTY); // goal has FULL here, and tiny has a unique solution
+        SearchSolver search = new SearchSolver(ng);
+        assertNull(search.solve());
+        assertEquals(Nonogram.EMPTY, ng.getState(0, 0));
+        assertEquals(1, countKnown(ng)); // the puzzle is left as it started
+    }
+
+    @Test
+    public void undoRestoresCells() {
+        Nonogram ng = new Nonogram(new Scanner(PuzzleGenerator.randomNonFile(15, 15, 0.5, 9L)));
+        Propagator prop = new Propagator(ng);
+        int mark = prop.getTrailSize();
+        prop.assign(3, 4, Nonogram.FULL);
+        prop.propagate();
+        assertTrue(prop.getTrailSize() > mark);
+        prop.undo(mark);
+        assertEquals(0, countKnown(ng));
+    }
+
+    @Test
+    public void everyHeuristicSolves() {
+        for (SearchSolver.Heuristic h : SearchSolver.Heuristic.values()) {
+            Random rnd = new Random(5L);
+            for (int t=0; t<10; t++) {
+                Nonogram ng = new Nonogram(new Scanner(PuzzleGenerator.randomNonFile(15, 15, 0.5, rnd.nextLong())));
+                SearchSolver search = new SearchSolver(new Propagator(ng), h, t);
+                search.setRestartNodes(4);
+                assertNotNull(h.toString(), search.solve());
+                assertTrue(h.toString(), ng.isSolved());
+            }
+        }
+    }
+
+    @Test
+    public void cancelledSolveLeavesPuzzle() {
+        Nonogram ng = new Nonogram(new Scanner(PropagatorTest.TINY));
+        SearchSolver search = new SearchSolver(ng);
+        search.cancel();
+        assertNull(search.solve());
+        assertTrue(search.isCancelled());
+        assertEquals(0, countKnown(ng));
+    }
+
+    /**
+     * Count the known cells of a puzzle
+     *
+     * @param ng the puzzle
+     * @return the number of cells that are not UNKNOWN
+     */
+    private static int countKnown(Nonogram ng) {
+        int known = 0;
+        for (int row=0; row<ng.getNumRows(); row++)
+            for (int col=0; col<ng.getNumCols(); col++)
+                if (ng.getState(row, col) != Nonogram.UNKNOWN)
+                    known++;
+        return known;
+    }
+}
@@ -0,0 +1,40 @@
+package nonogram.solver;
+
+import nonogram.NGPattern;
+import nonogram.Nonogram;
+
+/**
+ * A line solver that tries each UNKNOWN cell as FULL and as EMPTY and keeps the
+ * only state the pattern accepts. Each try is one NGPattern.isValid() check, so a
+ * line of n cells costs n checks of O(n) each.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class SimpleLineSolver implements LineSolver {
+	@Override
+	public boolean isComplete() {
+		return true;
+	}
+
+	@Override
+	public boolean solve(NGPattern pat, byte[] line) {
+		if (!pat.isValid(line))
+			return false;
+		int len = pat.getMaxLen();
+		for (int i=0; i<len; i++) {
+			if (line[i] != Nonogram.UNKNOWN)
+				continue;
+			line[i] = Nonogram.FULL;
+			boolean canBeFull = pat.isValid(line);
+			line[i] = Nonogram.EMPTY;
+			boolean canBeEmpty = pat.isValid(line);
+			if (canBeFull && canBeEmpty)
+				line[i] = Nonogram.UNKNOWN;
+			else if (canBeFull)
+				line[i] = Nonogram.FULL;
+			// otherwise it stays EMPTY (the line is valid, so one of the two must be)
+		}
+		return true;
+	}
+}
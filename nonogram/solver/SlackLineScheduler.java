@@ -0,0 +1,132 @@
+package nonogram.solver;
+
+/**
+ * Solves the queued line with the highest estimated information gain first.
+ * A line with little slack (its length minus the minimum length of its pattern)
+ * forces many cells, a line with few UNKNOWN cells left is nearly determined,
+ * and a line whose cells have changed many times since it was last solved has
+ * the most new information to work with, so the estimate is
+ * (changes + 1) / ((slack + 1) * (unknown + 1)), scaled to an int. Queued lines
+ * are kept in an indexed binary heap of primitive arrays, so a line's priority
+ * can be raised in place without allocating.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class SlackLineScheduler implements LineScheduler {
+	@Override
+	public void init(int[] slack, int[] unknown) {
+		this.slack   = slack;
+		this.unknown = unknown;
+		this.heap    = new int[slack.length];
+		this.pos     = new int[slack.length];
+		this.prio    = new int[slack.length];
+		this.changes = new int[slack.length];
+		for (int l=0; l<slack.length; l++)
+			pos[l] = -1;
+		size = 0;
+	}
+
+	@Override
+	public void add(int l) {
+		changes[l]++;
+		prio[l] = priority(l);
+		if (pos[l] < 0) {
+			heap[size] = l;
+			pos[l]     = size;
+			up(size++);
+		} else {
+			up(pos[l]); // a change only raises the priority
+		}
+	}
+
+	@Override
+	public int poll() {
+		int top  = heap[0];
+		int last = heap[--size];
+		pos[top]     = -1;
+		changes[top] = 0;
+		if (size > 0) {
+			heap[0]   = last;
+			pos[last] = 0;
+			down(0);
+		}
+		return top;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void clear() {
+		for (int i=0; i<size; i++) {
+			pos[heap[i]]     = -1;
+			changes[heap[i]] = 0;
+		}
+		size = 0;
+	}
+
+	/**
+	 * The estimated information gain of solving a line
+	 *
+	 * @param l the line number
+	 * @return the priority (larger is solved first, capped at Integer.MAX_VALUE so it cannot overflow)
+	 */
+	private int priority(int l) {
+		return (int) Math.min(((long) changes[l] + 1) * SCALE / ((slack[l] + 1) * (long) (unknown[l] + 1)), Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Move a heap entry up to its place
+	 *
+	 * @param i the heap position
+	 */
+	private void up(int i) {
+		int l = heap[i];
+		while (i > 0) {
+			int parent = (i - 1) >> 1;
+			if (prio[heap[parent]] >= prio[l])
+				break;
+			heap[i] = heap[parent];
+			pos[heap[i]] = i;
+			i = parent;
+		}
+		heap[i] = l;
+		pos[l]  = i;
+	}
+
+	/**
+	 * Move a heap entry down to its place
+	 *
+	 * @param i the heap position
+	 */
+	private void down(int i) {
+		int l = heap[i];
+		while (true) {
+			int child = 2*i + 1;
+			if (child >= size)
+				break;
+			if ((child + 1 < size) && (prio[heap[child + 1]] > prio[heap[child]]))
+				child++;
+			if (prio[heap[child]] <= prio[l])
+				break;
+			heap[i] = heap[child];
+			pos[heap[i]] = i;
+			i = child;
+		}
+		heap[i] = l;
+		pos[l]  = i;
+	}
+
+	private static final long SCALE = 1 << 20;
+
+	private int[] slack   = null;  // per line (not changed here)
+	private int[] unknown = null;  // per line (kept by the propagator)
+	private int[] heap    = null;  // queued lines, highest priority first
+	private int[] pos     = null;  // heap position per line (-1 if not queued)
+	private int[] prio    = null;  // priority per queued line
+	private int[] changes = null;  // add() calls per line since it was last solved
+	private int   size    = 0;
+}
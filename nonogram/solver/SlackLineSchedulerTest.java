@@ -0,0 +1,110 @@
+package nonogram.solver;
+
+import static org.junit.Assert.*;
+import java.util.Random;
+import java.util.Scanner;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The test class SlackLineSchedulerTest.
+ *
+ * @author  Daniel Dimuna
+ * @version October 2026
+ */
+public class SlackLineSchedulerTest
+{
+    /**
+     * Default constructor for test class SlackLineSchedulerTest
+     */
+    public SlackLineSchedulerTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+    }
+
+    @Test
+    public void pollsHighestGainFirst() {
+        int[] slack   = { 4, 0, 2, 0 };
+        int[] unknown = { 5, 5, 5, 1 };
+        SlackLineScheduler sched = new SlackLineScheduler();
+        sched.init(slack, unknown);
+        for (int l=0; l<4; l++)
+            sched.add(l);
+        for (int i=0; i<5; i++)
+            sched.add(2); // 6 changes: (6+1)/(3*6) beats (1+1)/(1*6)
+        assertEquals(3, sched.poll());
+        assertEquals(2, sched.poll());
+        assertEquals(1, sched.poll());
+        assertEquals(0, sched.poll());
+        assertTrue(sched.isEmpty());
+        sched.add(0);
+        sched.add(1);
+        sched.clear();
+        assertTrue(sched.isEmpty());
+    }
+
+    @Test
+    public void manyChangesDoNotOverflow() {
+        int[] slack   = { 0, 0 };
+        int[] unknown = { 0, 1 };
+        SlackLineScheduler sched = new SlackLineScheduler();
+        sched.init(slack, unknown);
+        for (int i=0; i<3000; i++)
+            sched.add(0); // (3000+1) * 2^20 is past Integer.MAX_VALUE, and would wrap to a negative priority
+        sched.add(1);
+        assertEquals(0, sched.poll());
+        assertEquals(1, sched.poll());
+    }
+
+    @Test
+    public void sameFixpointWithFewerLineSolves() {
+        Random rnd = new Random(7L);
+        long fifoSolves = 0, slackSolves = 0;
+        for (int t=0; t<30; t++) {
+            String file = PuzzleGenerator.toNonFile(PuzzleGenerator.randomGoal(20, 20, 0.6, rnd));
+            Nonogram fifo  = new Nonogram(new Scanner(file));
+            Nonogram slack = new Nonogram(new Scanner(file));
+            Propagator fifoProp  = new Propagator(fifo);
+            Propagator slackProp = new Propagator(slack, new HybridLineSolver(), new SlackLineScheduler());
+            assertTrue(fifoProp.propagate());
+            assertTrue(slackProp.propagate());
+            assertEquals(PropagatorTest.cells(fifo), PropagatorTest.cells(slack));
+            fifoSolves  += fifoProp.getLineSolves();
+            slackSolves += slackProp.getLineSolves();
+        }
+        assertTrue(slackSolves < fifoSolves);
+    }
+
+    @Test
+    public void searchesWithSlackScheduler() {
+        Random rnd = new Random(3L);
+        for (int t=0; t<10; t++) {
+            Nonogram ng = new Nonogram(new Scanner(PuzzleGenerator.randomNonFile(20, 20, 0.5, rnd.nextLong())));
+            Propagator prop = new Propagator(ng, new HybridLineSolver(), new SlackLineScheduler());
+            assertNotNull(new SearchSolver(prop).solve()); // guesses are undone, so the unknown counts must be too
+            assertTrue(ng.isSolved());
+        }
+    }
+}
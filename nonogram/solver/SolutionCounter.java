@@ -0,0 +1,131 @@
+package nonogram.solver;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import nonogram.Nonogram;
+
+/**
+ * Counts the solutions of a puzzle up to a limit, for checking that a puzzle
+ * has exactly one. The puzzle is copied (sharing its parsed patterns) and a
+ * SearchSolver propagates and searches it, backtracking after each solution
+ * until the limit is reached. Most puzzles finish within a few hundred nodes;
+ * for the rest the search is abandoned, probing (see Prober) settles every cell
+ * it can, and the search runs again to completion, which removes the long
+ * searches that branching alone sometimes falls into. With a limit of 2, a
+ * puzzle that propagation solves is proved unique without any search, and an
+ * ambiguous puzzle stops at its second solution, which is kept as a witness that
+ * the clues do not pin down the first.
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class SolutionCounter {
+	/**
+	 * Constructor probing in the common pool
+	 *
+	 * @param ng the puzzle (only read; counting starts from its current cell states)
+	 */
+	public SolutionCounter(Nonogram ng) {
+		this(ng, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param ng the puzzle (only read; counting starts from its current cell states)
+	 * @param pool the pool to probe in
+	 */
+	public SolutionCounter(Nonogram ng, ForkJoinPool pool) {
+		if (ng == null)
+			throw new IllegalArgumentException("ng cannot be null");
+		if (pool == null)
+			throw new IllegalArgumentException("pool cannot be null");
+		this.ng   = ng;
+		this.pool = pool;
+	}
+
+	/**
+	 * Count the solutions of a puzzle, stopping at a limit
+	 *
+	 * @param ng the puzzle (only read)
+	 * @param limit the count at which to stop (2 to check the puzzle is unique)
+	 * @return the number of solutions, or limit if there are at least that many
+	 */
+	public static int countSolutions(Nonogram ng, int limit) {
+		return new SolutionCounter(ng).count(limit);
+	}
+
+	/**
+	 * Count the solutions, stopping at a limit
+	 *
+	 * @param limit the count at which to stop (2 to check the puzzle is unique)
+	 * @return the number of solutions, or limit if there are at least that many
+	 */
+	public int count(int limit) {
+		if (limit < 1)
+			throw new IllegalArgumentException("limit must be at least 1");
+		Nonogram copy = new Nonogram(ng);
+		solutions = Collections.emptyList();
+		nodes     = 0;
+		SearchSolver  search = new SearchSolver(copy);
+		List<int[][]> found  = search.solveAll(limit, PROBE_AFTER);
+		nodes = search.getNodes();
+		if (found == null) {
+			Prober prober = new Prober(copy, pool);
+			if (!prober.run())
+				return 0;
+			search = new SearchSolver(prober.getPropagator());
+			found  = search.solveAll(limit);
+			nodes += search.getNodes();
+		}
+		solutions = Collections.unmodifiableList(found);
+		return solutions.size();
+	}
+
+	/**
+	 * Retrieve the solutions found by the last count()
+	 *
+	 * @return the solutions (cell states by row and column, unmodifiable), empty before the first count()
+	 */
+	public List<int[][]> getSolutions() {
+		return solutions;
+	}
+
+	/**
+	 * Retrieve a second solution found by the last count(), showing that the puzzle is not unique
+	 *
+	 * @return the second solution (cell states by row and column), or null if at most one was found
+	 */
+	public int[][] getWitness() {
+		return (solutions.size() > 1) ? solutions.get(1) : null;
+	}
+
+	/**
+	 * Did the last count() find exactly one solution? (Only a proof of uniqueness if its limit was at least 2.)
+	 *
+	 * @return true if exactly one solution was found, otherwise false
+	 */
+	public boolean isUnique() {
+		return solutions.size() == 1;
+	}
+
+	/**
+	 * Retrieve the number of search nodes (propagations) in the last count(), before and after probing
+	 *
+	 * @return the number of nodes
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * The number of search nodes after which the search is abandoned and the puzzle probed
+	 */
+	public static final long PROBE_AFTER = 200;
+
+	private final Nonogram     ng;
+	private final ForkJoinPool pool;
+	private List<int[][]>      solutions = Collections.emptyList();
+	private long               nodes     = 0;
+}
@@ -0,0 +1,47 @@
+package nonogram.solver;
+
+import java.util.Random;
+import java.util.Scanner;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+
+/**
+ * Times uniqueness checks (SolutionCounter with a limit of 2) on streams of
+ * random candidate puzzles of a few sizes, reporting the throughput in puzzles
+ * per minute, the share found unique and the slowest single check.
+ * Run with "java nonogram.solver.SolutionCounterBenchmark".
+ *
+ * @author Daniel Dimuna
+ * @version October 2026
+ */
+public class SolutionCounterBenchmark {
+	public static void main(String[] args) {
+		System.out.println("  size  puzzles  unique   per min   max ms");
+		for (int size : SIZES) {
+			Random rnd = new Random(size);
+			Nonogram[] puzzles = new Nonogram[PUZZLES];
+			for (int i=0; i<PUZZLES; i++)
+				puzzles[i] = new Nonogram(new Scanner(PuzzleGenerator.randomNonFile(size, size, 0.5, rnd.nextLong())));
+			int    unique = 0;
+			double ms     = 0, maxMs = 0;
+			for (int pass=0; pass<PASSES; pass++) { // only the last pass is reported
+				unique = 0;
+				maxMs  = 0;
+				long t0 = System.nanoTime();
+				for (Nonogram ng : puzzles) {
+					long t1 = System.nanoTime();
+					if (SolutionCounter.countSolutions(ng, 2) == 1)
+						unique++;
+					maxMs = Math.max(maxMs, (System.nanoTime() - t1) / 1e6);
+				}
+				ms = (System.nanoTime() - t0) / 1e6;
+			}
+			System.out.printf("%3dx%-3d %7d %6.1f%% %9.0f %8.1f%n", size, size, PUZZLES,
+				100.0 * unique / PUZZLES, PUZZLES * 60000.0 / ms, maxMs);
+		}
+	}
+
+	private static final int[] SIZES   = { 10, 15, 20 };
+	private static final int   PUZZLES = 500;
+	private static final int   PASSES  = 2;
+}
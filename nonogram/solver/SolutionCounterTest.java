@@ -0,0 +1,117 @@
+package nonogram.solver;
+
+import static org.junit.Assert.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+import nonogram.Nonogram;
+import nonogram.PuzzleGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The test class SolutionCounterTest.
+ *
+ * @author  Daniel Dimuna
+ * @version October 2026
+ */
+public class SolutionCounterTest
+{
+    /**
+     * Default constructor for test class SolutionCounterTest
+     */
+    public SolutionCounterTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+    }
+
+    @Test
+    public void provesTinyUnique() {
+        Nonogram ng = new Nonogram(new Scanner(PropagatorTest.TINY));
+        SolutionCounter counter = new SolutionCounter(ng);
+        assertEquals(1, counter.count(2));
+        assertTrue(counter.isUnique());
+        assertNull(counter.getWitness());
+        assertEquals(1, counter.getNodes()); // propagation alone
+        assertEquals(0, countKnown(ng));     // the puzzle passed in is only read
+    }
+
+    @Test
+    public void stopsAtLimitWithWitness() {
+        Nonogram ng = new Nonogram(new Scanner(ParallelSearchSolverTest.PERMUTATIONS)); // 5! = 120 solutions
+        SolutionCounter counter = new SolutionCounter(ng);
+        assertEquals(2, counter.count(2));
+        assertFalse(counter.isUnique());
+        List<int[][]> sols = counter.getSolutions();
+        assertSame(sols.get(1), counter.getWitness());
+        assertFalse(Arrays.deepEquals(sols.get(0), sols.get(1)));
+        assertEquals(120, SolutionCounter.countSolutions(ng, 1000));
+        assertEquals(0, countKnown(ng));
+    }
+
+    @Test
+    public void countsNoneForUnsolvable() {
+        Nonogram ng = new Nonogram(new Scanner(PropagatorTest.TINY));
+        ng.setState(0, 0, Nonogram.EMPTY); // goal has FULL here
+        assertEquals(0, SolutionCounter.countSolutions(ng, 2));
+        assertEquals(Nonogram.EMPTY, ng.getState(0, 0));
+    }
+
+    @Test
+    public void witnessesAreSolutions() {
+        Random rnd = new Random(5L);
+        int ambiguous = 0;
+        for (int t=0; t<30; t++) {
+            Nonogram ng = new Nonogram(new Scanner(PuzzleGenerator.randomNonFile(15, 15, 0.5, rnd.nextLong())));
+            SolutionCounter counter = new SolutionCounter(ng);
+            int n = counter.count(2);
+            assertTrue(n >= 1); // generated from a goal, so solvable
+            for (int[][] sol : counter.getSolutions()) {
+                Nonogram check = new Nonogram(ng);
+                for (int row=0; row<15; row++)
+                    for (int col=0; col<15; col++)
+                        check.setState(row, col, sol[row][col]);
+                assertTrue(check.isSolved());
+            }
+            if (n == 2)
+                ambiguous++;
+        }
+        assertTrue(ambiguous > 0);
+    }
+
+    /**
+     * Count the known cells of a puzzle
+     *
+     * @param ng the puzzle
+     * @return the number of cells that are not UNKNOWN
+     */
+    private static int countKnown(Nonogram ng) {
+        int known = 0;
+        for (int row=0; row<ng.getNumRows(); row++)
+            for (int col=0; col<ng.getNumCols(); col++)
+                if (ng.getState(row, col) != Nonogram.UNKNOWN)
+                    known++;
+        return known;
+    }
+}